@@ -66,7 +66,7 @@ public abstract class AbstractOSGiMBeanTest {
 		return returnType.cast(result);
 	}
 	
-	private String getMBeanObjectName(){
+	protected String getMBeanObjectName(){
 		String newObjectName = this.mBeanObjectName;
 		if(this.addFrameworkAndUUID){
 			newObjectName = newObjectName + 
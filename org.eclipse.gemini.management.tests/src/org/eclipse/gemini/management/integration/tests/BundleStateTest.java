@@ -15,25 +15,49 @@
 package org.eclipse.gemini.management.integration.tests;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+import javax.management.MBeanServer;
+import javax.management.MBeanServerConnection;
+import javax.management.MBeanServerFactory;
+import javax.management.Notification;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import javax.management.RuntimeMBeanException;
 import javax.management.openmbean.CompositeData;
 import javax.management.openmbean.TabularData;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
 
+import org.eclipse.gemini.management.framework.BundleEventFilter;
 import org.eclipse.gemini.management.framework.BundleState;
+import org.eclipse.gemini.management.framework.CustomBundleStateMBean;
+import org.eclipse.gemini.management.framework.internal.BundleSnapshot;
 import org.eclipse.gemini.management.framework.internal.OSGiBundle;
+import org.eclipse.gemini.management.framework.internal.OSGiBundleEvent;
 import org.eclipse.gemini.management.internal.BundleUtil;
+import org.eclipse.gemini.management.internal.MonitorMBean;
 import org.junit.Before;
 import org.junit.Test;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
 import org.osgi.framework.Constants;
 import org.osgi.framework.FrameworkUtil;
 import org.osgi.framework.ServiceReference;
@@ -41,6 +65,7 @@ import org.osgi.framework.startlevel.BundleStartLevel;
 import org.osgi.framework.wiring.BundleRevision;
 import org.osgi.framework.wiring.BundleWire;
 import org.osgi.framework.wiring.BundleWiring;
+import org.osgi.framework.wiring.FrameworkWiring;
 import org.osgi.jmx.framework.BundleStateMBean;
 
 /**
@@ -109,6 +134,22 @@ public final class BundleStateTest extends AbstractOSGiMBeanTest{
 		this.bundle = null;
 	}
 	
+	@Test
+	public void snapshotCopiesTest() throws Exception {
+		Bundle management = FrameworkUtil.getBundle(BundleState.class);
+		BundleSnapshot snapshot = new BundleSnapshot(management);
+		TabularData headers = snapshot.getHeaders();
+		int size = headers.size();
+		headers.clear();
+		// the cached table is not changed by its callers
+		assertEquals(size, snapshot.getHeaders().size());
+		String[] imported = snapshot.getImportedPackages();
+		assertTrue(imported.length > 0);
+		String first = imported[0];
+		imported[0] = null;
+		assertEquals(first, snapshot.getImportedPackages()[0]);
+	}
+
 	@Test
 	public void nameAndVersionTest() throws Exception {
 		long start = System.currentTimeMillis();
@@ -132,6 +173,217 @@ public final class BundleStateTest extends AbstractOSGiMBeanTest{
 		}
 	}
 
+	@Test
+	public void pagedListTest() throws Exception {
+		long[] bundleIds = jmxFetchAttribute("BundleIds", long[].class);
+		Arrays.sort(bundleIds);
+		String[] types = new String[]{long.class.getName(), int.class.getName(), String[].class.getName()};
+		int pageSize = 5;
+		int listed = 0;
+		long after = -1;
+		TabularData page;
+		do {
+			Object[] arguments = new Object[]{after, pageSize, new String[]{BundleStateMBean.SYMBOLIC_NAME}};
+			page = jmxFetchData("listBundles", arguments, types, TabularData.class);
+			assertTrue(page.size() <= pageSize);
+			long[] pageIds = new long[page.size()];
+			int i = 0;
+			for (Object row : page.values()) {
+				pageIds[i++] = (Long) ((CompositeData) row).get(BundleStateMBean.IDENTIFIER);
+			}
+			Arrays.sort(pageIds);
+			for (long pageId : pageIds) {
+				assertEquals(bundleIds[listed++], pageId);
+			}
+			if (pageIds.length > 0) {
+				after = pageIds[pageIds.length - 1];
+			}
+		} while (page.size() == pageSize);
+		assertEquals(bundleIds.length, listed);
+	}
+
+	@Test
+	public void bulkGetTest() throws Exception {
+		long[] bundleIds = jmxFetchAttribute("BundleIds", long[].class);
+		Object[] arguments = new Object[]{bundleIds, new String[]{BundleStateMBean.SYMBOLIC_NAME, BundleStateMBean.IMPORTED_PACKAGES}};
+		String[] types = new String[]{long[].class.getName(), String[].class.getName()};
+		TabularData table = jmxFetchData("getBundles", arguments, types, TabularData.class);
+		assertEquals(bundleIds.length, table.size());
+		BundleContext bc = FrameworkUtil.getBundle(BundleState.class).getBundleContext();
+		for (long bundleId : bundleIds) {
+			bundleInfo = table.get(new Object[]{bundleId});
+			bundle = bc.getBundle(bundleId);
+			assertEquals(bundle.getSymbolicName(), bundleInfo.get(BundleStateMBean.SYMBOLIC_NAME));
+			importedPackages = (String[]) bundleInfo.get(BundleStateMBean.IMPORTED_PACKAGES);
+			String[] importedPackages2 = BundleUtil.getBundleImportedPackages(bundle);
+			Arrays.sort(importedPackages);
+			Arrays.sort(importedPackages2);
+			assertTrue(Arrays.equals(importedPackages, importedPackages2));
+		}
+	}
+
+	@Test
+	public void columnsTest() throws Exception {
+		long[] bundleIds = jmxFetchAttribute("BundleIds", long[].class);
+		CompositeData columns = jmxFetchData("listBundleColumns", new Object[]{}, new String[]{}, CompositeData.class);
+		long[] identifiers = (long[]) columns.get(CustomBundleStateMBean.IDENTIFIERS);
+		byte[] states = (byte[]) columns.get(CustomBundleStateMBean.STATES);
+		int[] startLevels = (int[]) columns.get(CustomBundleStateMBean.START_LEVELS);
+		long[] lastModifiedTimes = (long[]) columns.get(CustomBundleStateMBean.LAST_MODIFIED_TIMES);
+		Arrays.sort(bundleIds);
+		assertTrue(Arrays.equals(bundleIds, identifiers));
+		BundleContext bc = FrameworkUtil.getBundle(BundleState.class).getBundleContext();
+		for (int i = 0; i < identifiers.length; i++) {
+			bundle = bc.getBundle(identifiers[i]);
+			assertEquals(bundle.getState(), states[i]);
+			assertEquals(bundle.adapt(BundleStartLevel.class).getStartLevel(), startLevels[i]);
+			assertEquals(bundle.getLastModified(), lastModifiedTimes[i]);
+		}
+	}
+
+	@Test
+	public void eventFilterTest() throws Exception {
+		bundle = FrameworkUtil.getBundle(BundleState.class);
+		BundleEvent started = new BundleEvent(BundleEvent.STARTED, bundle);
+		BundleEvent stopped = new BundleEvent(BundleEvent.STOPPED, bundle);
+		BundleEventFilter filter = new BundleEventFilter(new long[]{bundle.getBundleId()}, "org.eclipse.gemini.*", BundleEvent.STARTED);
+		assertTrue(filter.isEventEnabled(started));
+		assertFalse(filter.isEventEnabled(stopped));
+		assertFalse(new BundleEventFilter(new long[]{bundle.getBundleId() + 1}, null, -1).isEventEnabled(started));
+		assertFalse(new BundleEventFilter(null, "*.tests", -1).isEventEnabled(started));
+		Notification notification = new Notification(BundleStateMBean.EVENT, BundleStateMBean.OBJECTNAME, 0);
+		notification.setUserData(new OSGiBundleEvent(started).asCompositeData());
+		assertTrue(filter.isNotificationEnabled(notification));
+		notification.setUserData(new OSGiBundleEvent(stopped).asCompositeData());
+		assertFalse(filter.isNotificationEnabled(notification));
+		notification.setUserData(new CompositeData[]{new OSGiBundleEvent(stopped).asCompositeData(), new OSGiBundleEvent(started).asCompositeData()});
+		assertTrue(filter.isNotificationEnabled(notification));
+	}
+
+	@Test
+	public void replayTest() throws Exception {
+		try {
+			jmxFetchData("replayEventsSince", new Object[]{Long.MAX_VALUE}, new String[]{long.class.getName()}, CompositeData[].class);
+			fail("Replayed the events while they are not retained");
+		} catch (RuntimeMBeanException e) {
+			assertTrue(e.getTargetException() instanceof IllegalStateException);
+		}
+	}
+
+	@Test
+	public void notificationTest() throws Exception {
+		BundleContext bc = FrameworkUtil.getBundle(BundleState.class).getBundleContext();
+		MonitorMBean monitor = new MonitorMBean(new BundleState(bc), CustomBundleStateMBean.class);
+		ObjectName name = new ObjectName(BundleStateMBean.OBJECTNAME + ",test=notificationTest");
+		MBeanServer first = MBeanServerFactory.newMBeanServer();
+		MBeanServer second = MBeanServerFactory.newMBeanServer();
+		final BlockingQueue<String> installed = new LinkedBlockingQueue<String>();
+		NotificationListener listener = new NotificationListener() {
+			public void handleNotification(Notification notification, Object handback) {
+				CompositeData event = (CompositeData) notification.getUserData();
+				if (Integer.valueOf(BundleEvent.INSTALLED).equals(event.get(BundleStateMBean.EVENT))) {
+					installed.add((String) event.get(BundleStateMBean.SYMBOLIC_NAME));
+				}
+			}
+		};
+		first.registerMBean(monitor, name);
+		second.registerMBean(monitor, name);
+		first.addNotificationListener(name, listener, null, null);
+		List<Bundle> bundles = new ArrayList<Bundle>();
+		try {
+			bundles.add(TestBundles.install(bc, "notificationTest.registeredTwice"));
+			assertEquals("notificationTest.registeredTwice", installed.poll(5, TimeUnit.SECONDS));
+			assertNull(installed.poll(500, TimeUnit.MILLISECONDS));
+			second.unregisterMBean(name);
+			bundles.add(TestBundles.install(bc, "notificationTest.registeredOnce"));
+			assertEquals("notificationTest.registeredOnce", installed.poll(5, TimeUnit.SECONDS));
+			first.unregisterMBean(name);
+			bundles.add(TestBundles.install(bc, "notificationTest.deregistered"));
+			assertNull(installed.poll(500, TimeUnit.MILLISECONDS));
+		} finally {
+			for (Bundle installedBundle : bundles) {
+				installedBundle.uninstall();
+			}
+			for (MBeanServer server : new MBeanServer[]{first, second}) {
+				if (server.isRegistered(name)) {
+					server.unregisterMBean(name);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void remoteListenersTest() throws Exception {
+		BundleContext bc = FrameworkUtil.getBundle(BundleState.class).getBundleContext();
+		JMXServiceURL url = new JMXServiceURL("service:jmx:rmi:///jndi/rmi://localhost:21045/jmxrmi");
+		JMXConnector filteredClient = JMXConnectorFactory.connect(url);
+		JMXConnector unfilteredClient = JMXConnectorFactory.connect(url);
+		BlockingQueue<String> filteredInstalls = new LinkedBlockingQueue<String>();
+		BlockingQueue<String> unfilteredInstalls = new LinkedBlockingQueue<String>();
+		List<Bundle> bundles = new ArrayList<Bundle>();
+		try {
+			ObjectName name = new ObjectName(getMBeanObjectName());
+			MBeanServerConnection filtered = filteredClient.getMBeanServerConnection();
+			filtered.addNotificationListener(name, installListener(filteredInstalls), new BundleEventFilter(null, "remoteListenersTest.wanted", BundleEvent.INSTALLED), null);
+			MBeanServerConnection unfiltered = unfilteredClient.getMBeanServerConnection();
+			unfiltered.addNotificationListener(name, installListener(unfilteredInstalls), null, null);
+			bundles.add(TestBundles.install(bc, "remoteListenersTest.wanted"));
+			bundles.add(TestBundles.install(bc, "remoteListenersTest.other"));
+			// the filter of one client does not narrow the events of the other
+			assertEquals("remoteListenersTest.wanted", unfilteredInstalls.poll(5, TimeUnit.SECONDS));
+			assertEquals("remoteListenersTest.other", unfilteredInstalls.poll(5, TimeUnit.SECONDS));
+			assertEquals("remoteListenersTest.wanted", filteredInstalls.poll(5, TimeUnit.SECONDS));
+			assertNull(filteredInstalls.poll(500, TimeUnit.MILLISECONDS));
+		} finally {
+			for (Bundle installedBundle : bundles) {
+				installedBundle.uninstall();
+			}
+			filteredClient.close();
+			unfilteredClient.close();
+		}
+	}
+
+	private static NotificationListener installListener(final BlockingQueue<String> installed) {
+		return new NotificationListener() {
+			public void handleNotification(Notification notification, Object handback) {
+				CompositeData event = (CompositeData) notification.getUserData();
+				String symbolicName = (String) event.get(BundleStateMBean.SYMBOLIC_NAME);
+				if (Integer.valueOf(BundleEvent.INSTALLED).equals(event.get(BundleStateMBean.EVENT)) && symbolicName.startsWith("remoteListenersTest.")) {
+					installed.add(symbolicName);
+				}
+			}
+		};
+	}
+
+	@Test
+	public void changedSinceTest() throws Exception {
+		long[] bundleIds = jmxFetchAttribute("BundleIds", long[].class);
+		long generation = jmxFetchAttribute("Generation", Long.class);
+		String[] types = new String[]{long.class.getName(), String[].class.getName()};
+		TabularData unknown = jmxFetchData("listBundlesChangedSince", new Object[]{Long.MAX_VALUE, new String[]{}}, types, TabularData.class);
+		assertEquals(bundleIds.length, unknown.size());
+		TabularData changed = jmxFetchData("listBundlesChangedSince", new Object[]{generation, new String[]{}}, types, TabularData.class);
+		assertTrue(changed.size() <= bundleIds.length);
+		assertTrue(generation <= jmxFetchAttribute("Generation", Long.class));
+
+		BundleContext bc = FrameworkUtil.getBundle(BundleState.class).getBundleContext();
+		bundle = TestBundles.install(bc, "changedSinceTest", Constants.IMPORT_PACKAGE, "org.osgi.framework");
+		try {
+			generation = jmxFetchAttribute("Generation", Long.class);
+			assertTrue(bc.getBundle(0).adapt(FrameworkWiring.class).resolveBundles(Collections.singleton(bundle)));
+			long deadline = System.currentTimeMillis() + 5000;
+			do {
+				changed = jmxFetchData("listBundlesChangedSince", new Object[]{generation, new String[]{}}, types, TabularData.class);
+			} while (!(changed.containsKey(new Object[]{bundle.getBundleId()}) && changed.containsKey(new Object[]{0L})) && System.currentTimeMillis() < deadline);
+			// the resolved bundle and the system bundle it is now wired to changed, the management bundle did not
+			assertTrue(changed.containsKey(new Object[]{bundle.getBundleId()}));
+			assertTrue(changed.containsKey(new Object[]{0L}));
+			assertFalse(changed.containsKey(new Object[]{bc.getBundle().getBundleId()}));
+		} finally {
+			bundle.uninstall();
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	@Test
 	public void listTest() throws Exception {
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+package org.eclipse.gemini.management.integration.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.gemini.management.framework.internal.BundleWiringFacts;
+import org.eclipse.gemini.management.framework.internal.OSGiBundle;
+import org.eclipse.gemini.management.internal.BundleUtil;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.Version;
+import org.osgi.framework.wiring.BundleCapability;
+import org.osgi.framework.wiring.BundleRevision;
+import org.osgi.framework.wiring.BundleWire;
+import org.osgi.framework.wiring.BundleWiring;
+
+/**
+ * Compares the wiring traversals of the single pass {@link BundleWiringFacts}
+ * extraction with the per item lookups of {@link BundleUtil}, on every bundle
+ * of the framework, and checks the listing of the packages of a heavily wired
+ * bundle. {@link PackageListingBenchmark} measures the cost of that listing.
+ *
+ */
+public final class BundleWiringFactsTest {
+
+	static final int WIRES = 5000;
+
+	@Test
+	public void singlePassTest() throws Exception {
+		BundleContext bc = FrameworkUtil.getBundle(BundleWiringFacts.class).getBundleContext();
+		Bundle[] bundles = bc.getBundles();
+		int perItemTraversals = 0;
+		int singlePassTraversals = 0;
+		for (Bundle bundle : bundles) {
+			Counter counter = new Counter();
+			Bundle counted = counter.count(bundle);
+			String[] exportedPackages = BundleUtil.getBundleExportedPackages(counted);
+			String[] importedPackages = BundleUtil.getBundleImportedPackages(counted);
+			boolean fragment = BundleUtil.isBundleFragment(counted);
+			boolean required = BundleUtil.isRequired(counted);
+			boolean removalPending = BundleUtil.isRemovalPending(counted);
+			Long[] requiredBundles = BundleUtil.getRequiredBundles(counted);
+			Long[] requiringBundles = BundleUtil.getRequiringBundles(counted);
+			BundleWiring wiring = counted.adapt(BundleWiring.class);
+			Long[] fragments = wiring == null ? new Long[0] : OSGiBundle.bundleWiresToProviderIds(wiring.getRequiredWires(BundleRevision.HOST_NAMESPACE));
+			wiring = counted.adapt(BundleWiring.class);
+			Long[] hosts = wiring == null ? new Long[0] : OSGiBundle.bundleWiresToRequirerIds(wiring.getProvidedWires(BundleRevision.HOST_NAMESPACE));
+			perItemTraversals += counter.traversals();
+
+			counter = new Counter();
+			BundleWiringFacts facts = BundleWiringFacts.extract(counter.count(bundle));
+			assertEquals(1, counter.adaptations);
+			assertTrue(counter.wireWalks <= 2);
+			singlePassTraversals += counter.traversals();
+
+			assertArrayEquals(exportedPackages, facts.getExportedPackages());
+			assertArrayEquals(importedPackages, facts.getImportedPackages());
+			assertEquals(fragment, facts.isFragment());
+			assertEquals(required, facts.isRequired());
+			assertEquals(removalPending, facts.isRemovalPending());
+			assertArrayEquals(requiredBundles, facts.getRequiredBundles());
+			assertArrayEquals(requiringBundles, facts.getRequiringBundles());
+			assertArrayEquals(fragments, facts.getFragments());
+			assertArrayEquals(hosts, facts.getHosts());
+		}
+		assertTrue(singlePassTraversals * 4 < perItemTraversals);
+	}
+
+	@Test
+	public void packageListingTest() throws Exception {
+		List<BundleWire> wires = packageWires(WIRES);
+		String[] packages = BundleUtil.packageNames(wires);
+		// every package is listed once, in the order of its first wire
+		assertEquals(WIRES / 2, packages.length);
+		assertArrayEquals(formattedPackageNames(wires), packages);
+		assertEquals("org.example.api.package0;1.0.0", packages[0]);
+		assertEquals("org.example.api.package13;1.3.0", packages[13]);
+
+		// the wires to the same capability share the name built for it
+		assertSame(BundleUtil.packageName(wires.get(0)), BundleUtil.packageName(wires.get(1)));
+		assertSame(packages[0], BundleUtil.packageName(wires.get(0)));
+
+		// distinct capabilities of the same package are listed once
+		List<BundleWire> twoExporters = new ArrayList<BundleWire>(packageWires(2));
+		twoExporters.addAll(packageWires(2));
+		assertArrayEquals(new String[]{"org.example.api.package0;1.0.0"}, BundleUtil.packageNames(twoExporters));
+	}
+
+	/**
+	 * Answer wires to half as many package capabilities, every package being
+	 * wired to two importers
+	 */
+	static List<BundleWire> packageWires(int count) {
+		List<BundleWire> wires = new ArrayList<BundleWire>();
+		for (int i = 0; i < count / 2; i++) {
+			Map<String, Object> attributes = new HashMap<String, Object>();
+			attributes.put(BundleRevision.PACKAGE_NAMESPACE, "org.example.api.package" + i);
+			attributes.put(Constants.VERSION_ATTRIBUTE, new Version(1, i % 10, 0));
+			BundleCapability capability = stub(BundleCapability.class, "getAttributes", attributes);
+			wires.add(stub(BundleWire.class, "getCapability", capability));
+			wires.add(stub(BundleWire.class, "getCapability", capability));
+		}
+		return wires;
+	}
+
+	/**
+	 * The listing of the packages as BundleUtil did it before the package names were hashed and cached
+	 */
+	static String[] formattedPackageNames(List<BundleWire> wires) {
+		List<String> packages = new ArrayList<String>();
+		for (BundleWire wire : wires) {
+			String packageName = String.format("%s;%s", wire.getCapability().getAttributes().get(BundleRevision.PACKAGE_NAMESPACE), wire.getCapability().getAttributes().get(Constants.VERSION_ATTRIBUTE));
+			if (!packages.contains(packageName)) {
+				packages.add(packageName);
+			}
+		}
+		return packages.toArray(new String[packages.size()]);
+	}
+
+	private static <T> T stub(Class<T> type, final String methodName, final Object value) {
+		return type.cast(Proxy.newProxyInstance(BundleWiringFactsTest.class.getClassLoader(), new Class<?>[]{type}, new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				if (methodName.equals(method.getName())) {
+					return value;
+				}
+				if ("hashCode".equals(method.getName())) {
+					return System.identityHashCode(proxy);
+				}
+				if ("equals".equals(method.getName())) {
+					return proxy == args[0];
+				}
+				return null;
+			}
+		}));
+	}
+
+	/**
+	 * Counts the adaptations of a bundle to its wiring and the walks of the wires of that wiring
+	 */
+	private static final class Counter {
+
+		int adaptations;
+
+		int wireWalks;
+
+		int traversals() {
+			return adaptations + wireWalks;
+		}
+
+		Bundle count(final Bundle bundle) {
+			return proxy(Bundle.class, bundle, new InvocationHandler() {
+				public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+					Object result = delegate(bundle, method, args);
+					if ("adapt".equals(method.getName()) && BundleWiring.class.equals(args[0])) {
+						adaptations++;
+						if (result != null) {
+							result = count((BundleWiring) result);
+						}
+					}
+					return result;
+				}
+			});
+		}
+
+		private BundleWiring count(final BundleWiring wiring) {
+			return proxy(BundleWiring.class, wiring, new InvocationHandler() {
+				public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+					if ("getRequiredWires".equals(method.getName()) || "getProvidedWires".equals(method.getName())) {
+						wireWalks++;
+					}
+					return delegate(wiring, method, args);
+				}
+			});
+		}
+
+		private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+			return type.cast(Proxy.newProxyInstance(BundleWiringFactsTest.class.getClassLoader(), new Class<?>[]{type}, handler));
+		}
+
+		private static Object delegate(Object target, Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+
+	}
+
+}
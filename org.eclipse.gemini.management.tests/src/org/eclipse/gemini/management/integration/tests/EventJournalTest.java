@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+package org.eclipse.gemini.management.integration.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.gemini.management.internal.EventJournal;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.ServiceEvent;
+
+/**
+ * Tests for the {@link EventJournal} ring of event records
+ *
+ */
+public final class EventJournalTest {
+
+	private static final int CAPACITY = 4;
+
+	private File file;
+
+	@Before
+	public void createFile() throws Exception {
+		file = File.createTempFile("EventJournalTest", ".journal");
+	}
+
+	@After
+	public void deleteFile() {
+		file.delete();
+	}
+
+	@Test
+	public void disabledTest() throws Exception {
+		EventJournal journal = new EventJournal(file, 0);
+		assertFalse(journal.isEnabled());
+		journal.open();
+		journal.append(EventJournal.BUNDLE_EVENT, BundleEvent.STARTED, 1, -1);
+		assertEquals(-1, journal.getLastSequence());
+		assertTrue(journal.readSequences(0, Long.MAX_VALUE).isEmpty());
+		assertFalse(new EventJournal(null, CAPACITY).isEnabled());
+	}
+
+	@Test
+	public void appendTest() throws Exception {
+		EventJournal journal = new EventJournal(file, CAPACITY);
+		// nothing is appended before the journal is open
+		journal.append(EventJournal.BUNDLE_EVENT, BundleEvent.STARTED, 1, -1);
+		journal.open();
+		assertEquals(-1, journal.getLastSequence());
+		journal.append(EventJournal.BUNDLE_EVENT, BundleEvent.STARTED, 1, -1);
+		journal.append(EventJournal.SERVICE_EVENT, ServiceEvent.REGISTERED, 2, 42);
+		List<EventJournal.Record> records = journal.readSequences(0, Long.MAX_VALUE);
+		assertEquals(2, records.size());
+		EventJournal.Record service = records.get(1);
+		assertEquals(1, service.getSequence());
+		assertEquals(EventJournal.SERVICE_EVENT, service.getKind());
+		assertEquals(ServiceEvent.REGISTERED, service.getType());
+		assertEquals(2, service.getBundleId());
+		assertEquals(42, service.getServiceId());
+		assertEquals(-1, records.get(0).getServiceId());
+		journal.close();
+	}
+
+	@Test
+	public void wrapTest() throws Exception {
+		EventJournal journal = new EventJournal(file, CAPACITY);
+		journal.open();
+		for (int i = 0; i < CAPACITY + 2; i++) {
+			journal.append(EventJournal.BUNDLE_EVENT, BundleEvent.INSTALLED, i, -1);
+		}
+		assertEquals(CAPACITY + 1, journal.getLastSequence());
+		// the oldest records were overwritten
+		assertEquals(Arrays.asList(2L, 3L, 4L, 5L), sequencesOf(journal.readSequences(0, Long.MAX_VALUE)));
+		assertEquals(Arrays.asList(2L, 3L, 4L, 5L), bundleIdsOf(journal.readSequences(-10, Long.MAX_VALUE)));
+		assertEquals(Arrays.asList(3L, 4L), sequencesOf(journal.readSequences(3, 4)));
+		assertEquals(Arrays.asList(2L), sequencesOf(journal.readSequences(0, 2)));
+		assertTrue(journal.readSequences(6, 10).isEmpty());
+		assertTrue(journal.readSequences(4, 3).isEmpty());
+		journal.close();
+	}
+
+	@Test
+	public void readTimesTest() throws Exception {
+		EventJournal journal = new EventJournal(file, CAPACITY);
+		journal.open();
+		long before = System.currentTimeMillis();
+		for (int i = 0; i < CAPACITY + 1; i++) {
+			journal.append(EventJournal.BUNDLE_EVENT, BundleEvent.INSTALLED, i, -1);
+		}
+		long after = System.currentTimeMillis();
+		assertEquals(Arrays.asList(1L, 2L, 3L, 4L), sequencesOf(journal.readTimes(before, after)));
+		assertEquals(Arrays.asList(1L, 2L, 3L, 4L), sequencesOf(journal.readTimes(Long.MIN_VALUE, Long.MAX_VALUE)));
+		assertTrue(journal.readTimes(after + 1, Long.MAX_VALUE).isEmpty());
+		assertTrue(journal.readTimes(Long.MIN_VALUE, before - 1).isEmpty());
+		journal.close();
+	}
+
+	@Test
+	public void reopenTest() throws Exception {
+		EventJournal journal = new EventJournal(file, CAPACITY);
+		journal.open();
+		for (int i = 0; i < CAPACITY + 1; i++) {
+			journal.append(EventJournal.BUNDLE_EVENT, BundleEvent.INSTALLED, i, -1);
+		}
+		journal.close();
+
+		// a journal of the same capacity continues after the last record
+		EventJournal reopened = new EventJournal(file, CAPACITY);
+		reopened.open();
+		assertEquals(CAPACITY, reopened.getLastSequence());
+		reopened.append(EventJournal.BUNDLE_EVENT, BundleEvent.UNINSTALLED, 7, -1);
+		assertEquals(Arrays.asList(2L, 3L, 4L, 5L), sequencesOf(reopened.readSequences(0, Long.MAX_VALUE)));
+		assertEquals(Arrays.asList(2L, 3L, 4L, 7L), bundleIdsOf(reopened.readSequences(0, Long.MAX_VALUE)));
+		reopened.close();
+
+		// a journal of another capacity starts over
+		EventJournal resized = new EventJournal(file, CAPACITY * 2);
+		resized.open();
+		assertEquals(-1, resized.getLastSequence());
+		assertTrue(resized.readSequences(0, Long.MAX_VALUE).isEmpty());
+		resized.close();
+	}
+
+	private static List<Long> sequencesOf(List<EventJournal.Record> records) {
+		List<Long> sequences = new ArrayList<Long>();
+		for (EventJournal.Record record : records) {
+			sequences.add(record.getSequence());
+		}
+		return sequences;
+	}
+
+	private static List<Long> bundleIdsOf(List<EventJournal.Record> records) {
+		List<Long> bundleIds = new ArrayList<Long>();
+		for (EventJournal.Record record : records) {
+			bundleIds.add(record.getBundleId());
+		}
+		return bundleIds;
+	}
+
+}
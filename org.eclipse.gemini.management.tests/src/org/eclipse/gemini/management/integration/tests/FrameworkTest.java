@@ -12,8 +12,16 @@ package org.eclipse.gemini.management.integration.tests;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.eclipse.gemini.management.framework.Framework;
 import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.wiring.FrameworkWiring;
 import org.osgi.jmx.framework.FrameworkMBean;
 
 /**
@@ -32,5 +40,25 @@ public final class FrameworkTest extends AbstractOSGiMBeanTest {
 		Integer result = jmxFetchAttribute("FrameworkStartLevel", Integer.class);
 		assertEquals(6, result.intValue());
 	}
+
+	@Test
+	public void dependencyClosureTest() throws Exception {
+		BundleContext bc = FrameworkUtil.getBundle(Framework.class).getBundleContext();
+		FrameworkWiring frameworkWiring = bc.getBundle(0).adapt(FrameworkWiring.class);
+		for (Bundle bundle : bc.getBundles()) {
+			Object[] arguments = new Object[]{new long[]{bundle.getBundleId()}};
+			String[] types = new String[]{long[].class.getName()};
+			long[] closure = jmxFetchData("getDependencyClosure", arguments, types, long[].class);
+			Set<Long> indexed = new HashSet<Long>();
+			for (long bundleId : closure) {
+				indexed.add(bundleId);
+			}
+			Set<Long> expected = new HashSet<Long>();
+			for (Bundle dependent : frameworkWiring.getDependencyClosure(Collections.singleton(bundle))) {
+				expected.add(dependent.getBundleId());
+			}
+			assertEquals(expected, indexed);
+		}
+	}
 	
 }
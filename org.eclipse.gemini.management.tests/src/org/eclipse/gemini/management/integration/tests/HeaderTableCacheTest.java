@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+package org.eclipse.gemini.management.integration.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.management.openmbean.TabularData;
+
+import org.eclipse.gemini.management.framework.internal.HeaderTableCache;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.Constants;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.jmx.framework.BundleStateMBean;
+
+/**
+ * Tests for the {@link HeaderTableCache} of the encoded bundle headers
+ *
+ */
+public final class HeaderTableCacheTest {
+
+	private BundleContext bc;
+
+	private Bundle localized;
+
+	private Bundle other;
+
+	@Before
+	public void before() throws Exception {
+		bc = FrameworkUtil.getBundle(HeaderTableCache.class).getBundleContext();
+		Map<String, String> entries = new HashMap<String, String>();
+		entries.put("OSGI-INF/l10n/bundle.properties", "name=Default name\n");
+		entries.put("OSGI-INF/l10n/bundle_fr.properties", "name=Nom\n");
+		localized = TestBundles.install(bc, "headerTableCacheTest.localized", entries, Constants.BUNDLE_NAME, "%name");
+		other = TestBundles.install(bc, "headerTableCacheTest.other");
+	}
+
+	@After
+	public void after() throws Exception {
+		localized.uninstall();
+		other.uninstall();
+	}
+
+	@Test
+	public void localeTest() throws Exception {
+		HeaderTableCache cache = new HeaderTableCache(16);
+		assertEquals("Default name", name(cache.headersOf(localized, null)));
+		assertEquals("Nom", name(cache.headersOf(localized, "fr")));
+		assertEquals("%name", name(cache.headersOf(localized, "")));
+		assertEquals(3, cache.size());
+		// the tables are cached per locale
+		assertEquals("Nom", name(cache.headersOf(localized, "fr")));
+		assertEquals("Default name", name(cache.headersOf(localized, null)));
+		assertEquals(3, cache.size());
+	}
+
+	@Test
+	public void copyTest() throws Exception {
+		HeaderTableCache cache = new HeaderTableCache(16);
+		TabularData first = cache.headersOf(localized, null);
+		TabularData second = cache.headersOf(localized, null);
+		assertNotSame(first, second);
+		assertEquals(first, second);
+		int headers = first.size();
+		first.clear();
+		assertEquals(headers, cache.headersOf(localized, null).size());
+	}
+
+	@Test
+	public void invalidationTest() throws Exception {
+		HeaderTableCache cache = new HeaderTableCache(16);
+		cache.headersOf(localized, null);
+		cache.headersOf(localized, "fr");
+		cache.headersOf(other, null);
+		assertEquals(3, cache.size());
+		cache.bundleChanged(new BundleEvent(BundleEvent.STARTED, localized));
+		assertEquals(3, cache.size());
+		cache.bundleChanged(new BundleEvent(BundleEvent.UPDATED, localized));
+		assertEquals(1, cache.size());
+		cache.headersOf(localized, null);
+		assertEquals(2, cache.size());
+		cache.bundleChanged(new BundleEvent(BundleEvent.UNINSTALLED, localized));
+		assertEquals(1, cache.size());
+		cache.bundleChanged(new BundleEvent(BundleEvent.UNINSTALLED, other));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void boundTest() throws Exception {
+		HeaderTableCache cache = new HeaderTableCache(2);
+		cache.headersOf(localized, null);
+		cache.headersOf(localized, "fr");
+		cache.headersOf(other, null);
+		assertEquals(2, cache.size());
+		HeaderTableCache disabled = new HeaderTableCache(0);
+		disabled.headersOf(other, null);
+		assertEquals(0, disabled.size());
+	}
+
+	private static String name(TabularData headers) {
+		return (String) headers.get(new Object[]{Constants.BUNDLE_NAME}).get(BundleStateMBean.VALUE);
+	}
+
+}
@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+package org.eclipse.gemini.management.integration.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.EventObject;
+
+import javax.management.Notification;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import org.eclipse.gemini.management.Monitor;
+import org.eclipse.gemini.management.framework.BundleEventFilter;
+import org.eclipse.gemini.management.framework.CustomBundleStateMBean;
+import org.eclipse.gemini.management.framework.internal.OSGiBundleEvent;
+import org.eclipse.gemini.management.internal.NotificationBatcher;
+import org.eclipse.gemini.management.internal.NotificationDispatcher;
+import org.eclipse.gemini.management.internal.NotificationReplayBuffer;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.jmx.framework.BundleStateMBean;
+
+/**
+ * Tests for the {@link Monitor} base of the MBeans sending notifications
+ *
+ */
+public final class MonitorTest {
+
+	private static final int EVENTS = 8;
+
+	private static final NotificationListener LISTENER = new NotificationListener() {
+		public void handleNotification(Notification notification, Object handback) {
+		}
+	};
+
+	@Test
+	public void noSubscriberTest() throws Exception {
+		Bundle bundle = FrameworkUtil.getBundle(Monitor.class);
+		BundleEvent started = new BundleEvent(BundleEvent.STARTED, bundle);
+		TestMonitor monitor = new TestMonitor(new NotificationReplayBuffer(0));
+		// without a listener the events are not even encoded
+		assertFalse(monitor.hasListeners());
+		assertFalse(monitor.isWanted(started));
+
+		monitor.addNotificationListener(LISTENER, null, null);
+		assertTrue(monitor.isWanted(started));
+		BundleEventFilter stoppedOnly = new BundleEventFilter(null, null, BundleEvent.STOPPED);
+		monitor.addNotificationListener(LISTENER, stoppedOnly, null);
+		assertTrue(monitor.isWanted(started));
+
+		monitor.removeNotificationListener(LISTENER, null, null);
+		// the remaining listener filters the event out
+		assertTrue(monitor.hasListeners());
+		assertFalse(monitor.isWanted(started));
+		assertTrue(monitor.isWanted(new BundleEvent(BundleEvent.STOPPED, bundle)));
+
+		monitor.removeNotificationListener(LISTENER);
+		assertFalse(monitor.hasListeners());
+		assertFalse(monitor.isWanted(started));
+	}
+
+	@Test
+	public void replayListensTest() throws Exception {
+		TestMonitor monitor = new TestMonitor(new NotificationReplayBuffer(16));
+		// the replay buffer retains every event, listened or not
+		assertTrue(monitor.hasListeners());
+		assertTrue(monitor.isWanted(new BundleEvent(BundleEvent.STARTED, FrameworkUtil.getBundle(Monitor.class))));
+	}
+
+	@Test
+	public void replayFullQueueTest() throws Exception {
+		Bundle bundle = FrameworkUtil.getBundle(Monitor.class);
+		CompositeData[] sent = new CompositeData[EVENTS];
+		// the dispatcher thread is not started, so every job but the first is dropped
+		NotificationDispatcher dispatcher = new NotificationDispatcher(1, true);
+		TestMonitor monitor = new TestMonitor(dispatcher, new NotificationReplayBuffer(EVENTS + 1));
+		for (int i = 0; i < EVENTS; i++) {
+			sent[i] = new OSGiBundleEvent(new BundleEvent(i % 2 == 0 ? BundleEvent.STARTED : BundleEvent.STOPPED, bundle)).asCompositeData();
+			monitor.send(sent[i]);
+		}
+		assertEquals(EVENTS - 1, monitor.getDroppedNotifications());
+		assertArrayEquals(sent, monitor.replayEventsSince(-1));
+		assertEquals(Arrays.asList(sent).subList(EVENTS - 2, EVENTS), Arrays.asList(monitor.replayEventsSince(EVENTS - 3)));
+
+		try {
+			monitor.send(null);
+			fail("Encoded a null event");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		monitor.send(sent[0]);
+		// the lost event is reported rather than skipped
+		try {
+			monitor.replayEventsSince(EVENTS - 1);
+			fail("Replayed over a lost event");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		assertArrayEquals(new CompositeData[]{sent[0]}, monitor.replayEventsSince(EVENTS));
+	}
+
+	@Test
+	public void replayAheadTest() throws Exception {
+		Bundle bundle = FrameworkUtil.getBundle(Monitor.class);
+		TestMonitor monitor = new TestMonitor(new NotificationDispatcher(1, true), new NotificationReplayBuffer(EVENTS));
+		assertEquals(0, monitor.replayEventsSince(-1).length);
+		CompositeData event = new OSGiBundleEvent(new BundleEvent(BundleEvent.STARTED, bundle)).asCompositeData();
+		monitor.send(event);
+		monitor.send(event);
+		// a client which has seen the last event has nothing to catch up with
+		assertEquals(0, monitor.replayEventsSince(1).length);
+		// a client ahead of the monitor, as after a restart, has to resynchronize
+		try {
+			monitor.replayEventsSince(2);
+			fail("Replayed the events after a sequence number not handed out yet");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void replayDisabledTest() throws Exception {
+		TestMonitor monitor = new TestMonitor(new NotificationReplayBuffer(0));
+		try {
+			monitor.replayEventsSince(-1);
+			fail("Replayed the events while they are not retained");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * A monitor listening to nothing, whose events are sent by the test
+	 */
+	private static final class TestMonitor extends Monitor {
+
+		TestMonitor(NotificationReplayBuffer replay) {
+			this(new NotificationDispatcher(0, false), replay);
+		}
+
+		TestMonitor(NotificationDispatcher dispatcher, NotificationReplayBuffer replay) {
+			super(dispatcher, new NotificationBatcher(0, 0), replay);
+		}
+
+		/**
+		 * Send an event, which fails to encode if it is <code>null</code>
+		 */
+		void send(final CompositeData event) {
+			dispatchEvent(new EventJob(BundleStateMBean.EVENT, CustomBundleStateMBean.EVENT_BATCH, nextSequenceNumber()) {
+				protected CompositeData encode() {
+					if (event == null) {
+						throw new IllegalStateException("Cannot encode the event");
+					}
+					return event;
+				}
+			});
+		}
+
+		boolean hasListeners() {
+			return hasNotificationListeners();
+		}
+
+		boolean isWanted(EventObject event) {
+			return isEventWanted(event);
+		}
+
+		@Override
+		protected void addListener() {
+		}
+
+		@Override
+		protected void removeListener() {
+		}
+
+	}
+
+}
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+package org.eclipse.gemini.management.integration.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.SimpleType;
+
+import org.eclipse.gemini.management.internal.NotificationBatcher;
+import org.junit.Test;
+import org.osgi.jmx.Item;
+
+/**
+ * Tests for the {@link NotificationBatcher} collecting the events of the
+ * monitors into batches
+ *
+ */
+public final class NotificationBatcherTest {
+
+	private static final CompositeType EVENT_TYPE = Item.compositeType("EVENT", "An event", new Item("Sequence", "The sequence number", SimpleType.LONG));
+
+	private static final long LONG_WINDOW = 60000;
+
+	@Test
+	public void sizeFlushTest() throws Exception {
+		NotificationBatcher batcher = new NotificationBatcher(3, LONG_WINDOW);
+		BatchSink sink = new BatchSink();
+		batcher.start("NotificationBatcherTest", sink);
+		try {
+			for (long i = 0; i < 7; i++) {
+				batcher.add("event", i, event(i));
+			}
+			// the full batches are sent by the timer thread, before their window ends
+			assertBatch(sink.batches.poll(5, TimeUnit.SECONDS), "event", 0, 3);
+			assertBatch(sink.batches.poll(5, TimeUnit.SECONDS), "event", 3, 3);
+			assertNull(sink.batches.poll(200, TimeUnit.MILLISECONDS));
+			batcher.add("other", 7, event(7));
+			// a new type completes the batch of the previous one
+			assertBatch(sink.batches.poll(5, TimeUnit.SECONDS), "event", 6, 1);
+			assertNull(sink.batches.poll(200, TimeUnit.MILLISECONDS));
+		} finally {
+			batcher.stop();
+		}
+	}
+
+	@Test
+	public void windowFlushTest() throws Exception {
+		NotificationBatcher batcher = new NotificationBatcher(1000, 50);
+		BatchSink sink = new BatchSink();
+		batcher.start("NotificationBatcherTest", sink);
+		try {
+			batcher.add("event", 0, event(0));
+			batcher.add("event", 1, event(1));
+			assertBatch(sink.batches.poll(5, TimeUnit.SECONDS), "event", 0, 2);
+			batcher.add("event", 2, event(2));
+			assertBatch(sink.batches.poll(5, TimeUnit.SECONDS), "event", 2, 1);
+			assertNull(sink.batches.poll(200, TimeUnit.MILLISECONDS));
+		} finally {
+			batcher.stop();
+		}
+	}
+
+	@Test
+	public void slowSinkTest() throws Exception {
+		final NotificationBatcher batcher = new NotificationBatcher(2, LONG_WINDOW);
+		final CountDownLatch sending = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final BatchSink sink = new BatchSink() {
+			@Override
+			public void send(String type, long sequence, CompositeData[] events) {
+				sending.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				super.send(type, sequence, events);
+			}
+		};
+		batcher.start("NotificationBatcherTest", sink);
+		try {
+			// the thread completing a batch only queues it
+			batcher.add("event", 0, event(0));
+			batcher.add("event", 1, event(1));
+			assertTrue(sending.await(5, TimeUnit.SECONDS));
+			// the sink is busy with the first batch, the next one can still be completed
+			batcher.add("event", 2, event(2));
+			batcher.add("event", 3, event(3));
+			assertTrue(sink.batches.isEmpty());
+			release.countDown();
+			assertBatch(sink.batches.poll(5, TimeUnit.SECONDS), "event", 0, 2);
+			assertBatch(sink.batches.poll(5, TimeUnit.SECONDS), "event", 2, 2);
+		} finally {
+			release.countDown();
+			batcher.stop();
+		}
+	}
+
+	@Test
+	public void disabledTest() throws Exception {
+		NotificationBatcher batcher = new NotificationBatcher(0, LONG_WINDOW);
+		BatchSink sink = new BatchSink();
+		batcher.start("NotificationBatcherTest", sink);
+		batcher.add("event", 0, event(0));
+		assertNull(sink.batches.poll());
+		assertFalse(batcher.isEnabled());
+	}
+
+	private static void assertBatch(Batch batch, String type, long sequence, int size) {
+		assertNotNull(batch);
+		assertEquals(type, batch.type);
+		assertEquals(sequence, batch.sequence);
+		assertEquals(size, batch.events.length);
+		for (int i = 0; i < size; i++) {
+			assertEquals(sequence + i, batch.events[i].get("Sequence"));
+		}
+	}
+
+	private static CompositeData event(long sequence) {
+		try {
+			return new CompositeDataSupport(EVENT_TYPE, Collections.singletonMap("Sequence", (Object) sequence));
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static final class Batch {
+
+		final String type;
+
+		final long sequence;
+
+		final CompositeData[] events;
+
+		Batch(String type, long sequence, CompositeData[] events) {
+			this.type = type;
+			this.sequence = sequence;
+			this.events = events;
+		}
+
+	}
+
+	private static class BatchSink implements NotificationBatcher.Sink {
+
+		final BlockingQueue<Batch> batches = new LinkedBlockingQueue<Batch>();
+
+		public void send(String type, long sequence, CompositeData[] events) {
+			batches.add(new Batch(type, sequence, events));
+		}
+
+	}
+
+}
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+package org.eclipse.gemini.management.integration.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.gemini.management.Monitor;
+import org.eclipse.gemini.management.internal.NotificationBatcher;
+import org.eclipse.gemini.management.internal.NotificationDispatcher;
+import org.eclipse.gemini.management.internal.NotificationReplayBuffer;
+import org.junit.Test;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.log.LogService;
+
+/**
+ * Tests for the {@link NotificationDispatcher} running the notification jobs
+ * of the monitors
+ *
+ */
+public final class NotificationDispatcherTest {
+
+	private static final int JOBS = 5;
+
+	@Test
+	public void dropNewestTest() throws Exception {
+		NotificationDispatcher dispatcher = new NotificationDispatcher(2, true);
+		assertEquals(Arrays.asList(0, 1), runFull(dispatcher));
+		assertEquals(JOBS - 2, dispatcher.getDroppedCount());
+	}
+
+	@Test
+	public void dropOldestTest() throws Exception {
+		NotificationDispatcher dispatcher = new NotificationDispatcher(2, false);
+		assertEquals(Arrays.asList(JOBS - 2, JOBS - 1), runFull(dispatcher));
+		assertEquals(JOBS - 2, dispatcher.getDroppedCount());
+	}
+
+	@Test
+	public void synchronousTest() throws Exception {
+		NotificationDispatcher dispatcher = new NotificationDispatcher(0, false);
+		List<Integer> ran = new CopyOnWriteArrayList<Integer>();
+		for (int i = 0; i < JOBS; i++) {
+			dispatcher.dispatch(job(ran, i));
+			assertEquals(i + 1, ran.size());
+		}
+		assertEquals(0, dispatcher.getDroppedCount());
+	}
+
+	@Test
+	public void droppedNotificationsTest() throws Exception {
+		NotificationDispatcher dispatcher = new NotificationDispatcher(1, true);
+		Monitor monitor = new Monitor(dispatcher, new NotificationBatcher(0, 0), new NotificationReplayBuffer(0)) {
+			protected void addListener() {
+			}
+			protected void removeListener() {
+			}
+		};
+		List<Integer> ran = new CopyOnWriteArrayList<Integer>();
+		for (int i = 0; i < JOBS; i++) {
+			dispatcher.dispatch(job(ran, i));
+		}
+		assertEquals(JOBS - 1, monitor.getDroppedNotifications());
+	}
+
+	@Test
+	public void failedJobTest() throws Exception {
+		BundleContext bc = FrameworkUtil.getBundle(NotificationDispatcher.class).getBundleContext();
+		final BlockingQueue<Throwable> logged = new LinkedBlockingQueue<Throwable>();
+		Hashtable<String, Object> properties = new Hashtable<String, Object>();
+		properties.put(Constants.SERVICE_RANKING, Integer.MAX_VALUE);
+		ServiceRegistration<LogService> registration = bc.registerService(LogService.class, new LogService() {
+			public void log(int level, String message) {
+			}
+			public void log(int level, String message, Throwable exception) {
+				if (level == LogService.LOG_ERROR) {
+					logged.add(exception);
+				}
+			}
+			public void log(@SuppressWarnings("rawtypes") ServiceReference sr, int level, String message) {
+			}
+			public void log(@SuppressWarnings("rawtypes") ServiceReference sr, int level, String message, Throwable exception) {
+			}
+		}, properties);
+		NotificationDispatcher dispatcher = new NotificationDispatcher(JOBS, false, bc);
+		List<Integer> ran = new CopyOnWriteArrayList<Integer>();
+		final RuntimeException failure = new IllegalStateException("cannot send");
+		try {
+			dispatcher.dispatch(new Runnable() {
+				public void run() {
+					throw failure;
+				}
+			});
+			dispatcher.dispatch(job(ran, 1));
+			dispatcher.start("NotificationDispatcherTest");
+			Throwable thrown = logged.poll(5, TimeUnit.SECONDS);
+			assertNotNull(thrown);
+			assertSame(failure, thrown);
+			// the failed job did not stop the following one
+			awaitSize(ran, 1);
+			assertEquals(Arrays.asList(1), ran);
+		} finally {
+			dispatcher.stop();
+			registration.unregister();
+		}
+	}
+
+	/**
+	 * Dispatch more jobs than the queue holds before the dispatcher thread
+	 * runs, and answer the jobs which then ran
+	 */
+	private static List<Integer> runFull(NotificationDispatcher dispatcher) throws InterruptedException {
+		List<Integer> ran = new CopyOnWriteArrayList<Integer>();
+		for (int i = 0; i < JOBS; i++) {
+			dispatcher.dispatch(job(ran, i));
+		}
+		assertEquals(0, ran.size());
+		dispatcher.start("NotificationDispatcherTest");
+		try {
+			awaitSize(ran, 2);
+			Thread.sleep(100);
+		} finally {
+			dispatcher.stop();
+		}
+		return ran;
+	}
+
+	private static void awaitSize(List<Integer> ran, int size) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (ran.size() < size && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+	}
+
+	private static Runnable job(final List<Integer> ran, final int number) {
+		return new Runnable() {
+			public void run() {
+				ran.add(number);
+			}
+		};
+	}
+
+}
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+package org.eclipse.gemini.management.integration.tests;
+
+import java.util.List;
+
+import org.eclipse.gemini.management.internal.BundleUtil;
+import org.osgi.framework.wiring.BundleWire;
+
+/**
+ * Measures the listing of the packages of a heavily wired bundle by
+ * {@link BundleUtil#packageNames(List)} against the formatting it replaced.
+ * The timings depend on the machine, so they are printed, never asserted.
+ *
+ */
+public final class PackageListingBenchmark {
+
+	private static final int ROUNDS = 20;
+
+	public static void main(String[] args) {
+		List<BundleWire> wires = BundleWiringFactsTest.packageWires(BundleWiringFactsTest.WIRES);
+		long formatted = Long.MAX_VALUE;
+		long hashed = Long.MAX_VALUE;
+		for (int round = 0; round < ROUNDS; round++) {
+			long start = System.nanoTime();
+			BundleWiringFactsTest.formattedPackageNames(wires);
+			long middle = System.nanoTime();
+			BundleUtil.packageNames(wires);
+			long end = System.nanoTime();
+			formatted = Math.min(formatted, middle - start);
+			hashed = Math.min(hashed, end - middle);
+		}
+		System.out.println("Listing the packages of " + wires.size() + " wires: " + formatted / 1000 + "us formatted, " + hashed / 1000 + "us hashed");
+	}
+
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+package org.eclipse.gemini.management.integration.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import javax.management.openmbean.CompositeData;
+
+import org.eclipse.gemini.management.framework.ServiceLookupProfiler;
+import org.eclipse.gemini.management.framework.ServiceLookupProfilerMBean;
+import org.eclipse.gemini.management.framework.internal.ServiceLookupCounter;
+import org.junit.Test;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.FrameworkUtil;
+
+/**
+ * Tests for the {@link ServiceLookupProfiler} implementation of
+ * {@link ServiceLookupProfilerMBean}. The MBean is only registered when the
+ * lookups are profiled, so the profiler is driven directly from its own
+ * {@link ServiceLookupCounter}.
+ *
+ */
+public final class ServiceLookupProfilerTest {
+
+	private static final String FILTER = "(lookup.profiler.test=true)";
+
+	@Test
+	public void hottestLookupsTest() throws Exception {
+		BundleContext bc = FrameworkUtil.getBundle(ServiceLookupCounter.class).getBundleContext();
+		ServiceLookupCounter counter = new ServiceLookupCounter(true);
+		ServiceLookupProfiler profiler = new ServiceLookupProfiler(counter);
+		counter.start(bc);
+		try {
+			for (int i = 0; i < 100; i++) {
+				bc.getServiceReferences(ServiceLookupProfilerTest.class.getName(), FILTER);
+			}
+		} finally {
+			counter.stop();
+		}
+		bc.getServiceReferences(ServiceLookupProfilerTest.class.getName(), FILTER);
+
+		CompositeData[] filters = profiler.listHottestFilters(1);
+		assertEquals(1, filters.length);
+		assertEquals(FILTER, filters[0].get(ServiceLookupProfilerMBean.FILTER));
+		assertEquals(100L, filters[0].get(ServiceLookupProfilerMBean.LOOKUPS));
+		CompositeData[] classNames = profiler.listHottestClassNames(1);
+		assertEquals(ServiceLookupProfilerTest.class.getName(), classNames[0].get(ServiceLookupProfilerMBean.CLASS_NAME));
+		CompositeData[] bundles = profiler.listHottestBundles(1);
+		assertEquals(bc.getBundle().getBundleId(), bundles[0].get(ServiceLookupProfilerMBean.BUNDLE_IDENTIFIER));
+		assertTrue((Long) bundles[0].get(ServiceLookupProfilerMBean.LOOKUPS) >= 100);
+
+		profiler.reset();
+		assertEquals(0, profiler.listHottestFilters(1).length);
+	}
+
+	@Test
+	public void manyFiltersTest() throws Exception {
+		BundleContext bc = FrameworkUtil.getBundle(ServiceLookupCounter.class).getBundleContext();
+		ServiceLookupCounter counter = new ServiceLookupCounter(true);
+		ServiceLookupProfiler profiler = new ServiceLookupProfiler(counter);
+		int filters = 200;
+		counter.start(bc);
+		try {
+			for (int i = 0; i < filters; i++) {
+				// the filter i is looked up i + 1 times
+				for (int j = 0; j <= i; j++) {
+					bc.getServiceReferences(ServiceLookupProfilerTest.class.getName(), "(lookup.profiler.test=" + i + ")");
+				}
+			}
+		} finally {
+			counter.stop();
+		}
+		CompositeData[] hottest = profiler.listHottestFilters(filters);
+		assertEquals(filters, hottest.length);
+		for (int i = 0; i < filters; i++) {
+			int filter = filters - 1 - i;
+			assertEquals("(lookup.profiler.test=" + filter + ")", hottest[i].get(ServiceLookupProfilerMBean.FILTER));
+			assertEquals((long) filter + 1, hottest[i].get(ServiceLookupProfilerMBean.LOOKUPS));
+		}
+		assertEquals(0, profiler.getUntrackedLookups());
+	}
+
+}
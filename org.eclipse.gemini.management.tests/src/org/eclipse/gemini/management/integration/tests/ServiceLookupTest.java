@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+package org.eclipse.gemini.management.integration.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.gemini.management.framework.internal.ServiceIndex;
+import org.junit.Test;
+import org.osgi.framework.AllServiceListener;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.Filter;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.util.tracker.ServiceTracker;
+
+/**
+ * Compares the lookups of services by identifier through a {@link ServiceIndex}
+ * with the per call {@link ServiceTracker} ServiceState used before, in the
+ * listeners they register with the framework
+ *
+ */
+public final class ServiceLookupTest {
+
+	private static final int SERVICES = 1000;
+
+	@Test
+	public void lookupTest() throws Exception {
+		BundleContext bc = FrameworkUtil.getBundle(ServiceIndex.class).getBundleContext();
+		List<ServiceRegistration<?>> registrations = new ArrayList<ServiceRegistration<?>>();
+		final ServiceIndex index = new ServiceIndex();
+		AllServiceListener listener = new AllServiceListener() {
+			public void serviceChanged(ServiceEvent event) {
+				index.serviceChanged(event);
+			}
+		};
+		bc.addServiceListener(listener);
+		try {
+			for (int i = 0; i < SERVICES; i++) {
+				registrations.add(bc.registerService(ServiceLookupTest.class.getName(), this, null));
+			}
+			long[] serviceIds = new long[SERVICES];
+			for (int i = 0; i < SERVICES; i++) {
+				serviceIds[i] = (Long) registrations.get(i).getReference().getProperty(Constants.SERVICE_ID);
+			}
+
+			ListenerCounter counter = new ListenerCounter();
+			BundleContext counted = counter.count(bc);
+			for (long serviceId : serviceIds) {
+				assertEquals(serviceId, trackedServiceReference(counted, serviceId).getProperty(Constants.SERVICE_ID));
+			}
+			assertEquals(SERVICES, counter.listeners);
+
+			counter = new ListenerCounter();
+			counted = counter.count(bc);
+			for (long serviceId : serviceIds) {
+				assertEquals(serviceId, index.lookup(counted, serviceId).getProperty(Constants.SERVICE_ID));
+			}
+
+			index.start(counted);
+			for (long serviceId : serviceIds) {
+				assertEquals(serviceId, index.lookup(counted, serviceId).getProperty(Constants.SERVICE_ID));
+			}
+			assertEquals(0, counter.listeners);
+
+			registrations.remove(0).unregister();
+			assertNull(index.lookup(bc, serviceIds[0]));
+		} finally {
+			bc.removeServiceListener(listener);
+			for (ServiceRegistration<?> registration : registrations) {
+				registration.unregister();
+			}
+		}
+	}
+
+	/**
+	 * The lookup of a service as ServiceState did it before the services were indexed
+	 */
+	private static ServiceReference<?> trackedServiceReference(BundleContext bc, long serviceId) throws Exception {
+		Filter filter = bc.createFilter("(" + Constants.SERVICE_ID + "=" + serviceId + ")");
+		ServiceTracker<?, ?> tracker = new ServiceTracker<Object, Object>(bc, filter, null);
+		tracker.open();
+		try {
+			return tracker.getServiceReference();
+		} finally {
+			tracker.close();
+		}
+	}
+
+	/**
+	 * Counts the service listeners added to a bundle context
+	 */
+	private static final class ListenerCounter {
+
+		int listeners;
+
+		BundleContext count(final BundleContext bc) {
+			return (BundleContext) Proxy.newProxyInstance(ServiceLookupTest.class.getClassLoader(), new Class<?>[]{BundleContext.class}, new InvocationHandler() {
+				public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+					if ("addServiceListener".equals(method.getName())) {
+						listeners++;
+					}
+					try {
+						return method.invoke(bc, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				}
+			});
+		}
+
+	}
+
+}
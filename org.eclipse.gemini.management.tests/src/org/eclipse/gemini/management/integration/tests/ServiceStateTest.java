@@ -12,7 +12,11 @@ package org.eclipse.gemini.management.integration.tests;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.Set;
 
@@ -28,6 +32,8 @@ import org.osgi.framework.BundleContext;
 import org.osgi.framework.Constants;
 import org.osgi.framework.FrameworkUtil;
 import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.jmx.JmxConstants;
 import org.osgi.jmx.framework.ServiceStateMBean;
 
 /**
@@ -58,6 +64,113 @@ public final class ServiceStateTest extends AbstractOSGiMBeanTest {
 		this.usingBundles = null;
 	}
 	
+	@Test
+	public void pagedListTest() throws Exception {
+		long[] serviceIds = jmxFetchAttribute("ServiceIds", long[].class);
+		Arrays.sort(serviceIds);
+		String[] types = new String[]{long.class.getName(), int.class.getName(), String[].class.getName()};
+		int pageSize = 5;
+		int listed = 0;
+		long after = -1;
+		TabularData page;
+		do {
+			Object[] arguments = new Object[]{after, pageSize, new String[]{ServiceStateMBean.OBJECT_CLASS}};
+			page = jmxFetchData("listServices", arguments, types, TabularData.class);
+			assertTrue(page.size() <= pageSize);
+			long[] pageIds = new long[page.size()];
+			int i = 0;
+			for (Object row : page.values()) {
+				pageIds[i++] = (Long) ((CompositeData) row).get(ServiceStateMBean.IDENTIFIER);
+			}
+			Arrays.sort(pageIds);
+			for (long pageId : pageIds) {
+				assertEquals(serviceIds[listed++], pageId);
+			}
+			if (pageIds.length > 0) {
+				after = pageIds[pageIds.length - 1];
+			}
+		} while (page.size() == pageSize);
+		assertEquals(serviceIds.length, listed);
+	}
+	
+	@Test
+	public void churnTest() throws Exception {
+		BundleContext bc = FrameworkUtil.getBundle(ServiceState.class).getBundleContext();
+		String[] types = new String[]{int.class.getName()};
+		for (int i = 0; i < 10; i++) {
+			ServiceRegistration<?> registration = bc.registerService(ServiceStateTest.class.getName(), this, null);
+			registration.unregister();
+		}
+		CompositeData[] interfaces = jmxFetchData("listInterfaceChurn", new Object[]{Integer.MAX_VALUE}, types, CompositeData[].class);
+		boolean found = false;
+		for (CompositeData churn : interfaces) {
+			if (ServiceStateTest.class.getName().equals(churn.get(CustomServiceStateMBean.INTERFACE_NAME))) {
+				assertTrue((Long) churn.get(CustomServiceStateMBean.REGISTERED) >= 10);
+				assertTrue((Long) churn.get(CustomServiceStateMBean.UNREGISTERING) >= 10);
+				found = true;
+			}
+		}
+		assertTrue(found);
+		CompositeData[] bundles = jmxFetchData("listBundleChurn", new Object[]{1}, types, CompositeData[].class);
+		assertEquals(1, bundles.length);
+	}
+	
+	@Test
+	public void serviceLookupTest() throws Exception {
+		BundleContext bc = FrameworkUtil.getBundle(ServiceState.class).getBundleContext();
+		Hashtable<String, Object> properties = new Hashtable<String, Object>();
+		properties.put("lookup.test", "value");
+		ServiceRegistration<?> registration = bc.registerService(ServiceStateTest.class.getName(), this, properties);
+		long id = (Long) registration.getReference().getProperty(Constants.SERVICE_ID);
+		CompositeData service = jmxFetchData("getService", new Object[]{id}, new String[]{long.class.getName()}, CompositeData.class);
+		assertEquals(id, service.get(ServiceStateMBean.IDENTIFIER));
+		String[] types = new String[]{long.class.getName(), String.class.getName()};
+		CompositeData property = jmxFetchData("getProperty", new Object[]{id, "lookup.test"}, types, CompositeData.class);
+		assertEquals("value", property.get(JmxConstants.VALUE));
+		registration.unregister();
+		assertNull(jmxFetchData("getService", new Object[]{id}, new String[]{long.class.getName()}, CompositeData.class));
+	}
+	
+	@Test
+	public void selectedPropertiesTest() throws Exception {
+		BundleContext bc = FrameworkUtil.getBundle(ServiceState.class).getBundleContext();
+		Hashtable<String, Object> properties = new Hashtable<String, Object>();
+		properties.put("selected", "yes");
+		properties.put("unselected", "no");
+		ServiceRegistration<?> registration = bc.registerService(ServiceStateTest.class.getName(), this, properties);
+		try {
+			long id = (Long) registration.getReference().getProperty(Constants.SERVICE_ID);
+			String[] types = new String[]{String.class.getName(), String.class.getName(), String[].class.getName()};
+			String filter = "(" + Constants.SERVICE_ID + "=" + id + ")";
+			Object[] arguments = new Object[]{null, filter, new String[]{"selected", "missing", "selected"}};
+			TabularData table = jmxFetchData("listServiceProperties", arguments, types, TabularData.class);
+			assertEquals(1, table.size());
+			CompositeData row = table.get(new Object[]{id});
+			TabularData selected = (TabularData) row.get(ServiceStateMBean.PROPERTIES);
+			// the key selected twice is listed once
+			assertEquals(1, selected.size());
+			assertEquals("yes", selected.get(new Object[]{"selected"}).get(JmxConstants.VALUE));
+
+			table = jmxFetchData("listServiceProperties", new Object[]{null, filter, null}, types, TabularData.class);
+			assertEquals(0, ((TabularData) table.get(new Object[]{id}).get(ServiceStateMBean.PROPERTIES)).size());
+		} finally {
+			registration.unregister();
+		}
+	}
+	
+	@Test
+	public void filterCacheTest() throws Exception {
+		String filter = "(" + Constants.OBJECTCLASS + "=" + ServiceStateMBean.class.getName() + ")";
+		String[] types = new String[]{String.class.getName(), String.class.getName()};
+		TabularData first = jmxFetchData("listServices", new Object[]{null, filter}, types, TabularData.class);
+		long hits = jmxFetchAttribute("FilterCacheHits", Long.class);
+		long misses = jmxFetchAttribute("FilterCacheMisses", Long.class);
+		TabularData second = jmxFetchData("listServices", new Object[]{null, filter}, types, TabularData.class);
+		assertEquals(first.keySet(), second.keySet());
+		assertEquals(hits + 1, (long) jmxFetchAttribute("FilterCacheHits", Long.class));
+		assertEquals(misses, (long) jmxFetchAttribute("FilterCacheMisses", Long.class));
+	}
+	
 	@Test
 	public void listTest() throws Exception {
 		TabularData table = jmxFetchData("listServices", new Object[]{}, new String[]{}, TabularData.class);
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+package org.eclipse.gemini.management.integration.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.openmbean.CompositeData;
+
+import org.eclipse.gemini.management.framework.StartupProfiler;
+import org.eclipse.gemini.management.framework.StartupProfilerMBean;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.FrameworkEvent;
+import org.osgi.framework.FrameworkListener;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.startlevel.BundleStartLevel;
+import org.osgi.framework.startlevel.FrameworkStartLevel;
+
+/**
+ * Integration tests for the {@link StartupProfiler} implementation of {@link StartupProfilerMBean}
+ *
+ */
+public final class StartupProfilerTest extends AbstractOSGiMBeanTest {
+
+	public StartupProfilerTest() {
+		super.mBeanObjectName = StartupProfilerMBean.OBJECTNAME;
+		super.addFrameworkAndUUID = true;
+	}
+
+	@Test
+	public void slowestActivationsTest() throws Exception {
+		BundleContext bc = FrameworkUtil.getBundle(StartupProfiler.class).getBundleContext();
+		Bundle bundle = TestBundles.install(bc, "slowestActivationsTest");
+		try {
+			// the starts after a reset are activations
+			jmxFetchData("reset", new Object[]{}, new String[]{}, Object.class);
+			bundle.start();
+			bundle.stop();
+			int limit = 1000;
+			CompositeData[] activations = jmxFetchData("listSlowestActivations", new Object[]{limit}, new String[]{int.class.getName()}, CompositeData[].class);
+			assertTrue(activations.length <= limit);
+			for (int i = 1; i < activations.length; i++) {
+				long previous = (Long) activations[i - 1].get(StartupProfilerMBean.DURATION);
+				assertTrue(previous >= (Long) activations[i].get(StartupProfilerMBean.DURATION));
+			}
+			assertTransition(bundle, activations);
+			CompositeData[] deactivations = jmxFetchData("listSlowestDeactivations", new Object[]{limit}, new String[]{int.class.getName()}, CompositeData[].class);
+			assertTransition(bundle, deactivations);
+		} finally {
+			bundle.uninstall();
+		}
+	}
+
+	@Test
+	public void criticalPathTest() throws Exception {
+		BundleContext bc = FrameworkUtil.getBundle(StartupProfiler.class).getBundleContext();
+		Bundle bundle = TestBundles.install(bc, "criticalPathTest");
+		try {
+			// only the start of the test bundle is recorded after the reset
+			jmxFetchData("reset", new Object[]{}, new String[]{}, Object.class);
+			bundle.start();
+			CompositeData[] levels = jmxFetchAttribute("CriticalPath", CompositeData[].class);
+			assertEquals(1, levels.length);
+			assertEquals(bundle.adapt(BundleStartLevel.class).getStartLevel(), levels[0].get(StartupProfilerMBean.START_LEVEL));
+			assertEquals(1, levels[0].get(StartupProfilerMBean.BUNDLE_COUNT));
+			assertTrue((Long) levels[0].get(StartupProfilerMBean.DURATION) > 0);
+			assertTransition(bundle, new CompositeData[]{(CompositeData) levels[0].get(StartupProfilerMBean.SLOWEST)});
+
+			// a start level change ends the startup, a later start is a restart
+			endStartup(bc);
+			bundle.stop();
+			bundle.start();
+			CompositeData[] frozen = jmxFetchAttribute("CriticalPath", CompositeData[].class);
+			assertEquals(1, frozen.length);
+			assertEquals(levels[0].get(StartupProfilerMBean.START), frozen[0].get(StartupProfilerMBean.START));
+			assertEquals(levels[0].get(StartupProfilerMBean.DURATION), frozen[0].get(StartupProfilerMBean.DURATION));
+			assertEquals(levels[0].get(StartupProfilerMBean.SLOWEST), frozen[0].get(StartupProfilerMBean.SLOWEST));
+			assertTransition(bundle, jmxFetchData("listSlowestRestarts", new Object[]{1000}, new String[]{int.class.getName()}, CompositeData[].class));
+		} finally {
+			bundle.uninstall();
+		}
+	}
+
+	@Test
+	public void lazyActivationTest() throws Exception {
+		BundleContext bc = FrameworkUtil.getBundle(StartupProfiler.class).getBundleContext();
+		Bundle bundle = TestBundles.install(bc, "lazyActivationTest", Constants.BUNDLE_ACTIVATIONPOLICY, Constants.ACTIVATION_LAZY);
+		try {
+			jmxFetchData("reset", new Object[]{}, new String[]{}, Object.class);
+			bundle.start(Bundle.START_ACTIVATION_POLICY);
+			assertEquals(Bundle.STARTING, bundle.getState());
+			// the start of a bundle waiting for its activation measures the wait
+			bundle.start();
+			assertEquals(Bundle.ACTIVE, bundle.getState());
+			CompositeData[] activations = jmxFetchData("listSlowestActivations", new Object[]{1000}, new String[]{int.class.getName()}, CompositeData[].class);
+			assertFalse(hasTransition(bundle, activations));
+			assertEquals(0, jmxFetchAttribute("CriticalPath", CompositeData[].class).length);
+		} finally {
+			bundle.uninstall();
+		}
+	}
+
+	@Test
+	public void criticalPathOrderTest() throws Exception {
+		CompositeData[] levels = jmxFetchAttribute("CriticalPath", CompositeData[].class);
+		for (int i = 0; i < levels.length; i++) {
+			CompositeData slowest = (CompositeData) levels[i].get(StartupProfilerMBean.SLOWEST);
+			assertTrue((Long) slowest.get(StartupProfilerMBean.DURATION) <= (Long) levels[i].get(StartupProfilerMBean.DURATION));
+			if (i > 0) {
+				assertTrue((Integer) levels[i - 1].get(StartupProfilerMBean.START_LEVEL) < (Integer) levels[i].get(StartupProfilerMBean.START_LEVEL));
+			}
+		}
+	}
+
+	private static void assertTransition(Bundle bundle, CompositeData[] transitions) {
+		for (CompositeData transition : transitions) {
+			if (Long.valueOf(bundle.getBundleId()).equals(transition.get(StartupProfilerMBean.BUNDLE_IDENTIFIER))) {
+				assertEquals(bundle.getSymbolicName(), transition.get(StartupProfilerMBean.SYMBOLIC_NAME));
+				assertEquals(bundle.adapt(BundleStartLevel.class).getStartLevel(), transition.get(StartupProfilerMBean.START_LEVEL));
+				assertTrue((Long) transition.get(StartupProfilerMBean.DURATION) > 0);
+				return;
+			}
+		}
+		fail("No transition of bundle " + bundle.getBundleId());
+	}
+
+	private static boolean hasTransition(Bundle bundle, CompositeData[] transitions) {
+		for (CompositeData transition : transitions) {
+			if (Long.valueOf(bundle.getBundleId()).equals(transition.get(StartupProfilerMBean.BUNDLE_IDENTIFIER))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Set the start level to the current one, which fires a STARTLEVEL_CHANGED
+	 * event without starting or stopping any bundle
+	 */
+	private static void endStartup(BundleContext bc) throws InterruptedException {
+		final CountDownLatch changed = new CountDownLatch(1);
+		FrameworkListener listener = new FrameworkListener() {
+			public void frameworkEvent(FrameworkEvent event) {
+				if (event.getType() == FrameworkEvent.STARTLEVEL_CHANGED) {
+					changed.countDown();
+				}
+			}
+		};
+		bc.addFrameworkListener(listener);
+		try {
+			FrameworkStartLevel frameworkStartLevel = bc.getBundle(0).adapt(FrameworkStartLevel.class);
+			frameworkStartLevel.setStartLevel(frameworkStartLevel.getStartLevel());
+			assertTrue(changed.await(5, TimeUnit.SECONDS));
+		} finally {
+			bc.removeFrameworkListener(listener);
+		}
+	}
+
+}
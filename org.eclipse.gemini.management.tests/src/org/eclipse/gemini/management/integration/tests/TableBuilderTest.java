@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+package org.eclipse.gemini.management.integration.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.SimpleType;
+import javax.management.openmbean.TabularData;
+import javax.management.openmbean.TabularType;
+
+import org.eclipse.gemini.management.internal.TableBuilder;
+import org.junit.Test;
+import org.osgi.jmx.Item;
+
+/**
+ * Tests for the {@link TableBuilder} encoding the listings
+ *
+ */
+public final class TableBuilderTest {
+
+	private static final CompositeType ROW_TYPE = Item.compositeType("ROW", "A row", new Item("Identifier", "The identifier", SimpleType.LONG), new Item("Name", "The name", SimpleType.STRING));
+
+	private static final TabularType TABLE_TYPE = Item.tabularType("TABLE", "A table", ROW_TYPE, "Identifier");
+
+	private static final TableBuilder.RowEncoder<Long> ENCODER = new TableBuilder.RowEncoder<Long>() {
+		public CompositeData encode(Long item) throws IOException {
+			Map<String, Object> items = new HashMap<String, Object>();
+			items.put("Identifier", item);
+			items.put("Name", "row " + item);
+			try {
+				return new CompositeDataSupport(ROW_TYPE, items);
+			} catch (OpenDataException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	};
+
+	@Test
+	public void parallelListingTest() throws Exception {
+		List<Long> items = new ArrayList<Long>();
+		for (long i = 0; i < 1000; i++) {
+			items.add(i);
+		}
+		TableBuilder parallel = new TableBuilder(4);
+		try {
+			TabularData sequentialTable = TableBuilder.SEQUENTIAL.build(TABLE_TYPE, items, ENCODER);
+			TabularData parallelTable = parallel.build(TABLE_TYPE, items, ENCODER);
+			assertEquals(items.size(), parallelTable.size());
+			assertEquals(sequentialTable, parallelTable);
+			parallel.shutdown();
+			// a listing after the shutdown starts new workers
+			assertEquals(sequentialTable, parallel.build(TABLE_TYPE, items, ENCODER));
+		} finally {
+			parallel.shutdown();
+		}
+		long deadline = System.currentTimeMillis() + 5000;
+		while (listingThreads() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(0, listingThreads());
+	}
+
+	@Test
+	public void smallListingTest() throws Exception {
+		List<Long> items = new ArrayList<Long>();
+		for (long i = 0; i < 10; i++) {
+			items.add(i);
+		}
+		TableBuilder parallel = new TableBuilder(4);
+		try {
+			assertEquals(TableBuilder.SEQUENTIAL.build(TABLE_TYPE, items, ENCODER), parallel.build(TABLE_TYPE, items, ENCODER));
+			// too small to be split, so no worker was started
+			assertEquals(0, listingThreads());
+		} finally {
+			parallel.shutdown();
+		}
+	}
+
+	private static int listingThreads() {
+		int threads = 0;
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.getName().startsWith("JMX Listing Encoder") && thread.isAlive()) {
+				threads++;
+			}
+		}
+		return threads;
+	}
+
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+package org.eclipse.gemini.management.integration.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleException;
+import org.osgi.framework.Constants;
+
+/**
+ * Installs the bundles the tests need to change the framework, bundles made of
+ * their manifest and a few entries
+ *
+ */
+final class TestBundles {
+
+	private TestBundles() {
+	}
+
+	/**
+	 * Install a bundle with the supplied symbolic name and manifest headers,
+	 * from a location which is new to the framework
+	 *
+	 * @param bundleContext
+	 * @param symbolicName
+	 * @param headers - the names and values of the other headers, alternately
+	 * @return the installed bundle
+	 * @throws BundleException
+	 * @throws IOException
+	 */
+	static Bundle install(BundleContext bundleContext, String symbolicName, String... headers) throws BundleException, IOException {
+		return install(bundleContext, symbolicName, Collections.<String, String> emptyMap(), headers);
+	}
+
+	/**
+	 * Install a bundle with the supplied symbolic name, entries and manifest
+	 * headers, from a location which is new to the framework
+	 *
+	 * @param bundleContext
+	 * @param symbolicName
+	 * @param entries - the contents of the entries, by path
+	 * @param headers - the names and values of the other headers, alternately
+	 * @return the installed bundle
+	 * @throws BundleException
+	 * @throws IOException
+	 */
+	static Bundle install(BundleContext bundleContext, String symbolicName, Map<String, String> entries, String... headers) throws BundleException, IOException {
+		Manifest manifest = new Manifest();
+		Attributes attributes = manifest.getMainAttributes();
+		attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		attributes.putValue(Constants.BUNDLE_MANIFESTVERSION, "2");
+		attributes.putValue(Constants.BUNDLE_SYMBOLICNAME, symbolicName);
+		attributes.putValue(Constants.BUNDLE_VERSION, "1.0.0");
+		for (int i = 0; i + 1 < headers.length; i += 2) {
+			attributes.putValue(headers[i], headers[i + 1]);
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		JarOutputStream jar = new JarOutputStream(bytes, manifest);
+		for (Map.Entry<String, String> entry : entries.entrySet()) {
+			jar.putNextEntry(new JarEntry(entry.getKey()));
+			jar.write(entry.getValue().getBytes("ISO-8859-1"));
+			jar.closeEntry();
+		}
+		jar.close();
+		String location = "test:" + symbolicName + ":" + System.nanoTime();
+		return bundleContext.installBundle(location, new ByteArrayInputStream(bytes.toByteArray()));
+	}
+
+}
@@ -15,6 +15,7 @@
 
 package org.eclipse.gemini.management;
 
+import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -31,11 +32,24 @@ import javax.management.StandardMBean;
 
 import org.eclipse.gemini.management.configurationadmin.ConfigAdminManager;
 import org.eclipse.gemini.management.framework.BundleState;
+import org.eclipse.gemini.management.framework.CustomBundleStateMBean;
 import org.eclipse.gemini.management.framework.BundleWiringState;
 import org.eclipse.gemini.management.framework.CustomServiceStateMBean;
+import org.eclipse.gemini.management.framework.EventJournalMBean;
+import org.eclipse.gemini.management.framework.EventJournalManager;
 import org.eclipse.gemini.management.framework.Framework;
 import org.eclipse.gemini.management.framework.PackageState;
+import org.eclipse.gemini.management.framework.ServiceLookupProfiler;
+import org.eclipse.gemini.management.framework.ServiceLookupProfilerMBean;
 import org.eclipse.gemini.management.framework.ServiceState;
+import org.eclipse.gemini.management.framework.StartupProfiler;
+import org.eclipse.gemini.management.framework.StartupProfilerMBean;
+import org.eclipse.gemini.management.framework.internal.DependencyIndex;
+import org.eclipse.gemini.management.framework.internal.ServiceLookupCounter;
+import org.eclipse.gemini.management.framework.internal.StartupTimeline;
+import org.eclipse.gemini.management.internal.EventJournal;
+import org.eclipse.gemini.management.internal.FilterCache;
+import org.eclipse.gemini.management.internal.MonitorMBean;
 import org.eclipse.gemini.management.permissionadmin.PermissionManager;
 import org.eclipse.gemini.management.provisioning.Provisioning;
 import org.eclipse.gemini.management.useradmin.UserManager;
@@ -102,6 +116,12 @@ public class Activator implements BundleActivator {
 	
 	private ObjectName userAdminName;
 	
+	private ObjectName eventJournalName;
+	
+	private ObjectName startupProfilerName;
+	
+	private ObjectName serviceLookupProfilerName;
+	
 	private ServiceTracker<MBeanServer, ?> mbeanServiceTracker;
 	
 	private BundleContext bundleContext = null;
@@ -116,6 +136,22 @@ public class Activator implements BundleActivator {
 	
 	private StandardMBean serviceState;
 	
+	private StandardMBean eventJournal;
+	
+	private StandardMBean startupProfiler;
+	
+	private StandardMBean serviceLookupProfiler;
+	
+	private DependencyIndex dependencies;
+	
+	private EventJournal journal;
+	
+	private FilterCache filters;
+	
+	private ServiceLookupCounter lookups;
+	
+	private final StartupTimeline timeline = new StartupTimeline();
+	
 	private ServiceTracker<ConfigurationAdmin, ?> configAdminTracker;
 	
 	private ServiceTracker<PermissionAdmin, ?> permissionAdminTracker;
@@ -147,6 +183,8 @@ public class Activator implements BundleActivator {
 	 */
 	public void start(BundleContext bundleContext) throws Exception {
 		this.bundleContext = bundleContext;
+		// started first, to time as many bundle starts as possible
+		this.timeline.start(bundleContext);
 		logServiceTracker = new ServiceTracker<LogService, Object>(bundleContext, LogService.class, new LogServiceTracker());
 		logServiceTracker.open();    
 		this.uuid_value = this.bundleContext.getBundle(0).getBundleContext().getProperty(Constants.FRAMEWORK_UUID);
@@ -160,6 +198,18 @@ public class Activator implements BundleActivator {
 			this.regionName = null;
 		}
         this.createObjectNames();
+		this.dependencies = new DependencyIndex();
+		this.dependencies.start(bundleContext);
+		this.filters = FilterCache.fromProperties(bundleContext);
+		this.lookups = ServiceLookupCounter.fromProperties(bundleContext);
+		this.lookups.start(bundleContext);
+		this.journal = EventJournal.fromProperties(bundleContext);
+		try {
+			this.journal.open();
+		} catch (IOException e) {
+			log(LogService.LOG_ERROR, "Unable to open the event journal", e);
+			this.journal = new EventJournal(null, 0);
+		}
 		this.createMBeansAndTrackers();
 		this.registerDefaultMBeanServer();
 		this.mbeanServiceTracker = new ServiceTracker<MBeanServer, Object>(this.bundleContext, MBeanServer.class, new MBeanServiceTracker());
@@ -178,6 +228,9 @@ public class Activator implements BundleActivator {
 			permissionAdminName = translateObjectName(PermissionAdminMBean.OBJECTNAME, false);
 			provisioningServiceName = translateObjectName(ProvisioningServiceMBean.OBJECTNAME, false);
 			userAdminName = translateObjectName(UserAdminMBean.OBJECTNAME, false);
+			eventJournalName = translateObjectName(EventJournalMBean.OBJECTNAME, true);
+			startupProfilerName = translateObjectName(StartupProfilerMBean.OBJECTNAME, true);
+			serviceLookupProfilerName = translateObjectName(ServiceLookupProfilerMBean.OBJECTNAME, true);
 		} catch (Exception e) {
 			throw new IllegalStateException("Unable to start Gemini Management, Object name creation failed.", e);
 		}
@@ -225,12 +278,19 @@ public class Activator implements BundleActivator {
 			bundleWiringState = null;
 			serviceState = null;
 			packageState = null;
+			eventJournal = null;
+			startupProfiler = null;
+			serviceLookupProfiler = null;
 			configAdminTracker = null;
 			permissionAdminTracker = null;
 			provisioningServiceTracker = null;
 			userAdminTracker = null;
 		}
 		mbeanServers.clear();
+		dependencies.stop();
+		journal.close();
+		lookups.stop();
+		timeline.stop();
 		logServiceTracker.close();
 	}
 
@@ -250,6 +310,9 @@ public class Activator implements BundleActivator {
 			this.deregisterService(mbeanServer, permissionAdminName);
 			this.deregisterService(mbeanServer, provisioningServiceName);
 			this.deregisterService(mbeanServer, userAdminName);
+			this.deregisterService(mbeanServer, eventJournalName);
+			this.deregisterService(mbeanServer, startupProfilerName);
+			this.deregisterService(mbeanServer, serviceLookupProfilerName);
 		}
 	}
 	
@@ -281,6 +344,13 @@ public class Activator implements BundleActivator {
 			this.registerMBean(mbeanServer, bundleWiringStateName, bundleWiringState);
 			this.registerMBean(mbeanServer, serviceStateName, serviceState);
 			this.registerMBean(mbeanServer, packageStateName, packageState);
+			this.registerMBean(mbeanServer, startupProfilerName, startupProfiler);
+			if (eventJournal != null) {
+				this.registerMBean(mbeanServer, eventJournalName, eventJournal);
+			}
+			if (serviceLookupProfiler != null) {
+				this.registerMBean(mbeanServer, serviceLookupProfilerName, serviceLookupProfiler);
+			}
 		}
     }
 	
@@ -302,14 +372,14 @@ public class Activator implements BundleActivator {
 
 	private void createMBeansAndTrackers(){
 		try {
-			framework = new StandardMBean(new Framework(bundleContext), FrameworkMBean.class);
+			framework = new StandardMBean(new Framework(bundleContext, dependencies), FrameworkMBean.class);
 		} catch (NotCompliantMBeanException e) {
 			log(LogService.LOG_ERROR, "Unable to create StandardMBean for Framework", e);
 			return;
 		}
 		try {
-			bundleState = new StandardMBean(new BundleState(bundleContext), BundleStateMBean.class);
-		} catch (NotCompliantMBeanException e) {
+			bundleState = new MonitorMBean(new BundleState(bundleContext, dependencies, journal), CustomBundleStateMBean.class);
+		} catch (IllegalArgumentException e) {
 			log(LogService.LOG_ERROR, "Unable to create StandardMBean for BundleState", e);
 			return;
 		}
@@ -320,8 +390,8 @@ public class Activator implements BundleActivator {
 			return;
 		}
 		try {
-			serviceState = new StandardMBean(new ServiceState(bundleContext), CustomServiceStateMBean.class);
-		} catch (NotCompliantMBeanException e) {
+			serviceState = new MonitorMBean(new ServiceState(bundleContext, journal, filters), CustomServiceStateMBean.class);
+		} catch (IllegalArgumentException e) {
 			log(LogService.LOG_ERROR, "Unable to create StandardMBean for ServiceState", e);
 			return;
 		}
@@ -331,6 +401,26 @@ public class Activator implements BundleActivator {
 			log(LogService.LOG_ERROR, "Unable to create StandardMBean for PackageState", e);
 			return;
 		}
+		try {
+			startupProfiler = new StandardMBean(new StartupProfiler(timeline), StartupProfilerMBean.class);
+		} catch (NotCompliantMBeanException e) {
+			log(LogService.LOG_ERROR, "Unable to create StandardMBean for StartupProfiler", e);
+			return;
+		}
+		if (journal.isEnabled()) {
+			try {
+				eventJournal = new StandardMBean(new EventJournalManager(journal), EventJournalMBean.class);
+			} catch (NotCompliantMBeanException e) {
+				log(LogService.LOG_ERROR, "Unable to create StandardMBean for EventJournal", e);
+			}
+		}
+		if (lookups.isEnabled()) {
+			try {
+				serviceLookupProfiler = new StandardMBean(new ServiceLookupProfiler(lookups), ServiceLookupProfilerMBean.class);
+			} catch (NotCompliantMBeanException e) {
+				log(LogService.LOG_ERROR, "Unable to create StandardMBean for ServiceLookupProfiler", e);
+			}
+		}
 
         configAdminTracker = new ServiceTracker<ConfigurationAdmin, Object>(bundleContext, "org.osgi.service.cm.ConfigurationAdmin", new ConfigAdminTracker());
         permissionAdminTracker = new ServiceTracker<PermissionAdmin, Object>(bundleContext, "org.osgi.service.permissionadmin.PermissionAdmin", new PermissionAdminTracker());
@@ -420,7 +510,7 @@ public class Activator implements BundleActivator {
 			}
 
 			try {
-				manager = new StandardMBean(new ConfigAdminManager(admin, logger), ConfigurationAdminMBean.class);
+				manager = new StandardMBean(new ConfigAdminManager(admin, logger, filters), ConfigurationAdminMBean.class);
 			} catch (NotCompliantMBeanException e) {
 				log(LogService.LOG_ERROR, "Unable to create Configuration Admin Manager", e);
 				return admin;
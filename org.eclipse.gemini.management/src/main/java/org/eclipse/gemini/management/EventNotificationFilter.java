@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management;
+
+import java.util.EventObject;
+
+import javax.management.NotificationFilter;
+
+/**
+ * A notification filter which can also decide from the framework event itself
+ * whether the notification of the event is wanted.
+ * <p>
+ * When every notification listener of a {@link Monitor} is registered with such
+ * a filter, the monitor asks the filters before encoding an event, and events
+ * which no filter accepts are neither encoded nor sent.
+ */
+public interface EventNotificationFilter extends NotificationFilter {
+
+	/**
+	 * Answer true if the notification of the supplied event is wanted. This is
+	 * called on the thread delivering the event, so it must be cheap and must
+	 * not block.
+	 * 
+	 * @param event - the framework event
+	 * @return true if the notification of the event is wanted
+	 */
+	boolean isEventEnabled(EventObject event);
+
+}
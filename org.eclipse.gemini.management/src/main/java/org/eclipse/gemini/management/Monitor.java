@@ -15,22 +15,212 @@
 
 package org.eclipse.gemini.management;
 
+import java.util.ArrayList;
+import java.util.EventObject;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.ListenerNotFoundException;
 import javax.management.MBeanRegistration;
 import javax.management.MBeanServer;
+import javax.management.Notification;
 import javax.management.NotificationBroadcasterSupport;
+import javax.management.NotificationFilter;
+import javax.management.NotificationListener;
 import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.eclipse.gemini.management.internal.NotificationBatcher;
+import org.eclipse.gemini.management.internal.NotificationDispatcher;
+import org.eclipse.gemini.management.internal.NotificationReplayBuffer;
 
 /** 
- * 
+ * The base of the MBeans sending notifications of framework events.
+ * <p>
+ * The same monitor is registered in every MBeanServer, so its registrations
+ * are counted: it listens to the framework from its first registration until
+ * it is deregistered from the last MBeanServer, and keeps the name it was
+ * first registered under.
+ * <p>
+ * The events are only encoded when a notification listener may want them. A
+ * listener registered with an {@link EventNotificationFilter} wants the events
+ * its filter accepts. A listener registered without one wants every event;
+ * this is the case of the listener of a JMX connector server, which relays the
+ * notifications to its remote clients and applies their filters itself.
  */
 abstract public class Monitor extends NotificationBroadcasterSupport implements	MBeanRegistration {
 
 	protected ObjectName objectName;
 
-	protected volatile long sequenceNumber = 0;
+	private final AtomicLong sequenceNumber = new AtomicLong();
 
 	protected MBeanServer server;
 	
+	private final NotificationDispatcher dispatcher;
+	
+	private final NotificationBatcher batcher;
+	
+	private final NotificationReplayBuffer replay;
+	
+	/**
+	 * The registrations of the notification listeners
+	 */
+	private final List<Subscription> subscriptions = new ArrayList<Subscription>();
+	
+	private volatile boolean listened = false;
+	
+	/**
+	 * The filters of every registration, or null if a registration may want any event
+	 */
+	private volatile EventNotificationFilter[] eventFilters = null;
+	
+	/**
+	 * The number of MBeanServers the monitor is registered in
+	 */
+	private int registrations = 0;
+	
+	private final Object registrationLock = new Object();
+	
+	/**
+	 * Construct a monitor which sends a notification per event on the thread delivering the framework event
+	 */
+	protected Monitor() {
+		this(new NotificationDispatcher(0, false), new NotificationBatcher(0, 0), new NotificationReplayBuffer(0));
+	}
+	
+	/**
+	 * Construct a monitor which sends its notifications through the supplied
+	 * dispatcher and batcher, and retains them in the supplied replay buffer
+	 * 
+	 * @param dispatcher
+	 * @param batcher
+	 * @param replay
+	 */
+	protected Monitor(NotificationDispatcher dispatcher, NotificationBatcher batcher, NotificationReplayBuffer replay) {
+		this.dispatcher = dispatcher;
+		this.batcher = batcher;
+		this.replay = replay;
+		this.listened = replay.isEnabled();
+	}
+	
+	/**
+	 * @return the number of notifications dropped because the notification queue was full
+	 */
+	public long getDroppedNotifications() {
+		return dispatcher.getDroppedCount();
+	}
+	
+	/**
+	 * Answer the retained events which followed the supplied sequence number
+	 * 
+	 * @param sequence - the sequence number of the last event seen, -1 if none was seen
+	 * @return the events, in order
+	 * @throws IllegalArgumentException
+	 *             if some of the events which followed are no longer retained or were lost
+	 * @throws IllegalStateException
+	 *             if the events are not retained for replay
+	 */
+	public CompositeData[] replayEventsSince(long sequence) {
+		return replay.since(sequence, sequenceNumber.get() - 1);
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void addNotificationListener(NotificationListener listener, NotificationFilter filter, Object handback) {
+		super.addNotificationListener(listener, filter, handback);
+		synchronized (subscriptions) {
+			subscriptions.add(new Subscription(listener, filter, handback));
+			listenersChanged();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void removeNotificationListener(NotificationListener listener) throws ListenerNotFoundException {
+		super.removeNotificationListener(listener);
+		synchronized (subscriptions) {
+			for (Iterator<Subscription> iterator = subscriptions.iterator(); iterator.hasNext();) {
+				if (iterator.next().listener == listener) {
+					iterator.remove();
+				}
+			}
+			listenersChanged();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void removeNotificationListener(NotificationListener listener, NotificationFilter filter, Object handback) throws ListenerNotFoundException {
+		super.removeNotificationListener(listener, filter, handback);
+		synchronized (subscriptions) {
+			for (Iterator<Subscription> iterator = subscriptions.iterator(); iterator.hasNext();) {
+				Subscription subscription = iterator.next();
+				if (subscription.listener == listener && subscription.filter == filter && subscription.handback == handback) {
+					iterator.remove();
+					break;
+				}
+			}
+			listenersChanged();
+		}
+	}
+
+	/**
+	 * Answer true if at least one notification listener is registered, events
+	 * need only be encoded when it is the case. The replay buffer, when
+	 * enabled, counts as a listener which is always registered.
+	 * 
+	 * @return true if at least one notification listener is registered
+	 */
+	protected boolean hasNotificationListeners() {
+		return listened;
+	}
+
+	/**
+	 * Answer true if at least one notification listener may want the
+	 * notification of the supplied event. It is false when every listener is
+	 * registered with an {@link EventNotificationFilter} which rejects the
+	 * event, in which case the event need not be encoded.
+	 * 
+	 * @param event - the framework event
+	 * @return true if the notification of the event may be wanted
+	 */
+	protected boolean isEventWanted(EventObject event) {
+		if (!listened) {
+			return false;
+		}
+		EventNotificationFilter[] filters = eventFilters;
+		if (filters == null || replay.isEnabled()) {
+			return true;
+		}
+		for (EventNotificationFilter filter : filters) {
+			if (filter.isEventEnabled(event)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void listenersChanged() {
+		EventNotificationFilter[] filters = new EventNotificationFilter[subscriptions.size()];
+		for (int i = 0; i < filters.length; i++) {
+			NotificationFilter filter = subscriptions.get(i).filter;
+			if (!(filter instanceof EventNotificationFilter)) {
+				filters = null;
+				break;
+			}
+			filters[i] = (EventNotificationFilter) filter;
+		}
+		eventFilters = filters;
+		listened = replay.isEnabled() || !subscriptions.isEmpty();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -41,22 +231,46 @@ abstract public class Monitor extends NotificationBroadcasterSupport implements
 	 * {@inheritDoc}
 	 */
 	public void postRegister(Boolean registrationDone) {
-		addListener();
+		synchronized (registrationLock) {
+			if (!Boolean.TRUE.equals(registrationDone) || registrations++ > 0) {
+				return;
+			}
+			dispatcher.start("JMX Notification Dispatcher " + objectName);
+			batcher.start("JMX Notification Batcher " + objectName, new NotificationBatcher.Sink() {
+				public void send(String type, long sequence, CompositeData[] events) {
+					Notification notification = new Notification(type, objectName, sequence);
+					notification.setUserData(events);
+					sendNotification(notification);
+				}
+			});
+			addListener();
+		}
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public void preDeregister() throws Exception {
-		removeListener();
+		synchronized (registrationLock) {
+			if (registrations == 0 || --registrations > 0) {
+				return;
+			}
+			removeListener();
+			dispatcher.stop();
+			batcher.stop();
+		}
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public ObjectName preRegister(MBeanServer server, ObjectName name) throws Exception {
-		objectName = name;
-		this.server = server;
+		synchronized (registrationLock) {
+			if (registrations == 0) {
+				objectName = name;
+				this.server = server;
+			}
+		}
 		return name;
 	}
 
@@ -70,4 +284,118 @@ abstract public class Monitor extends NotificationBroadcasterSupport implements
 	 */
 	abstract protected void removeListener();
 
-}
\ No newline at end of file
+	/**
+	 * Run the job which encodes and sends the notification of an event,
+	 * possibly on the notification dispatcher thread. When the events are
+	 * retained for replay, the event is encoded and retained on the calling
+	 * thread before the job is dispatched, so that the retained events follow
+	 * the sequence numbers without a gap even when the job is dropped from a
+	 * full queue or fails. An event which cannot be encoded is retained as
+	 * lost.
+	 * 
+	 * @param job
+	 */
+	protected void dispatchEvent(EventJob job) {
+		if (replay.isEnabled()) {
+			try {
+				job.encoded = job.encode();
+			} catch (RuntimeException e) {
+				replay.recordLost(job.sequence);
+				throw e;
+			}
+			replay.record(job.sequence, job.encoded);
+		}
+		dispatcher.dispatch(job);
+	}
+
+	/**
+	 * Answer the next sequence number. The sequence numbers handed out are
+	 * consecutive, even when events are delivered concurrently.
+	 * 
+	 * @return the sequence number
+	 */
+	protected long nextSequenceNumber() {
+		return sequenceNumber.getAndIncrement();
+	}
+
+	/**
+	 * Send the notification of an event, either on its own or, if batching is
+	 * enabled, as part of the next notification of the batch type whose user
+	 * data is the CompositeData[] of the batched events
+	 * 
+	 * @param type - the notification type of a single event
+	 * @param batchType - the notification type of a batch of events
+	 * @param sequence - the sequence number of the event
+	 * @param event - the event
+	 */
+	private void sendEvent(String type, String batchType, long sequence, CompositeData event) {
+		if (batcher.isEnabled()) {
+			batcher.add(batchType, sequence, event);
+			return;
+		}
+		Notification notification = new Notification(type, objectName, sequence);
+		notification.setUserData(event);
+		sendNotification(notification);
+	}
+
+	/**
+	 * The job encoding and sending the notification of an event. The job must
+	 * not access the event being notified, which may no longer be valid when
+	 * it runs, but a snapshot of it taken when the event was delivered.
+	 */
+	protected abstract class EventJob implements Runnable {
+
+		private final String type;
+
+		private final String batchType;
+
+		private final long sequence;
+
+		private CompositeData encoded;
+
+		/**
+		 * Constructor
+		 * 
+		 * @param type - the notification type of a single event
+		 * @param batchType - the notification type of a batch of events
+		 * @param sequence - the sequence number of the event
+		 */
+		protected EventJob(String type, String batchType, long sequence) {
+			this.type = type;
+			this.batchType = batchType;
+			this.sequence = sequence;
+		}
+
+		/**
+		 * Encode the event
+		 * 
+		 * @return the encoded event
+		 */
+		protected abstract CompositeData encode();
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public final void run() {
+			sendEvent(type, batchType, sequence, encoded != null ? encoded : encode());
+		}
+
+	}
+
+	private static final class Subscription {
+
+		final NotificationListener listener;
+
+		final NotificationFilter filter;
+
+		final Object handback;
+
+		Subscription(NotificationListener listener, NotificationFilter filter, Object handback) {
+			this.listener = listener;
+			this.filter = filter;
+			this.handback = handback;
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -24,6 +24,7 @@ import java.util.Dictionary;
 
 import javax.management.openmbean.TabularData;
 
+import org.eclipse.gemini.management.internal.FilterCache;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.jmx.service.cm.ConfigurationAdminMBean;
 import org.osgi.service.cm.Configuration;
@@ -38,10 +39,17 @@ public final class ConfigAdminManager implements ConfigurationAdminMBean {
 	private final ConfigurationAdmin admin;
 	
 	private final LogService logger;
+	
+	private final FilterCache filters;
 
 	public ConfigAdminManager(ConfigurationAdmin admin, LogService logger) {
+		this(admin, logger, new FilterCache(FilterCache.DEFAULT_SIZE));
+	}
+
+	public ConfigAdminManager(ConfigurationAdmin admin, LogService logger, FilterCache filters) {
 		this.admin = admin;
 		this.logger = logger;
+		this.filters = filters;
 	}
 	
 	private void log(int level, String message, Throwable t) {
@@ -173,6 +181,10 @@ public final class ConfigAdminManager implements ConfigurationAdminMBean {
 		ArrayList<String[]> pids = new ArrayList<String[]>();
 		Configuration[] configurations;
 		try {
+			// the cache rejects an invalid filter before the configurations are searched
+			if (filter != null) {
+				filters.get(filter);
+			}
 			configurations = admin.listConfigurations(filter);
 		} catch (InvalidSyntaxException e) {
 			log(LogService.LOG_ERROR, "Invalid filter argument: " + filter, e);
@@ -180,7 +192,11 @@ public final class ConfigAdminManager implements ConfigurationAdminMBean {
 		}
 		if (configurations != null) {
 			for (Configuration config : configurations) {
-				pids.add(new String[] { config.getPid(), config.getBundleLocation() });
+				try {
+					pids.add(new String[] { config.getPid(), config.getBundleLocation() });
+				} catch (IllegalStateException e) {
+					// deleted meanwhile
+				}
 			}
 		}
 		return pids.toArray(new String[pids.size()][]);
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework;
+
+import java.util.Arrays;
+
+import javax.management.Notification;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeType;
+
+import org.eclipse.gemini.management.EventNotificationFilter;
+
+/**
+ * The criteria shared by the event filters: the identifiers of the bundles, the
+ * pattern of their symbolic names and the mask of the event types. An event
+ * must meet every criterion which is set.
+ * <p>
+ * The filter accepts the notification of a single event if it accepts the
+ * event, and a batch notification if it accepts at least one of its events.
+ * The other events of an accepted batch are delivered too.
+ */
+abstract class AbstractEventFilter implements EventNotificationFilter {
+
+	private static final long serialVersionUID = 1L;
+
+	private final long[] bundleIds;
+
+	private final String symbolicNamePattern;
+
+	private final int eventTypes;
+
+	AbstractEventFilter(long[] bundleIds, String symbolicNamePattern, int eventTypes) {
+		if (bundleIds != null) {
+			bundleIds = bundleIds.clone();
+			Arrays.sort(bundleIds);
+		}
+		this.bundleIds = bundleIds;
+		this.symbolicNamePattern = symbolicNamePattern;
+		this.eventTypes = eventTypes;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isNotificationEnabled(Notification notification) {
+		Object userData = notification.getUserData();
+		if (userData instanceof CompositeData) {
+			return isEventEnabled((CompositeData) userData);
+		}
+		if (userData instanceof CompositeData[]) {
+			for (CompositeData event : (CompositeData[]) userData) {
+				if (isEventEnabled(event)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the type of the encoded events this filter applies to
+	 */
+	abstract CompositeType eventType();
+
+	/**
+	 * Answer true if the supplied encoded event is wanted
+	 * 
+	 * @param event - the encoded event, of the type {@link #eventType()}
+	 * @return true if the event is wanted
+	 */
+	abstract boolean matches(CompositeData event);
+
+	/**
+	 * Answer true if the bundle and the type of an event meet the criteria of
+	 * this filter
+	 * 
+	 * @param bundleId
+	 * @param symbolicName
+	 * @param type
+	 * @return true if the criteria are met
+	 */
+	final boolean matches(long bundleId, String symbolicName, int type) {
+		if ((type & eventTypes) == 0) {
+			return false;
+		}
+		if (bundleIds != null && Arrays.binarySearch(bundleIds, bundleId) < 0) {
+			return false;
+		}
+		return symbolicNamePattern == null || (symbolicName != null && globMatches(symbolicNamePattern, symbolicName));
+	}
+
+	private boolean isEventEnabled(CompositeData event) {
+		return event != null && eventType().equals(event.getCompositeType()) && matches(event);
+	}
+
+	/**
+	 * Answer true if the name matches the pattern, in which '*' stands for any
+	 * sequence of characters
+	 */
+	static boolean globMatches(String pattern, String name) {
+		int p = 0, n = 0, star = -1, resume = 0;
+		while (n < name.length()) {
+			if (p < pattern.length() && pattern.charAt(p) == '*') {
+				star = p++;
+				resume = n;
+			} else if (p < pattern.length() && pattern.charAt(p) == name.charAt(n)) {
+				p++;
+				n++;
+			} else if (star >= 0) {
+				p = star + 1;
+				n = ++resume;
+			} else {
+				return false;
+			}
+		}
+		while (p < pattern.length() && pattern.charAt(p) == '*') {
+			p++;
+		}
+		return p == pattern.length();
+	}
+
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework;
+
+import java.util.EventObject;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeType;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleEvent;
+import org.osgi.jmx.framework.BundleStateMBean;
+
+/**
+ * A filter of the bundle event notifications of {@link BundleState}, to be
+ * passed when adding a notification listener. The filter is evaluated against
+ * the bundle event before it is encoded, so the events no listener wants are
+ * never encoded nor sent.
+ * <p>
+ * A filter passed by a remote client is only evaluated by the connector: the
+ * connector listens to {@link BundleState} without a filter, so every event is
+ * still encoded for it, and the filter only saves sending the rejected events
+ * to the client.
+ * <p>
+ * For example, the following only receives the STARTED and STOPPED events of
+ * the bundles whose symbolic name starts with <code>com.acme.</code>:
+ * 
+ * <pre>
+ * connection.addNotificationListener(bundleState, listener,
+ * 		new BundleEventFilter(null, &quot;com.acme.*&quot;, BundleEvent.STARTED | BundleEvent.STOPPED), null);
+ * </pre>
+ */
+public final class BundleEventFilter extends AbstractEventFilter {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Construct a filter of bundle events
+	 * 
+	 * @param bundleIds - the identifiers of the bundles whose events are wanted, or null for every bundle
+	 * @param symbolicNamePattern - the symbolic name of the bundles whose events are wanted, in which '*' stands for any sequence of characters, or null for every bundle
+	 * @param eventTypes - the mask of the types of the wanted events, for example <code>BundleEvent.INSTALLED | BundleEvent.UNINSTALLED</code>, or -1 for every type
+	 */
+	public BundleEventFilter(long[] bundleIds, String symbolicNamePattern, int eventTypes) {
+		super(bundleIds, symbolicNamePattern, eventTypes);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isEventEnabled(EventObject event) {
+		if (!(event instanceof BundleEvent)) {
+			return false;
+		}
+		BundleEvent bundleEvent = (BundleEvent) event;
+		Bundle bundle = bundleEvent.getBundle();
+		return matches(bundle.getBundleId(), bundle.getSymbolicName(), bundleEvent.getType());
+	}
+
+	@Override
+	CompositeType eventType() {
+		return BundleStateMBean.BUNDLE_EVENT_TYPE;
+	}
+
+	@Override
+	boolean matches(CompositeData event) {
+		return matches((Long) event.get(BundleStateMBean.IDENTIFIER), (String) event.get(BundleStateMBean.SYMBOLIC_NAME), (Integer) event.get(BundleStateMBean.EVENT));
+	}
+
+}
@@ -17,17 +17,21 @@ package org.eclipse.gemini.management.framework;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
-import javax.management.Notification;
 import javax.management.openmbean.CompositeData;
 import javax.management.openmbean.TabularData;
-import javax.management.openmbean.TabularDataSupport;
 
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.BundleEvent;
 import org.osgi.framework.BundleListener;
+import org.osgi.framework.FrameworkEvent;
+import org.osgi.framework.FrameworkListener;
 import org.osgi.framework.ServiceReference;
 import org.osgi.framework.wiring.BundleRevision;
 import org.osgi.framework.wiring.BundleWire;
@@ -35,25 +39,83 @@ import org.osgi.framework.wiring.BundleWiring;
 import org.osgi.jmx.framework.BundleStateMBean;
 
 import org.eclipse.gemini.management.Monitor;
+import org.eclipse.gemini.management.framework.internal.BundleChangeTracker;
+import org.eclipse.gemini.management.framework.internal.BundleSnapshotCache;
+import org.eclipse.gemini.management.framework.internal.DependencyIndex;
+import org.eclipse.gemini.management.framework.internal.HeaderTableCache;
 import org.eclipse.gemini.management.framework.internal.OSGiBundle;
+import org.eclipse.gemini.management.framework.internal.OSGiBundleColumns;
 import org.eclipse.gemini.management.framework.internal.OSGiBundleEvent;
 import org.eclipse.gemini.management.internal.BundleUtil;
+import org.eclipse.gemini.management.internal.EventJournal;
+import org.eclipse.gemini.management.internal.NotificationBatcher;
+import org.eclipse.gemini.management.internal.NotificationDispatcher;
+import org.eclipse.gemini.management.internal.NotificationReplayBuffer;
+import org.eclipse.gemini.management.internal.TableBuilder;
 
 /** 
  * 
  */
-public final class BundleState extends Monitor implements BundleStateMBean {
+public final class BundleState extends Monitor implements CustomBundleStateMBean {
+	
+	private static final Comparator<Bundle> BUNDLE_ID_ORDER = new Comparator<Bundle>() {
+		public int compare(Bundle b1, Bundle b2) {
+			long id1 = b1.getBundleId();
+			long id2 = b2.getBundleId();
+			return id1 < id2 ? -1 : (id1 == id2 ? 0 : 1);
+		}
+	};
 	
 	private BundleListener bundleListener;
 	
+	private FrameworkListener refreshListener;
+	
 	private BundleContext bundleContext;
 	
+	private final HeaderTableCache headerTables;
+	
+	private final BundleSnapshotCache snapshots;
+	
+	private final BundleChangeTracker changes;
+	
+	private final TableBuilder tables;
+	
+	private final DependencyIndex dependencies;
+	
+	private final EventJournal journal;
+	
 	/**
 	 * 
 	 * @param bundleContext
 	 */
 	public BundleState(BundleContext bundleContext) {
+		this(bundleContext, new DependencyIndex());
+	}
+	
+	/**
+	 * 
+	 * @param bundleContext
+	 * @param dependencies - the index answering the requiring and required bundles
+	 */
+	public BundleState(BundleContext bundleContext, DependencyIndex dependencies) {
+		this(bundleContext, dependencies, new EventJournal(null, 0));
+	}
+	
+	/**
+	 * 
+	 * @param bundleContext
+	 * @param dependencies - the index answering the requiring and required bundles
+	 * @param journal - the journal the bundle events are appended to
+	 */
+	public BundleState(BundleContext bundleContext, DependencyIndex dependencies, EventJournal journal) {
+		super(NotificationDispatcher.fromProperties(bundleContext), NotificationBatcher.fromProperties(bundleContext), NotificationReplayBuffer.fromProperties(bundleContext));
 		this.bundleContext = bundleContext;
+		this.dependencies = dependencies;
+		this.changes = new BundleChangeTracker(dependencies);
+		this.journal = journal;
+		this.tables = TableBuilder.fromProperties(bundleContext);
+		this.headerTables = HeaderTableCache.fromProperties(bundleContext);
+		this.snapshots = new BundleSnapshotCache(headerTables);
 	}
 
 	
@@ -61,7 +123,7 @@ public final class BundleState extends Monitor implements BundleStateMBean {
 	 * {@inheritDoc}
 	 */
 	public CompositeData getBundle(long bundleId) throws IOException {
-		return new OSGiBundle(retrieveBundle(bundleId)).asCompositeData();
+		return osgiBundle(retrieveBundle(bundleId)).asCompositeData();
 	}
 
 	/**
@@ -81,11 +143,11 @@ public final class BundleState extends Monitor implements BundleStateMBean {
 	 */
 	public TabularData listBundles() throws IOException {
 		try {
-			TabularDataSupport table = new TabularDataSupport(BundleStateMBean.BUNDLES_TYPE);
+			ArrayList<OSGiBundle> bundles = new ArrayList<OSGiBundle>();
 			for (Bundle bundle : bundleContext.getBundles()) {
-				table.put(new OSGiBundle(bundle).asCompositeData());
+				bundles.add(osgiBundle(bundle));
 			}
-			return table;
+			return OSGiBundle.tableFrom(bundles, OSGiBundle.ALL_ITEMS, tables);
 		} catch (Throwable e) {
 			throw new IOException(e);
 		}
@@ -98,19 +160,102 @@ public final class BundleState extends Monitor implements BundleStateMBean {
 		try {
 			ArrayList<OSGiBundle> bundles = new ArrayList<OSGiBundle>();
 			for (Bundle bundle : bundleContext.getBundles()) {
-				bundles.add(new OSGiBundle(bundle));
+				bundles.add(osgiBundle(bundle));
+			}
+			return OSGiBundle.tableFrom(bundles, OSGiBundle.projection(bundleTypeItems), tables);
+		} catch (Throwable e) {
+			throw new IOException(e);
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	public TabularData listBundles(long afterBundleId, int limit, String... items) throws IOException {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("Page limit must be positive: " + limit);
+		}
+		List<Bundle> after = new ArrayList<Bundle>();
+		for (Bundle bundle : bundleContext.getBundles()) {
+			if (bundle.getBundleId() > afterBundleId) {
+				after.add(bundle);
+			}
+		}
+		Bundle[] page = after.toArray(new Bundle[after.size()]);
+		Arrays.sort(page, BUNDLE_ID_ORDER);
+		try {
+			ArrayList<OSGiBundle> bundles = new ArrayList<OSGiBundle>();
+			for (int i = 0; i < page.length && i < limit; i++) {
+				bundles.add(osgiBundle(page[i]));
 			}
-			return OSGiBundle.tableFrom(bundles, bundleTypeItems);          
+			return OSGiBundle.tableFrom(bundles, OSGiBundle.projection(items), tables);
 		} catch (Throwable e) {
 			throw new IOException(e);
 		}
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 */
+	public TabularData getBundles(long[] bundleIds, String... items) throws IOException {
+		Set<Long> distinctIds = new LinkedHashSet<Long>();
+		for (long bundleId : bundleIds) {
+			distinctIds.add(bundleId);
+		}
+		ArrayList<OSGiBundle> bundles = new ArrayList<OSGiBundle>();
+		for (Long bundleId : distinctIds) {
+			bundles.add(osgiBundle(retrieveBundle(bundleId)));
+		}
+		try {
+			return OSGiBundle.tableFrom(bundles, OSGiBundle.projection(items), tables);
+		} catch (Throwable e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getGeneration() throws IOException {
+		return changes.getGeneration();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public TabularData listBundlesChangedSince(long generation, String... items) throws IOException {
+		List<Long> changed = changes.changedSince(generation);
+		if (changed == null) {
+			return listBundles(items);
+		}
+		try {
+			ArrayList<OSGiBundle> bundles = new ArrayList<OSGiBundle>();
+			for (Long bundleId : changed) {
+				Bundle bundle = bundleContext.getBundle(bundleId);
+				if (bundle != null) {
+					bundles.add(osgiBundle(bundle));
+				}
+			}
+			return OSGiBundle.tableFrom(bundles, OSGiBundle.projection(items), tables);
+		} catch (Throwable e) {
+			throw new IOException(e);
+		}
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 */
+	public CompositeData listBundleColumns() throws IOException {
+		Bundle[] bundles = bundleContext.getBundles();
+		Arrays.sort(bundles, BUNDLE_ID_ORDER);
+		return new OSGiBundleColumns(Arrays.asList(bundles)).asCompositeData();
+	}
+	
 	/**
 	 * {@inheritDoc}
 	 */
 	public String[] getExportedPackages(long bundleId) throws IOException {
-		return BundleUtil.getBundleExportedPackages(retrieveBundle(bundleId));
+		return snapshots.snapshotFor(retrieveBundle(bundleId)).getExportedPackages();
 	}
 
 	/**
@@ -126,14 +271,14 @@ public final class BundleState extends Monitor implements BundleStateMBean {
 	 * {@inheritDoc}
 	 */
 	public TabularData getHeaders(long bundleId) throws IOException {
-		return OSGiBundle.headerTable(retrieveBundle(bundleId).getHeaders());
+		return snapshots.snapshotFor(retrieveBundle(bundleId)).getHeaders();
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public TabularData getHeaders(long bundleId, String locale) throws IOException {
-		return OSGiBundle.headerTable(retrieveBundle(bundleId).getHeaders(locale));
+		return headerTables.headersOf(retrieveBundle(bundleId), locale);
 	}
 
 	/**
@@ -163,7 +308,7 @@ public final class BundleState extends Monitor implements BundleStateMBean {
 	 * {@inheritDoc}
 	 */
 	public String[] getImportedPackages(long bundleId) throws IOException {
-		return BundleUtil.getBundleImportedPackages(retrieveBundle(bundleId));
+		return snapshots.snapshotFor(retrieveBundle(bundleId)).getImportedPackages();
 	}
 
 	/**
@@ -193,14 +338,24 @@ public final class BundleState extends Monitor implements BundleStateMBean {
 	 * {@inheritDoc}
 	 */
 	public long[] getRequiringBundles(long bundleId) throws IOException {
-        return convertToPrimativeArray(BundleUtil.getRequiringBundles(retrieveBundle(bundleId)));
+		Bundle bundle = retrieveBundle(bundleId);
+		long[] requiringBundles = dependencies.requiringBundles(bundleId);
+		if (requiringBundles != null) {
+			return requiringBundles;
+		}
+        return convertToPrimativeArray(snapshots.snapshotFor(bundle).getRequiringBundles());
     }
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public long[] getRequiredBundles(long bundleId) throws IOException {
-        return convertToPrimativeArray(BundleUtil.getRequiredBundles(retrieveBundle(bundleId)));
+		Bundle bundle = retrieveBundle(bundleId);
+		long[] requiredBundles = dependencies.requiredBundles(bundleId);
+		if (requiredBundles != null) {
+			return requiredBundles;
+		}
+        return convertToPrimativeArray(snapshots.snapshotFor(bundle).getRequiredBundles());
     }
 
 	/**
@@ -256,25 +411,29 @@ public final class BundleState extends Monitor implements BundleStateMBean {
 	 * {@inheritDoc}
 	 */
 	public boolean isFragment(long bundleId) throws IOException {
-		return BundleUtil.isBundleFragment(retrieveBundle(bundleId));
+		return snapshots.snapshotFor(retrieveBundle(bundleId)).isFragment();
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public boolean isRemovalPending(long bundleId) throws IOException {
-		return BundleUtil.isRemovalPending(retrieveBundle(bundleId));
+		return snapshots.snapshotFor(retrieveBundle(bundleId)).isRemovalPending();
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public boolean isRequired(long bundleId) throws IOException {
-		return BundleUtil.isRequired(retrieveBundle(bundleId));
+		return snapshots.snapshotFor(retrieveBundle(bundleId)).isRequired();
 	}
 
 	//End methods for the MBean
 	
+	private OSGiBundle osgiBundle(Bundle bundle) {
+		return new OSGiBundle(bundle, snapshots.snapshotFor(bundle));
+	}
+	
 	private Bundle retrieveBundle(long bundleId) throws IOException {
 		Bundle b = bundleContext.getBundle(bundleId);
 		if (b == null) {
@@ -301,16 +460,43 @@ public final class BundleState extends Monitor implements BundleStateMBean {
 	 * {@inheritDoc}
 	 */
 	protected void addListener() {
+		snapshots.enable();
+		changes.start();
 		bundleListener = getBundleListener();
 		bundleContext.addBundleListener(bundleListener);
+		refreshListener = getRefreshListener();
+		bundleContext.addFrameworkListener(refreshListener);
 	}
 
 	private BundleListener getBundleListener() {
 		return new BundleListener() {
 			public void bundleChanged(BundleEvent bundleEvent) {
-				Notification notification = new Notification(BundleStateMBean.EVENT, objectName, sequenceNumber++);
-				notification.setUserData(new OSGiBundleEvent(bundleEvent).asCompositeData());
-				sendNotification(notification);
+				journal.append(EventJournal.BUNDLE_EVENT, bundleEvent.getType(), bundleEvent.getBundle().getBundleId(), -1);
+				headerTables.bundleChanged(bundleEvent);
+				snapshots.bundleChanged(bundleEvent);
+				changes.bundleChanged(bundleEvent);
+				if (!isEventWanted(bundleEvent)) {
+					return;
+				}
+				final long sequence = nextSequenceNumber();
+				final OSGiBundleEvent event = new OSGiBundleEvent(bundleEvent);
+				dispatchEvent(new EventJob(BundleStateMBean.EVENT, CustomBundleStateMBean.EVENT_BATCH, sequence) {
+					protected CompositeData encode() {
+						return event.asCompositeData();
+					}
+				});
+			}
+		};
+	}
+
+	private FrameworkListener getRefreshListener() {
+		return new FrameworkListener() {
+			public void frameworkEvent(FrameworkEvent event) {
+				if (FrameworkEvent.PACKAGES_REFRESHED == event.getType()) {
+					headerTables.invalidateAll();
+					snapshots.invalidateAll();
+					changes.everythingChanged();
+				}
 			}
 		};
 	}
@@ -322,6 +508,13 @@ public final class BundleState extends Monitor implements BundleStateMBean {
 		if (bundleListener != null) {
 			bundleContext.removeBundleListener(bundleListener);
 		}
+		if (refreshListener != null) {
+			bundleContext.removeFrameworkListener(refreshListener);
+		}
+		snapshots.disable();
+		changes.stop();
+		headerTables.invalidateAll();
+		tables.shutdown();
 	}
 
 }
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+package org.eclipse.gemini.management.framework;
+
+import java.io.IOException;
+import javax.management.openmbean.ArrayType;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.TabularData;
+import org.osgi.jmx.Item;
+import org.osgi.jmx.framework.BundleStateMBean;
+
+/**
+ *
+ */
+public interface CustomBundleStateMBean extends BundleStateMBean {
+
+	/**
+	 * The type of the notifications carrying a batch of bundle events, sent
+	 * instead of the {@link #EVENT} notifications when batching is enabled by
+	 * the framework property
+	 * <code>org.eclipse.gemini.management.notifications.batch.size</code> or
+	 * <code>org.eclipse.gemini.management.notifications.batch.window</code>.
+	 * The user data of the notification is a CompositeData[] of the
+	 * {@link #BUNDLE_EVENT_TYPE} events, in the order they occurred, and its
+	 * sequence number is the one of the first event.
+	 */
+	String			EVENT_BATCH					= EVENT + ".batch";
+
+	/**
+	 * The key IDENTIFIERS, used in {@link #IDENTIFIERS_ITEM}.
+	 */
+	String			IDENTIFIERS					= "Identifiers";
+
+	/**
+	 * The item containing the bundle identifiers in {@link #BUNDLE_COLUMNS_TYPE}.
+	 * The key is {@link #IDENTIFIERS} and the type is a <code>long[]</code>.
+	 */
+	Item			IDENTIFIERS_ITEM			= new Item(IDENTIFIERS, "The bundle identifiers", ArrayType.getPrimitiveArrayType(long[].class));
+
+	/**
+	 * The key STATES, used in {@link #STATES_ITEM}.
+	 */
+	String			STATES						= "States";
+
+	/**
+	 * The item containing the bundle states in {@link #BUNDLE_COLUMNS_TYPE}.
+	 * Each state is one of the state constants of the Bundle interface, for
+	 * example <code>Bundle.ACTIVE</code>. The key is {@link #STATES} and the
+	 * type is a <code>byte[]</code>.
+	 */
+	Item			STATES_ITEM					= new Item(STATES, "The bundle states, as the Bundle state constants", ArrayType.getPrimitiveArrayType(byte[].class));
+
+	/**
+	 * The key START_LEVELS, used in {@link #START_LEVELS_ITEM}.
+	 */
+	String			START_LEVELS				= "StartLevels";
+
+	/**
+	 * The item containing the bundle start levels in
+	 * {@link #BUNDLE_COLUMNS_TYPE}. The key is {@link #START_LEVELS} and the
+	 * type is a <code>int[]</code>.
+	 */
+	Item			START_LEVELS_ITEM			= new Item(START_LEVELS, "The bundle start levels", ArrayType.getPrimitiveArrayType(int[].class));
+
+	/**
+	 * The key LAST_MODIFIED_TIMES, used in {@link #LAST_MODIFIED_TIMES_ITEM}.
+	 */
+	String			LAST_MODIFIED_TIMES			= "LastModifiedTimes";
+
+	/**
+	 * The item containing the last modification times of the bundles in
+	 * {@link #BUNDLE_COLUMNS_TYPE}. The key is {@link #LAST_MODIFIED_TIMES} and
+	 * the type is a <code>long[]</code>.
+	 */
+	Item			LAST_MODIFIED_TIMES_ITEM	= new Item(LAST_MODIFIED_TIMES, "The last modification times of the bundles", ArrayType.getPrimitiveArrayType(long[].class));
+
+	/**
+	 * The Composite Type returned by {@link #listBundleColumns()}. It holds one
+	 * array per item, the entries at the same index of every array describing
+	 * the same bundle. It consists of {@link #IDENTIFIERS_ITEM},
+	 * {@link #STATES_ITEM}, {@link #START_LEVELS_ITEM} and
+	 * {@link #LAST_MODIFIED_TIMES_ITEM}.
+	 */
+	CompositeType	BUNDLE_COLUMNS_TYPE			= Item.compositeType("BUNDLE_COLUMNS",
+														"This type encapsulates the identity and life cycle of every OSGi bundle, as parallel arrays",
+														IDENTIFIERS_ITEM,
+														STATES_ITEM,
+														START_LEVELS_ITEM,
+														LAST_MODIFIED_TIMES_ITEM);
+
+	/**
+	 * Answer one page of the bundles in the framework, ordered by bundle
+	 * identifier. The page holds the bundles with the lowest identifiers
+	 * greater than <code>afterBundleId</code>. To list every bundle start with
+	 * an <code>afterBundleId</code> of -1 and pass the highest identifier of
+	 * each page to the next call, until a page holds less than
+	 * <code>limit</code> bundles.
+	 *
+	 * @see #BUNDLES_TYPE for the details of the TabularData
+	 *
+	 * @param afterBundleId - the bundle identifier to list the bundles after
+	 * @param limit - the maximum number of bundles in the page
+	 * @param items - the items of the bundle type to include, the identifier is always included
+	 * @return the page of bundles
+	 * @throws IOException
+	 *             if the operation fails
+	 * @throws IllegalArgumentException
+	 *             if the limit is not positive
+	 */
+	TabularData listBundles(long afterBundleId, int limit, String... items) throws IOException;
+
+	/**
+	 * Answer the bundles with the supplied identifiers in a single call.
+	 * Identifiers which are supplied more than once are listed once.
+	 * 
+	 * @see #BUNDLES_TYPE for the details of the TabularData
+	 * 
+	 * @param bundleIds - the identifiers of the bundles
+	 * @param items - the items of the bundle type to include, the identifier is always included
+	 * @return the bundles
+	 * @throws IOException
+	 *             if the operation fails or one of the bundles does not exist
+	 */
+	TabularData getBundles(long[] bundleIds, String... items) throws IOException;
+
+	/**
+	 * Answer the current generation of the bundles in the framework. The
+	 * generation increases with every bundle event.
+	 * 
+	 * @return the current generation
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	long getGeneration() throws IOException;
+
+	/**
+	 * Answer the bundles which changed after the supplied generation. A poller
+	 * reads the generation first and then asks for the bundles changed since
+	 * the generation it read before, so that no change is missed. Bundles
+	 * which have been uninstalled are not listed, compare the result of
+	 * {@link #getBundleIds()} to detect them. If the changes since the
+	 * generation are not known every bundle is listed.
+	 * 
+	 * @see #BUNDLES_TYPE for the details of the TabularData
+	 * 
+	 * @param generation - a generation returned by {@link #getGeneration()}
+	 * @param items - the items of the bundle type to include, the identifier is always included
+	 * @return the bundles which changed
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	TabularData listBundlesChangedSince(long generation, String... items) throws IOException;
+
+	/**
+	 * Answer the identifier, state, start level and last modification time of
+	 * every bundle in the framework, ordered by bundle identifier, as parallel
+	 * arrays of primitives. This is much smaller, and cheaper to build, than
+	 * the equivalent projection of {@link #listBundles(String...)}.
+	 * 
+	 * @see #BUNDLE_COLUMNS_TYPE for the details of the CompositeData
+	 * 
+	 * @return the columns of the bundles
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	CompositeData listBundleColumns() throws IOException;
+
+	/**
+	 * Answer the number of notifications dropped because the notification
+	 * queue was full. Notifications are only queued, and so only dropped, when
+	 * the framework property
+	 * <code>org.eclipse.gemini.management.notifications.queue</code> is set.
+	 * 
+	 * @return the number of dropped notifications
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	long getDroppedNotifications() throws IOException;
+
+	/**
+	 * Answer the bundle events which followed the supplied sequence number, in
+	 * order, so that a client which reconnects can catch up with the events it
+	 * missed instead of reloading every bundle. The events are
+	 * retained only when the framework property
+	 * <code>org.eclipse.gemini.management.notifications.replay.size</code> is
+	 * set to the number of events to retain. Every event is then given a
+	 * sequence number, so the sequence number of the last replayed event is
+	 * <code>sequence</code> plus the number of replayed events. The events are
+	 * then encoded and retained on the thread delivering them, before their
+	 * notifications are queued, so the events whose notifications were
+	 * dropped from a full queue are replayed too.
+	 * 
+	 * @param sequence - the sequence number of the last event the client has seen, -1 if it has seen none
+	 * @return the events, as {@link #BUNDLE_EVENT_TYPE}
+	 * @throws IOException
+	 *             if the operation fails
+	 * @throws IllegalArgumentException
+	 *             if some of the events which followed are no longer retained, or could not be encoded,
+	 *             or if the sequence number was not handed out yet, as after a restart
+	 * @throws IllegalStateException
+	 *             if the events are not retained
+	 */
+	CompositeData[] replayEventsSince(long sequence) throws IOException;
+
+}
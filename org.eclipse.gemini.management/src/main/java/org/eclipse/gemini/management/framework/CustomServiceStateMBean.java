@@ -16,6 +16,11 @@ package org.eclipse.gemini.management.framework;
 
 import java.io.IOException;
 import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.SimpleType;
+import javax.management.openmbean.TabularData;
+import javax.management.openmbean.TabularType;
+import org.osgi.jmx.Item;
 import org.osgi.jmx.framework.ServiceStateMBean;
 
 /**
@@ -23,6 +28,112 @@ import org.osgi.jmx.framework.ServiceStateMBean;
  */
 public interface CustomServiceStateMBean extends ServiceStateMBean {
 	
+	/**
+	 * The type of the notifications carrying a batch of service events, sent
+	 * instead of the {@link #EVENT} notifications when batching is enabled by
+	 * the framework property
+	 * <code>org.eclipse.gemini.management.notifications.batch.size</code> or
+	 * <code>org.eclipse.gemini.management.notifications.batch.window</code>.
+	 * The user data of the notification is a CompositeData[] of the
+	 * {@link #SERVICE_EVENT_TYPE} events, in the order they occurred, and its
+	 * sequence number is the one of the first event.
+	 */
+	String EVENT_BATCH = EVENT + ".batch";
+	
+	/**
+	 * The key INTERFACE_NAME, used in {@link #INTERFACE_NAME_ITEM}.
+	 */
+	String INTERFACE_NAME = "InterfaceName";
+	
+	/**
+	 * The item containing the name of an interface services are registered
+	 * under in {@link #INTERFACE_CHURN_TYPE}. The key is
+	 * {@link #INTERFACE_NAME} and the type is {@link SimpleType#STRING}.
+	 */
+	Item INTERFACE_NAME_ITEM = new Item(INTERFACE_NAME, "The name of the interface", SimpleType.STRING);
+	
+	/**
+	 * The key REGISTERED, used in {@link #REGISTERED_ITEM}.
+	 */
+	String REGISTERED = "Registered";
+	
+	/**
+	 * The item containing the number of REGISTERED events in
+	 * {@link #INTERFACE_CHURN_TYPE} and {@link #BUNDLE_CHURN_TYPE}. The key is
+	 * {@link #REGISTERED} and the type is {@link SimpleType#LONG}.
+	 */
+	Item REGISTERED_ITEM = new Item(REGISTERED, "The number of REGISTERED events", SimpleType.LONG);
+	
+	/**
+	 * The key MODIFIED, used in {@link #MODIFIED_ITEM}.
+	 */
+	String MODIFIED = "Modified";
+	
+	/**
+	 * The item containing the number of MODIFIED events in
+	 * {@link #INTERFACE_CHURN_TYPE} and {@link #BUNDLE_CHURN_TYPE}. The key is
+	 * {@link #MODIFIED} and the type is {@link SimpleType#LONG}.
+	 */
+	Item MODIFIED_ITEM = new Item(MODIFIED, "The number of MODIFIED events", SimpleType.LONG);
+	
+	/**
+	 * The key UNREGISTERING, used in {@link #UNREGISTERING_ITEM}.
+	 */
+	String UNREGISTERING = "Unregistering";
+	
+	/**
+	 * The item containing the number of UNREGISTERING events in
+	 * {@link #INTERFACE_CHURN_TYPE} and {@link #BUNDLE_CHURN_TYPE}. The key is
+	 * {@link #UNREGISTERING} and the type is {@link SimpleType#LONG}.
+	 */
+	Item UNREGISTERING_ITEM = new Item(UNREGISTERING, "The number of UNREGISTERING events", SimpleType.LONG);
+	
+	/**
+	 * The Composite Type of the service events of one interface, returned by
+	 * {@link #listInterfaceChurn(int)}. It consists of
+	 * {@link #INTERFACE_NAME_ITEM}, {@link #REGISTERED_ITEM},
+	 * {@link #MODIFIED_ITEM} and {@link #UNREGISTERING_ITEM}.
+	 */
+	CompositeType INTERFACE_CHURN_TYPE = Item.compositeType("INTERFACE_CHURN",
+			"This type encapsulates the number of service events of an interface",
+			INTERFACE_NAME_ITEM,
+			REGISTERED_ITEM,
+			MODIFIED_ITEM,
+			UNREGISTERING_ITEM);
+	
+	/**
+	 * The Composite Type of the service events of the services of one bundle,
+	 * returned by {@link #listBundleChurn(int)}. It consists of
+	 * {@link #BUNDLE_IDENTIFIER_ITEM}, {@link #REGISTERED_ITEM},
+	 * {@link #MODIFIED_ITEM} and {@link #UNREGISTERING_ITEM}.
+	 */
+	CompositeType BUNDLE_CHURN_TYPE = Item.compositeType("BUNDLE_CHURN",
+			"This type encapsulates the number of service events of the services of a bundle",
+			BUNDLE_IDENTIFIER_ITEM,
+			REGISTERED_ITEM,
+			MODIFIED_ITEM,
+			UNREGISTERING_ITEM);
+	
+	/**
+	 * The Composite Type of the selected properties of a service, returned by
+	 * {@link #listServiceProperties(String, String, String...)}. It consists of
+	 * {@link #IDENTIFIER_ITEM} and {@link #PROPERTIES_ITEM}, the properties
+	 * holding only the selected keys the service has.
+	 */
+	CompositeType SERVICE_PROPERTIES_TYPE = Item.compositeType("SERVICE_PROPERTIES",
+			"This type encapsulates the selected properties of a service",
+			IDENTIFIER_ITEM,
+			PROPERTIES_ITEM);
+	
+	/**
+	 * The Tabular Type of the selected properties of services, indexed by
+	 * {@link #IDENTIFIER}. The row type is {@link #SERVICE_PROPERTIES_TYPE}.
+	 */
+	TabularType SERVICES_PROPERTIES_TYPE = Item.tabularType("SERVICES_PROPERTIES",
+			"The table of the selected properties of services",
+			SERVICE_PROPERTIES_TYPE,
+			IDENTIFIER);
+	
 	/**
 	 * Answer the list of services representing the services this bundle exports
 	 * 
@@ -47,4 +158,155 @@ public interface CustomServiceStateMBean extends ServiceStateMBean {
 	 */
 	CompositeData[] getServicesInUse(long bundleIdentifier) throws IOException;
 	
+	/**
+	 * Answer one page of the services in the framework, ordered by service
+	 * identifier. The page holds the services with the lowest identifiers
+	 * greater than <code>afterServiceId</code>. To list every service start
+	 * with an <code>afterServiceId</code> of -1 and pass the highest identifier
+	 * of each page to the next call, until a page holds less than
+	 * <code>limit</code> services.
+	 * 
+	 * @see #SERVICES_TYPE for the details of the TabularData
+	 * 
+	 * @param afterServiceId - the service identifier to list the services after
+	 * @param limit - the maximum number of services in the page
+	 * @param serviceTypeItems - the items of the service type to include, the identifier is always included
+	 * @return the page of services
+	 * @throws IOException
+	 *             if the operation fails
+	 * @throws IllegalArgumentException
+	 *             if the limit is not positive
+	 */
+	TabularData listServices(long afterServiceId, int limit, String... serviceTypeItems) throws IOException;
+	
+	/**
+	 * Answer the selected properties of the services matching the class name
+	 * and filter. Only the selected properties are read and encoded, so the
+	 * size of the answer follows the number of keys rather than the size of
+	 * the property dictionaries. A service lacking some of the keys is listed
+	 * with the properties it has, and a key selected more than once is listed
+	 * once.
+	 * 
+	 * @see #SERVICES_PROPERTIES_TYPE for the details of the TabularData
+	 * 
+	 * @param clazz - the class name of the services, <code>null</code> for any
+	 * @param filter - the filter the services have to match, <code>null</code> for any
+	 * @param propertyKeys - the keys of the properties to select, <code>null</code> for none
+	 * @return the selected properties of the services
+	 * @throws IOException
+	 *             if the operation fails or the filter is invalid
+	 */
+	TabularData listServiceProperties(String clazz, String filter, String... propertyKeys) throws IOException;
+	
+	/**
+	 * Answer the number of notifications dropped because the notification
+	 * queue was full. Notifications are only queued, and so only dropped, when
+	 * the framework property
+	 * <code>org.eclipse.gemini.management.notifications.queue</code> is set.
+	 * 
+	 * @return the number of dropped notifications
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	long getDroppedNotifications() throws IOException;
+	
+	/**
+	 * Answer the service events which followed the supplied sequence number, in
+	 * order, so that a client which reconnects can catch up with the events it
+	 * missed instead of reloading every service. The events are
+	 * retained only when the framework property
+	 * <code>org.eclipse.gemini.management.notifications.replay.size</code> is
+	 * set to the number of events to retain. Every event is then given a
+	 * sequence number, so the sequence number of the last replayed event is
+	 * <code>sequence</code> plus the number of replayed events. The events are
+	 * then encoded and retained on the thread delivering them, before their
+	 * notifications are queued, so the events whose notifications were
+	 * dropped from a full queue are replayed too.
+	 * 
+	 * @param sequence - the sequence number of the last event the client has seen, -1 if it has seen none
+	 * @return the events, as {@link #SERVICE_EVENT_TYPE}
+	 * @throws IOException
+	 *             if the operation fails
+	 * @throws IllegalArgumentException
+	 *             if some of the events which followed are no longer retained, or could not be encoded,
+	 *             or if the sequence number was not handed out yet, as after a restart
+	 * @throws IllegalStateException
+	 *             if the events are not retained
+	 */
+	CompositeData[] replayEventsSince(long sequence) throws IOException;
+	
+	/**
+	 * Answer the interfaces with the most REGISTERED, MODIFIED and
+	 * UNREGISTERING service events since the management bundle started or the
+	 * counts were reset, most first. A service registered under several
+	 * interfaces counts for each of them.
+	 * 
+	 * @see #INTERFACE_CHURN_TYPE for the details of the CompositeData
+	 * 
+	 * @param limit - the maximum number of interfaces
+	 * @return the counts of the interfaces
+	 * @throws IOException
+	 *             if the operation fails
+	 * @throws IllegalArgumentException
+	 *             if the limit is not positive
+	 */
+	CompositeData[] listInterfaceChurn(int limit) throws IOException;
+	
+	/**
+	 * Answer the bundles whose services had the most REGISTERED, MODIFIED and
+	 * UNREGISTERING service events since the management bundle started or the
+	 * counts were reset, most first.
+	 * 
+	 * @see #BUNDLE_CHURN_TYPE for the details of the CompositeData
+	 * 
+	 * @param limit - the maximum number of bundles
+	 * @return the counts of the bundles
+	 * @throws IOException
+	 *             if the operation fails
+	 * @throws IllegalArgumentException
+	 *             if the limit is not positive
+	 */
+	CompositeData[] listBundleChurn(int limit) throws IOException;
+	
+	/**
+	 * Answer the number of REGISTERED, MODIFIED and UNREGISTERING service
+	 * events per second, over the last ten seconds
+	 * 
+	 * @return the rate of the service events
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	double getServiceChurnRate() throws IOException;
+	
+	/**
+	 * Reset the counts of the service events to zero
+	 * 
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	void resetServiceChurn() throws IOException;
+	
+	/**
+	 * Answer the number of filter strings of the service and configuration
+	 * queries found already compiled in the filter cache. The cache holds the
+	 * number of filters set by the framework property
+	 * <code>org.eclipse.gemini.management.filters.cacheSize</code>, 128 by
+	 * default.
+	 * 
+	 * @return the number of cache hits
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	long getFilterCacheHits() throws IOException;
+	
+	/**
+	 * Answer the number of filter strings of the service and configuration
+	 * queries compiled because they were not in the filter cache
+	 * 
+	 * @return the number of cache misses
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	long getFilterCacheMisses() throws IOException;
+	
 }
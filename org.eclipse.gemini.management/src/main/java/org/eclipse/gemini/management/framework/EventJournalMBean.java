@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+package org.eclipse.gemini.management.framework;
+
+import java.io.IOException;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.SimpleType;
+import org.osgi.jmx.Item;
+import org.osgi.jmx.framework.BundleStateMBean;
+import org.osgi.jmx.framework.ServiceStateMBean;
+
+/**
+ * The journal of the bundle and service events, read back from the journal
+ * file. This MBean is only registered when the framework property
+ * <code>org.eclipse.gemini.management.journal.file</code> is set.
+ */
+public interface EventJournalMBean {
+
+	/**
+	 * The Object Name for an Event Journal MBean.
+	 */
+	String			OBJECTNAME				= "org.eclipse.gemini.management:type=eventJournal,version=1.0";
+
+	/**
+	 * The key SEQUENCE, used in {@link #SEQUENCE_ITEM}.
+	 */
+	String			SEQUENCE				= "Sequence";
+
+	/**
+	 * The item containing the sequence number of a record in
+	 * {@link #JOURNAL_RECORD_TYPE}. The key is {@link #SEQUENCE} and the type
+	 * is {@link SimpleType#LONG}.
+	 */
+	Item			SEQUENCE_ITEM			= new Item(SEQUENCE, "The sequence number of the record", SimpleType.LONG);
+
+	/**
+	 * The key TIME, used in {@link #TIME_ITEM}.
+	 */
+	String			TIME					= "Time";
+
+	/**
+	 * The item containing the time of the event in
+	 * {@link #JOURNAL_RECORD_TYPE}, in milliseconds since the epoch. The key is
+	 * {@link #TIME} and the type is {@link SimpleType#LONG}.
+	 */
+	Item			TIME_ITEM				= new Item(TIME, "The time of the event", SimpleType.LONG);
+
+	/**
+	 * The key TYPE, used in {@link #TYPE_ITEM}.
+	 */
+	String			TYPE					= "Type";
+
+	/**
+	 * The item containing the kind of the event in
+	 * {@link #JOURNAL_RECORD_TYPE}, either {@link BundleStateMBean#EVENT} or
+	 * {@link ServiceStateMBean#EVENT}. The key is {@link #TYPE} and the type is
+	 * {@link SimpleType#STRING}.
+	 */
+	Item			TYPE_ITEM				= new Item(TYPE, "The kind of the event", SimpleType.STRING);
+
+	/**
+	 * The key EVENT, used in {@link #EVENT_ITEM}.
+	 */
+	String			EVENT					= "EventType";
+
+	/**
+	 * The item containing the type of the event in
+	 * {@link #JOURNAL_RECORD_TYPE}, one of the BundleEvent or ServiceEvent type
+	 * constants. The key is {@link #EVENT} and the type is
+	 * {@link SimpleType#INTEGER}.
+	 */
+	Item			EVENT_ITEM				= new Item(EVENT, "The type of the event", SimpleType.INTEGER);
+
+	/**
+	 * The key BUNDLE_IDENTIFIER, used in {@link #BUNDLE_IDENTIFIER_ITEM}.
+	 */
+	String			BUNDLE_IDENTIFIER		= "BundleIdentifier";
+
+	/**
+	 * The item containing the identifier of the bundle in
+	 * {@link #JOURNAL_RECORD_TYPE}, for a service event the bundle which
+	 * registered the service. The key is {@link #BUNDLE_IDENTIFIER} and the
+	 * type is {@link SimpleType#LONG}.
+	 */
+	Item			BUNDLE_IDENTIFIER_ITEM	= new Item(BUNDLE_IDENTIFIER, "The identifier of the bundle", SimpleType.LONG);
+
+	/**
+	 * The key SERVICE_IDENTIFIER, used in {@link #SERVICE_IDENTIFIER_ITEM}.
+	 */
+	String			SERVICE_IDENTIFIER		= "ServiceIdentifier";
+
+	/**
+	 * The item containing the identifier of the service in
+	 * {@link #JOURNAL_RECORD_TYPE}, -1 for a bundle event. The key is
+	 * {@link #SERVICE_IDENTIFIER} and the type is {@link SimpleType#LONG}.
+	 */
+	Item			SERVICE_IDENTIFIER_ITEM	= new Item(SERVICE_IDENTIFIER, "The identifier of the service", SimpleType.LONG);
+
+	/**
+	 * The Composite Type of a record of the journal. It consists of
+	 * {@link #SEQUENCE_ITEM}, {@link #TIME_ITEM}, {@link #TYPE_ITEM},
+	 * {@link #EVENT_ITEM}, {@link #BUNDLE_IDENTIFIER_ITEM} and
+	 * {@link #SERVICE_IDENTIFIER_ITEM}.
+	 */
+	CompositeType	JOURNAL_RECORD_TYPE		= Item.compositeType("JOURNAL_RECORD",
+													"This type encapsulates a journaled bundle or service event",
+													SEQUENCE_ITEM,
+													TIME_ITEM,
+													TYPE_ITEM,
+													EVENT_ITEM,
+													BUNDLE_IDENTIFIER_ITEM,
+													SERVICE_IDENTIFIER_ITEM);
+
+	/**
+	 * Answer the number of records the journal file holds before the oldest
+	 * ones are overwritten
+	 * 
+	 * @return the capacity of the journal
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	int getCapacity() throws IOException;
+
+	/**
+	 * Answer the sequence number of the last record, -1 if the journal is empty
+	 * 
+	 * @return the last sequence number
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	long getLastSequence() throws IOException;
+
+	/**
+	 * Answer the records whose sequence number is in the supplied range, in
+	 * order. The records which have been overwritten are not returned.
+	 * 
+	 * @see #JOURNAL_RECORD_TYPE for the details of the CompositeData
+	 * 
+	 * @param fromSequence - the first sequence number, inclusive
+	 * @param toSequence - the last sequence number, inclusive
+	 * @return the records
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	CompositeData[] readSequenceRange(long fromSequence, long toSequence) throws IOException;
+
+	/**
+	 * Answer the records of the events which occurred in the supplied time
+	 * range, in order. The records which have been overwritten are not
+	 * returned.
+	 * 
+	 * @see #JOURNAL_RECORD_TYPE for the details of the CompositeData
+	 * 
+	 * @param fromTime - the start of the range, inclusive, in milliseconds since the epoch
+	 * @param toTime - the end of the range, inclusive, in milliseconds since the epoch
+	 * @return the records
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	CompositeData[] readTimeRange(long fromTime, long toTime) throws IOException;
+
+}
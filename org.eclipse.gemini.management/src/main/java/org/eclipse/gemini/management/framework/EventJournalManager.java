@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.OpenDataException;
+
+import org.eclipse.gemini.management.internal.EventJournal;
+import org.osgi.jmx.framework.BundleStateMBean;
+import org.osgi.jmx.framework.ServiceStateMBean;
+
+/**
+ * The implementation of {@link EventJournalMBean}, reading back the journal
+ * which {@link BundleState} and {@link ServiceState} append to.
+ */
+public final class EventJournalManager implements EventJournalMBean {
+
+	private final EventJournal journal;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param journal - the journal to read
+	 */
+	public EventJournalManager(EventJournal journal) {
+		this.journal = journal;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int getCapacity() throws IOException {
+		return journal.getCapacity();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getLastSequence() throws IOException {
+		return journal.getLastSequence();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public CompositeData[] readSequenceRange(long fromSequence, long toSequence) throws IOException {
+		return asCompositeData(journal.readSequences(fromSequence, toSequence));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public CompositeData[] readTimeRange(long fromTime, long toTime) throws IOException {
+		return asCompositeData(journal.readTimes(fromTime, toTime));
+	}
+
+	private CompositeData[] asCompositeData(List<EventJournal.Record> records) {
+		CompositeData[] encoded = new CompositeData[records.size()];
+		int i = 0;
+		for (EventJournal.Record record : records) {
+			Map<String, Object> items = new HashMap<String, Object>();
+			items.put(SEQUENCE, record.getSequence());
+			items.put(TIME, record.getTime());
+			items.put(TYPE, record.getKind() == EventJournal.SERVICE_EVENT ? ServiceStateMBean.EVENT : BundleStateMBean.EVENT);
+			items.put(EVENT, record.getType());
+			items.put(BUNDLE_IDENTIFIER, record.getBundleId());
+			items.put(SERVICE_IDENTIFIER, record.getServiceId());
+			try {
+				encoded[i++] = new CompositeDataSupport(JOURNAL_RECORD_TYPE, items);
+			} catch (OpenDataException e) {
+				throw new IllegalStateException("Cannot form journal record open data", e);
+			}
+		}
+		return encoded;
+	}
+
+}
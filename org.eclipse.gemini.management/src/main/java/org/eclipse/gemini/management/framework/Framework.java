@@ -31,6 +31,7 @@ import javax.management.openmbean.CompositeData;
 import org.eclipse.gemini.management.framework.internal.BundleBatchActionResult;
 import org.eclipse.gemini.management.framework.internal.BundleBatchInstallResult;
 import org.eclipse.gemini.management.framework.internal.BundleBatchResolveResult;
+import org.eclipse.gemini.management.framework.internal.DependencyIndex;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.BundleException;
@@ -49,9 +50,15 @@ public final class Framework implements FrameworkMBean {
 	private BundleContext bundleContext;
 	private FrameworkStartLevel frameworkStartLevel;
 	private FrameworkWiring frameworkWiring;
+	private DependencyIndex dependencies;
 	
 	public Framework(BundleContext bc) {
+		this(bc, new DependencyIndex());
+	}
+	
+	public Framework(BundleContext bc, DependencyIndex dependencies) {
 		this.bundleContext = bc;
+		this.dependencies = dependencies;
 		this.frameworkStartLevel = bc.getBundle(0).adapt(FrameworkStartLevel.class);
 		this.frameworkWiring = bc.getBundle(0).adapt(FrameworkWiring.class);
 	}
@@ -477,7 +484,12 @@ public final class Framework implements FrameworkMBean {
 	 * {@inheritDoc}
 	 */
 	public long[] getDependencyClosure(long[] bundleIdentifiers) throws IOException {
-		Collection<Bundle> bundles = this.frameworkWiring.getDependencyClosure(this.getBundles(bundleIdentifiers));
+		Collection<Bundle> bundles = this.getBundles(bundleIdentifiers);
+		long[] closure = this.dependencies.dependencyClosure(bundleIdentifiers);
+		if (closure != null) {
+			return closure;
+		}
+		bundles = this.frameworkWiring.getDependencyClosure(bundles);
 		long[] result = new long[bundles.size()];
 		int i = 0;
 		for (Bundle bundle : bundles) {
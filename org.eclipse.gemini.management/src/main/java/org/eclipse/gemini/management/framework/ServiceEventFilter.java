@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework;
+
+import java.util.EventObject;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeType;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceReference;
+import org.osgi.jmx.framework.ServiceStateMBean;
+
+/**
+ * A filter of the service event notifications of {@link ServiceState}, to be
+ * passed when adding a notification listener. The filter is evaluated against
+ * the service event before it is encoded, so the events no listener wants are
+ * never encoded nor sent. The bundle criteria apply to the bundle which
+ * registered the service.
+ * <p>
+ * A filter passed by a remote client is only evaluated by the connector: the
+ * connector listens to {@link ServiceState} without a filter, so every event is
+ * still encoded for it, and the filter only saves sending the rejected events
+ * to the client.
+ * <p>
+ * For example, the following only receives the UNREGISTERING events of the
+ * <code>org.osgi.service.log.LogService</code> services:
+ * 
+ * <pre>
+ * connection.addNotificationListener(serviceState, listener,
+ * 		new ServiceEventFilter(&quot;org.osgi.service.log.LogService&quot;, null, null, ServiceEvent.UNREGISTERING), null);
+ * </pre>
+ */
+public final class ServiceEventFilter extends AbstractEventFilter {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String objectClass;
+
+	/**
+	 * Construct a filter of service events
+	 * 
+	 * @param objectClass - the interface the services whose events are wanted are registered under, or null for every service
+	 * @param bundleIds - the identifiers of the bundles whose services' events are wanted, or null for every bundle
+	 * @param symbolicNamePattern - the symbolic name of the bundles whose services' events are wanted, in which '*' stands for any sequence of characters, or null for every bundle
+	 * @param eventTypes - the mask of the types of the wanted events, for example <code>ServiceEvent.REGISTERED | ServiceEvent.UNREGISTERING</code>, or -1 for every type
+	 */
+	public ServiceEventFilter(String objectClass, long[] bundleIds, String symbolicNamePattern, int eventTypes) {
+		super(bundleIds, symbolicNamePattern, eventTypes);
+		this.objectClass = objectClass;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean isEventEnabled(EventObject event) {
+		if (!(event instanceof ServiceEvent)) {
+			return false;
+		}
+		ServiceEvent serviceEvent = (ServiceEvent) event;
+		ServiceReference<?> reference = serviceEvent.getServiceReference();
+		if (!hasObjectClass((String[]) reference.getProperty(Constants.OBJECTCLASS))) {
+			return false;
+		}
+		Bundle bundle = reference.getBundle();
+		return bundle != null && matches(bundle.getBundleId(), bundle.getSymbolicName(), serviceEvent.getType());
+	}
+
+	@Override
+	CompositeType eventType() {
+		return ServiceStateMBean.SERVICE_EVENT_TYPE;
+	}
+
+	@Override
+	boolean matches(CompositeData event) {
+		return hasObjectClass((String[]) event.get(ServiceStateMBean.OBJECT_CLASS))
+				&& matches((Long) event.get(ServiceStateMBean.BUNDLE_IDENTIFIER), (String) event.get(ServiceStateMBean.BUNDLE_SYMBOLIC_NAME), (Integer) event.get(ServiceStateMBean.EVENT));
+	}
+
+	private boolean hasObjectClass(String[] objectClasses) {
+		if (objectClass == null) {
+			return true;
+		}
+		if (objectClasses != null) {
+			for (String candidate : objectClasses) {
+				if (objectClass.equals(candidate)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+}
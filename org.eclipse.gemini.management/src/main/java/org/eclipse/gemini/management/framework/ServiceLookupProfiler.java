@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+
+import org.eclipse.gemini.management.framework.internal.ServiceLookupCounter;
+
+/**
+ * The implementation of {@link ServiceLookupProfilerMBean}, reading the counts
+ * of a {@link ServiceLookupCounter}.
+ */
+public final class ServiceLookupProfiler implements ServiceLookupProfilerMBean {
+
+	private final ServiceLookupCounter counter;
+
+	/**
+	 * Constructor
+	 *
+	 * @param counter - the counter of the service lookups
+	 */
+	public ServiceLookupProfiler(ServiceLookupCounter counter) {
+		this.counter = counter;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public CompositeData[] listHottestBundles(int limit) throws IOException {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("Limit must be positive: " + limit);
+		}
+		return asCompositeData(counter.topBundles(limit), BUNDLE_LOOKUPS_TYPE, BUNDLE_IDENTIFIER);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public CompositeData[] listHottestClassNames(int limit) throws IOException {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("Limit must be positive: " + limit);
+		}
+		return asCompositeData(counter.topClassNames(limit), CLASS_NAME_LOOKUPS_TYPE, CLASS_NAME);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public CompositeData[] listHottestFilters(int limit) throws IOException {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("Limit must be positive: " + limit);
+		}
+		return asCompositeData(counter.topFilters(limit), FILTER_LOOKUPS_TYPE, FILTER);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getUntrackedLookups() throws IOException {
+		return counter.untracked();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public double getLookupRate() throws IOException {
+		return counter.rate();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void reset() throws IOException {
+		counter.reset();
+	}
+
+	private CompositeData[] asCompositeData(List<? extends ServiceLookupCounter.Lookups<?>> lookups, CompositeType type, String keyItem) {
+		CompositeData[] encoded = new CompositeData[lookups.size()];
+		int i = 0;
+		for (ServiceLookupCounter.Lookups<?> keyLookups : lookups) {
+			Map<String, Object> items = new HashMap<String, Object>();
+			items.put(keyItem, keyLookups.getKey());
+			items.put(LOOKUPS, keyLookups.getCount());
+			try {
+				encoded[i++] = new CompositeDataSupport(type, items);
+			} catch (OpenDataException e) {
+				throw new IllegalStateException("Cannot form service lookups open data", e);
+			}
+		}
+		return encoded;
+	}
+
+}
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework;
+
+import java.io.IOException;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.SimpleType;
+import org.osgi.jmx.Item;
+
+/**
+ * The service lookups made by the bundles through
+ * <code>getServiceReference</code> and <code>getServiceReferences</code>,
+ * counted per calling bundle, per class name and per filter since the
+ * management bundle started or the counts were reset. The MBean is only
+ * registered when the framework property
+ * <code>org.eclipse.gemini.management.lookups.profile</code> is set to true.
+ */
+public interface ServiceLookupProfilerMBean {
+
+	/**
+	 * The Object Name for a Service Lookup Profiler MBean.
+	 */
+	String			OBJECTNAME					= "org.eclipse.gemini.management:type=serviceLookupProfiler,version=1.0";
+
+	/**
+	 * The key BUNDLE_IDENTIFIER, used in {@link #BUNDLE_IDENTIFIER_ITEM}.
+	 */
+	String			BUNDLE_IDENTIFIER			= "BundleIdentifier";
+
+	/**
+	 * The item containing the identifier of the bundle looking up services in
+	 * {@link #BUNDLE_LOOKUPS_TYPE}. The key is {@link #BUNDLE_IDENTIFIER} and
+	 * the type is {@link SimpleType#LONG}.
+	 */
+	Item			BUNDLE_IDENTIFIER_ITEM		= new Item(BUNDLE_IDENTIFIER, "The identifier of the bundle", SimpleType.LONG);
+
+	/**
+	 * The key CLASS_NAME, used in {@link #CLASS_NAME_ITEM}.
+	 */
+	String			CLASS_NAME					= "ClassName";
+
+	/**
+	 * The item containing the class name looked up in
+	 * {@link #CLASS_NAME_LOOKUPS_TYPE}. The key is {@link #CLASS_NAME} and the
+	 * type is {@link SimpleType#STRING}.
+	 */
+	Item			CLASS_NAME_ITEM				= new Item(CLASS_NAME, "The class name looked up", SimpleType.STRING);
+
+	/**
+	 * The key FILTER, used in {@link #FILTER_ITEM}.
+	 */
+	String			FILTER						= "Filter";
+
+	/**
+	 * The item containing the filter looked up in {@link #FILTER_LOOKUPS_TYPE}.
+	 * The key is {@link #FILTER} and the type is {@link SimpleType#STRING}.
+	 */
+	Item			FILTER_ITEM					= new Item(FILTER, "The filter looked up", SimpleType.STRING);
+
+	/**
+	 * The key LOOKUPS, used in {@link #LOOKUPS_ITEM}.
+	 */
+	String			LOOKUPS						= "Lookups";
+
+	/**
+	 * The item containing the number of lookups in
+	 * {@link #BUNDLE_LOOKUPS_TYPE}, {@link #CLASS_NAME_LOOKUPS_TYPE} and
+	 * {@link #FILTER_LOOKUPS_TYPE}. The key is {@link #LOOKUPS} and the type is
+	 * {@link SimpleType#LONG}.
+	 */
+	Item			LOOKUPS_ITEM				= new Item(LOOKUPS, "The number of lookups", SimpleType.LONG);
+
+	/**
+	 * The Composite Type of the lookups of one bundle. It consists of
+	 * {@link #BUNDLE_IDENTIFIER_ITEM} and {@link #LOOKUPS_ITEM}.
+	 */
+	CompositeType	BUNDLE_LOOKUPS_TYPE			= Item.compositeType("BUNDLE_LOOKUPS",
+														"This type encapsulates the number of service lookups of a bundle",
+														BUNDLE_IDENTIFIER_ITEM,
+														LOOKUPS_ITEM);
+
+	/**
+	 * The Composite Type of the lookups of one class name. It consists of
+	 * {@link #CLASS_NAME_ITEM} and {@link #LOOKUPS_ITEM}.
+	 */
+	CompositeType	CLASS_NAME_LOOKUPS_TYPE		= Item.compositeType("CLASS_NAME_LOOKUPS",
+														"This type encapsulates the number of service lookups of a class name",
+														CLASS_NAME_ITEM,
+														LOOKUPS_ITEM);
+
+	/**
+	 * The Composite Type of the lookups of one filter. It consists of
+	 * {@link #FILTER_ITEM} and {@link #LOOKUPS_ITEM}.
+	 */
+	CompositeType	FILTER_LOOKUPS_TYPE			= Item.compositeType("FILTER_LOOKUPS",
+														"This type encapsulates the number of service lookups of a filter",
+														FILTER_ITEM,
+														LOOKUPS_ITEM);
+
+	/**
+	 * Answer the bundles which looked up services the most, most first
+	 *
+	 * @see #BUNDLE_LOOKUPS_TYPE for the details of the CompositeData
+	 *
+	 * @param limit - the maximum number of bundles
+	 * @return the counts of the bundles
+	 * @throws IOException
+	 *             if the operation fails
+	 * @throws IllegalArgumentException
+	 *             if the limit is not positive
+	 */
+	CompositeData[] listHottestBundles(int limit) throws IOException;
+
+	/**
+	 * Answer the class names looked up the most, most first. The lookups of
+	 * any class name are not counted here.
+	 *
+	 * @see #CLASS_NAME_LOOKUPS_TYPE for the details of the CompositeData
+	 *
+	 * @param limit - the maximum number of class names
+	 * @return the counts of the class names
+	 * @throws IOException
+	 *             if the operation fails
+	 * @throws IllegalArgumentException
+	 *             if the limit is not positive
+	 */
+	CompositeData[] listHottestClassNames(int limit) throws IOException;
+
+	/**
+	 * Answer the filters looked up the most, most first. The lookups without
+	 * a filter are not counted here.
+	 *
+	 * @see #FILTER_LOOKUPS_TYPE for the details of the CompositeData
+	 *
+	 * @param limit - the maximum number of filters
+	 * @return the counts of the filters
+	 * @throws IOException
+	 *             if the operation fails
+	 * @throws IllegalArgumentException
+	 *             if the limit is not positive
+	 */
+	CompositeData[] listHottestFilters(int limit) throws IOException;
+
+	/**
+	 * Answer the number of lookups whose class name or filter was not counted
+	 * because the maximum number of distinct class names or filters were
+	 * already counted
+	 *
+	 * @return the number of untracked lookups
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	long getUntrackedLookups() throws IOException;
+
+	/**
+	 * Answer the number of service lookups per second, over the last ten
+	 * seconds
+	 *
+	 * @return the rate of the lookups
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	double getLookupRate() throws IOException;
+
+	/**
+	 * Reset the counts of the lookups to zero
+	 *
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	void reset() throws IOException;
+
+}
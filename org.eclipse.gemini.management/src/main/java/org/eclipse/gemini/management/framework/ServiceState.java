@@ -20,43 +20,96 @@ import static org.osgi.framework.Constants.OBJECTCLASS;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 
-import javax.management.Notification;
 import javax.management.openmbean.CompositeData;
 import javax.management.openmbean.TabularData;
 
 import org.eclipse.gemini.management.Monitor;
 import org.eclipse.gemini.management.framework.internal.OSGiService;
+import org.eclipse.gemini.management.framework.internal.OSGiServiceChurn;
+import org.eclipse.gemini.management.framework.internal.ServiceChurn;
+import org.eclipse.gemini.management.framework.internal.ServiceIndex;
 import org.eclipse.gemini.management.framework.internal.OSGiServiceEvent;
+import org.eclipse.gemini.management.framework.internal.OSGiServiceProperties;
+import org.eclipse.gemini.management.internal.EventJournal;
+import org.eclipse.gemini.management.internal.FilterCache;
+import org.eclipse.gemini.management.internal.NotificationBatcher;
+import org.eclipse.gemini.management.internal.NotificationDispatcher;
+import org.eclipse.gemini.management.internal.NotificationReplayBuffer;
 import org.eclipse.gemini.management.internal.OSGiProperties;
+import org.eclipse.gemini.management.internal.TableBuilder;
 import org.osgi.framework.AllServiceListener;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.Constants;
-import org.osgi.framework.Filter;
 import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceEvent;
 import org.osgi.framework.ServiceListener;
 import org.osgi.framework.ServiceReference;
 import org.osgi.jmx.framework.ServiceStateMBean;
-import org.osgi.util.tracker.ServiceTracker;
 
 /** 
  * 
  */
 public final class ServiceState extends Monitor implements CustomServiceStateMBean {
 
+	private static final Comparator<ServiceReference<?>> SERVICE_ID_ORDER = new Comparator<ServiceReference<?>>() {
+		public int compare(ServiceReference<?> r1, ServiceReference<?> r2) {
+			long id1 = (Long) r1.getProperty(Constants.SERVICE_ID);
+			long id2 = (Long) r2.getProperty(Constants.SERVICE_ID);
+			return id1 < id2 ? -1 : (id1 == id2 ? 0 : 1);
+		}
+	};
+
 	private ServiceListener serviceListener;
 	
 	private BundleContext bundleContext;
 	
+	private final TableBuilder tables;
+	
+	private final EventJournal journal;
+	
+	private final ServiceChurn churn = new ServiceChurn();
+	
+	private final ServiceIndex services = new ServiceIndex();
+	
+	private final FilterCache filters;
+	
 	/**
 	 * Constructor
 	 * 
 	 * @param bundleContext
 	 */
 	public ServiceState(BundleContext bundleContext) {
+		this(bundleContext, new EventJournal(null, 0));
+	}
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param bundleContext
+	 * @param journal - the journal the service events are appended to
+	 */
+	public ServiceState(BundleContext bundleContext, EventJournal journal) {
+		this(bundleContext, journal, FilterCache.fromProperties(bundleContext));
+	}
+	
+	/**
+	 * Constructor
+	 * 
+	 * @param bundleContext
+	 * @param journal - the journal the service events are appended to
+	 * @param filters - the cache of the filters of the service queries
+	 */
+	public ServiceState(BundleContext bundleContext, EventJournal journal, FilterCache filters) {
+		super(NotificationDispatcher.fromProperties(bundleContext), NotificationBatcher.fromProperties(bundleContext), NotificationReplayBuffer.fromProperties(bundleContext));
 		this.bundleContext = bundleContext;
+		this.tables = TableBuilder.fromProperties(bundleContext);
+		this.journal = journal;
+		this.filters = filters;
 	}
 
 	/**
@@ -83,17 +136,15 @@ public final class ServiceState extends Monitor implements CustomServiceStateMBe
 	/**
 	 * {@inheritDoc}
 	 */
-	public TabularData listServices() {
-		ArrayList<OSGiService> services = new ArrayList<OSGiService>();
+	public TabularData listServices() throws IOException {
+		List<ServiceReference<?>> references = new ArrayList<ServiceReference<?>>();
 		for (Bundle bundle : bundleContext.getBundles()) {
 			ServiceReference<?>[] refs = bundle.getRegisteredServices();
 			if (refs != null) {
-				for (ServiceReference<?> ref : refs) {
-					services.add(new OSGiService(ref));
-				}
+				references.addAll(Arrays.asList(refs));
 			}
 		}
-		return OSGiService.tableFrom(services);
+		return OSGiService.tableFrom(references, tables);
 	}
 
 	/**
@@ -108,67 +159,37 @@ public final class ServiceState extends Monitor implements CustomServiceStateMBe
 	 * {@inheritDoc}
 	 */
 	public CompositeData getService(long serviceId) throws IOException {
-		for (Bundle bundle : bundleContext.getBundles()) {
-			ServiceReference<?>[] refs = bundle.getRegisteredServices();
-			if (refs != null) {
-				for (ServiceReference<?> ref : refs) {
-					if(serviceId == (Long) ref.getProperty(Constants.SERVICE_ID)){
-						return new OSGiService(ref).asCompositeData();
-					}
-				}
-			}
-		}
-		return null;
+		ServiceReference<?> ref = services.lookup(bundleContext, serviceId);
+		return ref == null ? null : new OSGiService(ref).asCompositeData();
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public CompositeData getProperty(long serviceId, String key) throws IOException {
-		for (Bundle bundle : bundleContext.getBundles()) {
-			ServiceReference<?>[] refs = bundle.getRegisteredServices();
-			if (refs != null) {
-				for (ServiceReference<?> ref : refs) {
-					if(serviceId == (Long) ref.getProperty(Constants.SERVICE_ID)){
-						return OSGiProperties.encode(key, ref.getProperty(key));
-					}
-				}
-			}
-		}
-		return null;
+		ServiceReference<?> ref = services.lookup(bundleContext, serviceId);
+		return ref == null ? null : OSGiProperties.encode(key, ref.getProperty(key));
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public TabularData listServices(String clazz, String filter) throws IOException {
-		try {
-			ArrayList<OSGiService> services = new ArrayList<OSGiService>();
-			ServiceReference<?>[] allServiceReferences = bundleContext.getAllServiceReferences(clazz, filter);
-			for (ServiceReference<?> reference : allServiceReferences) {
-				services.add(new OSGiService(reference));
-			}
-			return OSGiService.tableFrom(services);
-		} catch (InvalidSyntaxException e) {
-			throw new IOException(e);
-		}
+		return OSGiService.tableFrom(findServices(clazz, filter), tables);
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	public TabularData listServices(String clazz, String filter, String... serviceTypeItems) throws IOException {
-		try {
-			ArrayList<OSGiService> services = new ArrayList<OSGiService>();
-			ServiceReference<?>[] allServiceReferences = bundleContext.getAllServiceReferences(clazz, filter);
-			for (ServiceReference<?> reference : allServiceReferences) {
-				services.add(new OSGiService(reference));
-			}
-			TabularData table = OSGiService.tableFrom(services, serviceTypeItems);
-			return table;
-		} catch (InvalidSyntaxException e) {
-			throw new IOException(e);
-		}
+		return OSGiService.tableFrom(findServices(clazz, filter), tables, serviceTypeItems);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public TabularData listServiceProperties(String clazz, String filter, String... propertyKeys) throws IOException {
+		return OSGiServiceProperties.tableFrom(findServices(clazz, filter), tables, propertyKeys);
 	}
 
 	/**
@@ -208,6 +229,55 @@ public final class ServiceState extends Monitor implements CustomServiceStateMBe
 		return this.getServicesAsCompositeDatas(servicesInUse);
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 */
+	public TabularData listServices(long afterServiceId, int limit, String... serviceTypeItems) throws IOException {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("Page limit must be positive: " + limit);
+		}
+		ServiceReference<?>[] allServiceReferences;
+		try {
+			allServiceReferences = bundleContext.getAllServiceReferences(null, null);
+		} catch (InvalidSyntaxException e) {
+			throw new IOException(e);
+		}
+		List<ServiceReference<?>> after = new ArrayList<ServiceReference<?>>();
+		if (allServiceReferences != null) {
+			for (ServiceReference<?> reference : allServiceReferences) {
+				if ((Long) reference.getProperty(Constants.SERVICE_ID) > afterServiceId) {
+					after.add(reference);
+				}
+			}
+		}
+		ServiceReference<?>[] page = after.toArray(new ServiceReference<?>[after.size()]);
+		Arrays.sort(page, SERVICE_ID_ORDER);
+		List<ServiceReference<?>> references = Arrays.asList(page).subList(0, Math.min(page.length, limit));
+		return OSGiService.tableFrom(references, tables, serviceTypeItems);
+	}
+	
+	/**
+	 * Answer the services matching the class name and filter, evaluating the
+	 * cached filter against the index while it is tracking the services
+	 */
+	private List<ServiceReference<?>> findServices(String clazz, String filter) throws IOException {
+		try {
+			if (!services.isTracking()) {
+				return asList(bundleContext.getAllServiceReferences(clazz, filter));
+			}
+			return services.find(bundleContext, clazz, filter == null ? null : filters.get(filter));
+		} catch (InvalidSyntaxException e) {
+			throw new IOException(e);
+		}
+	}
+	
+	private List<ServiceReference<?>> asList(ServiceReference<?>[] references) {
+		if (references == null) {
+			return new ArrayList<ServiceReference<?>>();
+		}
+		return Arrays.asList(references);
+	}
+	
 	private Bundle getBundle(long bundleId){
 		Bundle bundle = bundleContext.getBundle(bundleId);
 		if(bundle == null) {
@@ -230,22 +300,71 @@ public final class ServiceState extends Monitor implements CustomServiceStateMBe
 	}
 	
 	private ServiceReference<?> getServiceReference(long serviceId) throws IOException {
-		Filter filter;
-		try {
-			filter = bundleContext.createFilter("(" + Constants.SERVICE_ID + "=" + serviceId + ")");
-		} catch (InvalidSyntaxException e) {
-			throw new IOException("Invalid filter syntax: " + e);
-		}
-		ServiceTracker<?, ?> tracker = new ServiceTracker<Object, Object>(bundleContext, filter, null);
-		tracker.open();
-		ServiceReference<?> serviceReference = tracker.getServiceReference();
+		ServiceReference<?> serviceReference = services.lookup(bundleContext, serviceId);
 		if (serviceReference == null) {
 			throw new IOException("Service <" + serviceId + "> does not exist");
 		}
-		tracker.close();
 		return serviceReference;
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 */
+	public CompositeData[] listInterfaceChurn(int limit) throws IOException {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("Limit must be positive: " + limit);
+		}
+		List<ServiceChurn.Churn<String>> interfaces = churn.topInterfaces(limit);
+		CompositeData[] rows = new CompositeData[interfaces.size()];
+		for (int i = 0; i < rows.length; i++) {
+			rows[i] = OSGiServiceChurn.forInterface(interfaces.get(i)).asCompositeData();
+		}
+		return rows;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public CompositeData[] listBundleChurn(int limit) throws IOException {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("Limit must be positive: " + limit);
+		}
+		List<ServiceChurn.Churn<Long>> bundles = churn.topBundles(limit);
+		CompositeData[] rows = new CompositeData[bundles.size()];
+		for (int i = 0; i < rows.length; i++) {
+			rows[i] = OSGiServiceChurn.forBundle(bundles.get(i)).asCompositeData();
+		}
+		return rows;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public double getServiceChurnRate() throws IOException {
+		return churn.rate();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void resetServiceChurn() throws IOException {
+		churn.reset();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getFilterCacheHits() throws IOException {
+		return filters.getHits();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getFilterCacheMisses() throws IOException {
+		return filters.getMisses();
+	}
+
 	//End methods for the MBean
 	
 	/**
@@ -254,6 +373,8 @@ public final class ServiceState extends Monitor implements CustomServiceStateMBe
 	protected void addListener() {
 		serviceListener = this.getServiceListener();
 		bundleContext.addServiceListener(serviceListener);
+		// seeded once listening, so that no registration is missed
+		services.start(bundleContext);
 	}
 
 	/**
@@ -263,14 +384,30 @@ public final class ServiceState extends Monitor implements CustomServiceStateMBe
 		if (serviceListener != null) {
 			bundleContext.removeServiceListener(serviceListener);
 		}
+		services.stop();
+		tables.shutdown();
 	}
 
 	private ServiceListener getServiceListener() {
 		return new AllServiceListener() {
 			public void serviceChanged(ServiceEvent serviceEvent) {
-				Notification notification = new Notification(ServiceStateMBean.EVENT, objectName, sequenceNumber++);
-				notification.setUserData(new OSGiServiceEvent(serviceEvent).asCompositeData());
-				sendNotification(notification);
+				services.serviceChanged(serviceEvent);
+				churn.serviceChanged(serviceEvent);
+				if (journal.isEnabled()) {
+					ServiceReference<?> reference = serviceEvent.getServiceReference();
+					Bundle bundle = reference.getBundle();
+					journal.append(EventJournal.SERVICE_EVENT, serviceEvent.getType(), bundle == null ? -1 : bundle.getBundleId(), (Long) reference.getProperty(Constants.SERVICE_ID));
+				}
+				if (!isEventWanted(serviceEvent)) {
+					return;
+				}
+				final long sequence = nextSequenceNumber();
+				final OSGiServiceEvent event = new OSGiServiceEvent(serviceEvent);
+				dispatchEvent(new EventJob(ServiceStateMBean.EVENT, CustomServiceStateMBean.EVENT_BATCH, sequence) {
+					protected CompositeData encode() {
+						return event.asCompositeData();
+					}
+				});
 			}
 		};
 	}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.OpenDataException;
+
+import org.eclipse.gemini.management.framework.internal.StartupTimeline;
+
+/**
+ * The implementation of {@link StartupProfilerMBean}, reading the timeline
+ * recorded by a {@link StartupTimeline}.
+ */
+public final class StartupProfiler implements StartupProfilerMBean {
+
+	private final StartupTimeline timeline;
+
+	/**
+	 * Constructor
+	 * 
+	 * @param timeline - the timeline of the bundle starts and stops
+	 */
+	public StartupProfiler(StartupTimeline timeline) {
+		this.timeline = timeline;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public CompositeData[] listSlowestActivations(int limit) throws IOException {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("Limit must be positive: " + limit);
+		}
+		return asCompositeData(timeline.slowestActivations(limit));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public CompositeData[] listSlowestRestarts(int limit) throws IOException {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("Limit must be positive: " + limit);
+		}
+		return asCompositeData(timeline.slowestRestarts(limit));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public CompositeData[] listSlowestDeactivations(int limit) throws IOException {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("Limit must be positive: " + limit);
+		}
+		return asCompositeData(timeline.slowestDeactivations(limit));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public CompositeData[] getCriticalPath() throws IOException {
+		List<StartupTimeline.Level> levels = timeline.levels();
+		CompositeData[] path = new CompositeData[levels.size()];
+		int i = 0;
+		for (StartupTimeline.Level level : levels) {
+			Map<String, Object> items = new HashMap<String, Object>();
+			items.put(START_LEVEL, level.getStartLevel());
+			items.put(START, level.getStart());
+			items.put(DURATION, level.getDuration());
+			items.put(BUNDLE_COUNT, level.getCount());
+			items.put(SLOWEST, asCompositeData(level.getSlowest()));
+			try {
+				path[i++] = new CompositeDataSupport(LEVEL_TYPE, items);
+			} catch (OpenDataException e) {
+				throw new IllegalStateException("Cannot form start level open data", e);
+			}
+		}
+		return path;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void reset() throws IOException {
+		timeline.reset();
+	}
+
+	private CompositeData[] asCompositeData(List<StartupTimeline.Transition> transitions) {
+		CompositeData[] encoded = new CompositeData[transitions.size()];
+		int i = 0;
+		for (StartupTimeline.Transition transition : transitions) {
+			encoded[i++] = asCompositeData(transition);
+		}
+		return encoded;
+	}
+
+	private CompositeData asCompositeData(StartupTimeline.Transition transition) {
+		Map<String, Object> items = new HashMap<String, Object>();
+		items.put(BUNDLE_IDENTIFIER, transition.getBundleId());
+		items.put(SYMBOLIC_NAME, transition.getSymbolicName());
+		items.put(START_LEVEL, transition.getStartLevel());
+		items.put(START, transition.getStart());
+		items.put(DURATION, transition.getDuration());
+		try {
+			return new CompositeDataSupport(TRANSITION_TYPE, items);
+		} catch (OpenDataException e) {
+			throw new IllegalStateException("Cannot form bundle transition open data", e);
+		}
+	}
+
+}
@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+package org.eclipse.gemini.management.framework;
+
+import java.io.IOException;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.SimpleType;
+import org.osgi.jmx.Item;
+
+/**
+ * The time each bundle took to start and to stop, recorded from the moment the
+ * management bundle started, and the time spent in each start level. The times
+ * are in nanoseconds, measured from the start of the profiler or its last
+ * reset.
+ * <p>
+ * The startup ends when the framework reaches its start level. The starts
+ * until then are the activations of the startup, the later ones are
+ * restarts and leave the activations and the critical path unchanged. After a
+ * reset the starts are activations again until the next start level change.
+ * The starts of the bundles started with their lazy activation policy are not
+ * recorded, as they wait for a class to be loaded.
+ */
+public interface StartupProfilerMBean {
+
+	/**
+	 * The Object Name for a Startup Profiler MBean.
+	 */
+	String			OBJECTNAME					= "org.eclipse.gemini.management:type=startupProfiler,version=1.0";
+
+	/**
+	 * The key BUNDLE_IDENTIFIER, used in {@link #BUNDLE_IDENTIFIER_ITEM}.
+	 */
+	String			BUNDLE_IDENTIFIER			= "BundleIdentifier";
+
+	/**
+	 * The item containing the identifier of the bundle in
+	 * {@link #TRANSITION_TYPE}. The key is {@link #BUNDLE_IDENTIFIER} and the
+	 * type is {@link SimpleType#LONG}.
+	 */
+	Item			BUNDLE_IDENTIFIER_ITEM		= new Item(BUNDLE_IDENTIFIER, "The identifier of the bundle", SimpleType.LONG);
+
+	/**
+	 * The key SYMBOLIC_NAME, used in {@link #SYMBOLIC_NAME_ITEM}.
+	 */
+	String			SYMBOLIC_NAME				= "SymbolicName";
+
+	/**
+	 * The item containing the symbolic name of the bundle in
+	 * {@link #TRANSITION_TYPE}. The key is {@link #SYMBOLIC_NAME} and the type
+	 * is {@link SimpleType#STRING}.
+	 */
+	Item			SYMBOLIC_NAME_ITEM			= new Item(SYMBOLIC_NAME, "The symbolic name of the bundle", SimpleType.STRING);
+
+	/**
+	 * The key START_LEVEL, used in {@link #START_LEVEL_ITEM}.
+	 */
+	String			START_LEVEL					= "StartLevel";
+
+	/**
+	 * The item containing the start level in {@link #TRANSITION_TYPE} and
+	 * {@link #LEVEL_TYPE}. The key is {@link #START_LEVEL} and the type is
+	 * {@link SimpleType#INTEGER}.
+	 */
+	Item			START_LEVEL_ITEM			= new Item(START_LEVEL, "The start level", SimpleType.INTEGER);
+
+	/**
+	 * The key START, used in {@link #START_ITEM}.
+	 */
+	String			START						= "Start";
+
+	/**
+	 * The item containing the time the bundle began to start or stop in
+	 * {@link #TRANSITION_TYPE}, or the first bundle of the level began to start
+	 * in {@link #LEVEL_TYPE}, in nanoseconds. The key is {@link #START} and the
+	 * type is {@link SimpleType#LONG}.
+	 */
+	Item			START_ITEM					= new Item(START, "The time the transition began, in nanoseconds", SimpleType.LONG);
+
+	/**
+	 * The key DURATION, used in {@link #DURATION_ITEM}.
+	 */
+	String			DURATION					= "Duration";
+
+	/**
+	 * The item containing the time the bundle took to start or stop in
+	 * {@link #TRANSITION_TYPE}, or from the first bundle of the level beginning
+	 * to start to the last one started in {@link #LEVEL_TYPE}, in nanoseconds.
+	 * The key is {@link #DURATION} and the type is {@link SimpleType#LONG}.
+	 */
+	Item			DURATION_ITEM				= new Item(DURATION, "The duration of the transition, in nanoseconds", SimpleType.LONG);
+
+	/**
+	 * The Composite Type of the start or the stop of a bundle. It consists of
+	 * {@link #BUNDLE_IDENTIFIER_ITEM}, {@link #SYMBOLIC_NAME_ITEM},
+	 * {@link #START_LEVEL_ITEM}, {@link #START_ITEM} and {@link #DURATION_ITEM}.
+	 */
+	CompositeType	TRANSITION_TYPE				= Item.compositeType("BUNDLE_TRANSITION",
+														"This type encapsulates the start or the stop of a bundle",
+														BUNDLE_IDENTIFIER_ITEM,
+														SYMBOLIC_NAME_ITEM,
+														START_LEVEL_ITEM,
+														START_ITEM,
+														DURATION_ITEM);
+
+	/**
+	 * The key BUNDLE_COUNT, used in {@link #BUNDLE_COUNT_ITEM}.
+	 */
+	String			BUNDLE_COUNT				= "BundleCount";
+
+	/**
+	 * The item containing the number of bundles started in the level in
+	 * {@link #LEVEL_TYPE}. The key is {@link #BUNDLE_COUNT} and the type is
+	 * {@link SimpleType#INTEGER}.
+	 */
+	Item			BUNDLE_COUNT_ITEM			= new Item(BUNDLE_COUNT, "The number of bundles started in the level", SimpleType.INTEGER);
+
+	/**
+	 * The key SLOWEST, used in {@link #SLOWEST_ITEM}.
+	 */
+	String			SLOWEST						= "Slowest";
+
+	/**
+	 * The item containing the slowest start of the level in
+	 * {@link #LEVEL_TYPE}. The key is {@link #SLOWEST} and the type is
+	 * {@link #TRANSITION_TYPE}.
+	 */
+	Item			SLOWEST_ITEM				= new Item(SLOWEST, "The slowest start of the level", TRANSITION_TYPE);
+
+	/**
+	 * The Composite Type of a start level on the critical path. It consists of
+	 * {@link #START_LEVEL_ITEM}, {@link #START_ITEM}, {@link #DURATION_ITEM},
+	 * {@link #BUNDLE_COUNT_ITEM} and {@link #SLOWEST_ITEM}.
+	 */
+	CompositeType	LEVEL_TYPE					= Item.compositeType("START_LEVEL_SPAN",
+														"This type encapsulates the starts of the bundles of a start level",
+														START_LEVEL_ITEM,
+														START_ITEM,
+														DURATION_ITEM,
+														BUNDLE_COUNT_ITEM,
+														SLOWEST_ITEM);
+
+	/**
+	 * Answer the slowest starts of bundles during the startup, slowest first
+	 * 
+	 * @see #TRANSITION_TYPE for the details of the CompositeData
+	 * 
+	 * @param limit - the maximum number of starts
+	 * @return the starts
+	 * @throws IOException
+	 *             if the operation fails
+	 * @throws IllegalArgumentException
+	 *             if the limit is not positive
+	 */
+	CompositeData[] listSlowestActivations(int limit) throws IOException;
+
+	/**
+	 * Answer the slowest starts of bundles after the startup ended, slowest
+	 * first. Only the last restart of each bundle is kept.
+	 * 
+	 * @see #TRANSITION_TYPE for the details of the CompositeData
+	 * 
+	 * @param limit - the maximum number of starts
+	 * @return the starts
+	 * @throws IOException
+	 *             if the operation fails
+	 * @throws IllegalArgumentException
+	 *             if the limit is not positive
+	 */
+	CompositeData[] listSlowestRestarts(int limit) throws IOException;
+
+	/**
+	 * Answer the slowest stops of bundles, slowest first
+	 * 
+	 * @see #TRANSITION_TYPE for the details of the CompositeData
+	 * 
+	 * @param limit - the maximum number of stops
+	 * @return the stops
+	 * @throws IOException
+	 *             if the operation fails
+	 * @throws IllegalArgumentException
+	 *             if the limit is not positive
+	 */
+	CompositeData[] listSlowestDeactivations(int limit) throws IOException;
+
+	/**
+	 * Answer the critical path of the startup: the start levels in which
+	 * bundles started during the startup, in the order the framework went through them, each
+	 * with its duration and its slowest start. The framework does not enter a
+	 * level before the bundles of the previous level are started, so the
+	 * startup takes at least the sum of these durations.
+	 * 
+	 * @see #LEVEL_TYPE for the details of the CompositeData
+	 * 
+	 * @return the start levels
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	CompositeData[] getCriticalPath() throws IOException;
+
+	/**
+	 * Forget the recorded starts and stops, and measure the times from now on.
+	 * The starts are activations of a new startup until the next start level
+	 * change.
+	 * 
+	 * @throws IOException
+	 *             if the operation fails
+	 */
+	void reset() throws IOException;
+
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.osgi.framework.BundleEvent;
+
+/**
+ * Tracks a monotonically increasing generation number which is bumped by every
+ * bundle event, and the generation at which each bundle last changed.
+ * <p>
+ * RESOLVED and UNRESOLVED events change the wiring of other bundles too. The
+ * bundle is marked by its event, and the bundles it is wired to are marked
+ * once the {@link DependencyIndex} has read its new wires. Without a started
+ * index, and on refreshes, every bundle is marked as changed. Until tracking is
+ * started, and for generations this tracker never handed out, every bundle is
+ * reported as changed.
+ * <p>
+ * The generation starts at the time the tracker is created, in milliseconds, so
+ * that it normally keeps increasing when the management bundle is restarted.
+ * <p>
+ * This class is thread safe
+ */
+public final class BundleChangeTracker {
+
+	private final ConcurrentMap<Long, Long> changes = new ConcurrentHashMap<Long, Long>();
+
+	private final Object myLock = new Object();
+
+	private volatile long generation = System.currentTimeMillis();
+
+	private volatile long everythingChanged = generation;
+
+	private volatile boolean tracking = false;
+
+	private final DependencyIndex dependencies;
+
+	private final DependencyIndex.WiresListener wiresListener = new DependencyIndex.WiresListener() {
+		public void wiresChanged(long[] bundleIds) {
+			changed(bundleIds);
+		}
+	};
+
+	/**
+	 * Construct a tracker
+	 *
+	 * @param dependencies - the index telling which bundles are rewired
+	 */
+	public BundleChangeTracker(DependencyIndex dependencies) {
+		this.dependencies = dependencies;
+	}
+
+	/**
+	 * @return the current generation
+	 */
+	public long getGeneration() {
+		return generation;
+	}
+
+	/**
+	 * Answer the identifiers of the bundles which changed after the supplied
+	 * generation.
+	 *
+	 * @param since - a generation returned by {@link #getGeneration()}
+	 * @return the identifiers of the changed bundles, or <code>null</code> if
+	 *         every bundle has to be considered changed
+	 */
+	public List<Long> changedSince(long since) {
+		if (!tracking || since < everythingChanged || since > generation) {
+			return null;
+		}
+		List<Long> changed = new ArrayList<Long>();
+		for (Map.Entry<Long, Long> change : changes.entrySet()) {
+			if (change.getValue() > since) {
+				changed.add(change.getKey());
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Record the change announced by the supplied event
+	 *
+	 * @param event
+	 */
+	public void bundleChanged(BundleEvent event) {
+		switch (event.getType()) {
+			case BundleEvent.RESOLVED:
+			case BundleEvent.UNRESOLVED:
+				if (dependencies.isTracking()) {
+					changed(event.getBundle().getBundleId(), false);
+				} else {
+					everythingChanged();
+				}
+				break;
+			case BundleEvent.UNINSTALLED:
+				changed(event.getBundle().getBundleId(), true);
+				break;
+			default:
+				changed(event.getBundle().getBundleId(), false);
+		}
+	}
+
+	/**
+	 * Record a change of every bundle
+	 */
+	public void everythingChanged() {
+		synchronized (myLock) {
+			long next = generation + 1;
+			everythingChanged = next;
+			changes.clear();
+			generation = next;
+		}
+	}
+
+	/**
+	 * Start tracking changes. The caller must deliver every bundle event and
+	 * refresh from now on.
+	 */
+	public void start() {
+		dependencies.addWiresListener(wiresListener);
+		everythingChanged();
+		tracking = true;
+	}
+
+	/**
+	 * Stop tracking changes
+	 */
+	public void stop() {
+		tracking = false;
+		dependencies.removeWiresListener(wiresListener);
+		everythingChanged();
+	}
+
+	private void changed(long[] bundleIds) {
+		synchronized (myLock) {
+			long next = generation + 1;
+			for (long bundleId : bundleIds) {
+				changes.put(bundleId, next);
+			}
+			generation = next;
+		}
+	}
+
+	private void changed(long bundleId, boolean removed) {
+		synchronized (myLock) {
+			// the change is recorded before the generation which announces it is published
+			long next = generation + 1;
+			if (removed) {
+				changes.remove(bundleId);
+			} else {
+				changes.put(bundleId, next);
+			}
+			generation = next;
+		}
+	}
+
+}
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework.internal;
+
+import javax.management.openmbean.TabularData;
+import javax.management.openmbean.TabularDataSupport;
+
+import org.osgi.framework.Bundle;
+
+/**
+ * The facts about a <link>Bundle</link> which only change when a bundle event
+ * or a refresh is delivered: its identity, its headers and everything derived
+ * from its wiring.
+ * <p>
+ * Each fact is computed the first time it is asked for and then remembered, so
+ * a snapshot costs nothing for the items a listing does not project. The facts
+ * derived from the wiring are all extracted together, by a single walk of the
+ * wires, the first time any of them is asked for. The header table and the
+ * arrays are answered as copies, so that a caller changing them does not
+ * change the snapshot. Facts which change without
+ * any event being fired, such as the state, the start level or the services in
+ * use, are not part of a snapshot and are always read from the bundle itself.
+ * <p>
+ * This class is thread safe
+ */
+public final class BundleSnapshot {
+
+	private final Bundle bundle;
+
+	private final HeaderTableCache headerTables;
+
+	private volatile String location;
+
+	private volatile String symbolicName;
+
+	private volatile String version;
+
+	private volatile TabularData headers;
+
+	private volatile BundleWiringFacts wiringFacts;
+
+	/**
+	 * Construct a snapshot of the supplied <link>Bundle</link>
+	 *
+	 * @param bundle - the Bundle to represent
+	 */
+	public BundleSnapshot(Bundle bundle) {
+		this(bundle, null);
+	}
+
+	/**
+	 * Construct a snapshot of the supplied <link>Bundle</link> which takes its
+	 * header table from a cache
+	 *
+	 * @param bundle - the Bundle to represent
+	 * @param headerTables - the cache of header tables, or <code>null</code>
+	 */
+	public BundleSnapshot(Bundle bundle, HeaderTableCache headerTables) {
+		this.bundle = bundle;
+		this.headerTables = headerTables;
+	}
+
+	/**
+	 * @return the location of this bundle
+	 */
+	public String getLocation() {
+		if (location == null) {
+			location = bundle.getLocation();
+		}
+		return location;
+	}
+
+	/**
+	 * @return the symbolic name of this bundle
+	 */
+	public String getSymbolicName() {
+		if (symbolicName == null) {
+			symbolicName = bundle.getSymbolicName();
+		}
+		return symbolicName;
+	}
+
+	/**
+	 * @return the version of this bundle
+	 */
+	public String getVersion() {
+		if (version == null) {
+			version = bundle.getVersion().toString();
+		}
+		return version;
+	}
+
+	/**
+	 * @return a copy of the headers of this bundle in the default locale
+	 */
+	public TabularData getHeaders() {
+		TabularData table = headers;
+		if (table == null) {
+			table = headerTables == null ? OSGiBundle.headerTable(bundle.getHeaders()) : headerTables.headersOf(bundle, null);
+			headers = table;
+		}
+		return (TabularData) ((TabularDataSupport) table).clone();
+	}
+
+	/**
+	 * @return The list of exported packages by this bundle, in the form of
+	 *         <packageName>;<version>
+	 */
+	public String[] getExportedPackages() {
+		return wiringFacts().getExportedPackages().clone();
+	}
+
+	/**
+	 * @return The list of imported packages by this bundle, in the form of
+	 *         <packageName>;<version>
+	 */
+	public String[] getImportedPackages() {
+		return wiringFacts().getImportedPackages().clone();
+	}
+
+	/**
+	 * @return the list of identifiers of the bundle fragments which use this
+	 *         bundle as a host
+	 */
+	public Long[] getFragments() {
+		return wiringFacts().getFragments().clone();
+	}
+
+	/**
+	 * @return list of identifiers of the bundles which host this fragment
+	 */
+	public Long[] getHosts() {
+		return wiringFacts().getHosts().clone();
+	}
+
+	/**
+	 * @return the list of identifiers of bundles which require this bundle
+	 */
+	public Long[] getRequiringBundles() {
+		return wiringFacts().getRequiringBundles().clone();
+	}
+
+	/**
+	 * @return the list of identifiers of bundles required by this bundle
+	 */
+	public Long[] getRequiredBundles() {
+		return wiringFacts().getRequiredBundles().clone();
+	}
+
+	/**
+	 * @return true if this bundle represents a fragment
+	 */
+	public boolean isFragment() {
+		return wiringFacts().isFragment();
+	}
+
+	/**
+	 * @return true if this bundle is required
+	 */
+	public boolean isRequired() {
+		return wiringFacts().isRequired();
+	}
+
+	/**
+	 * @return true if this bundle is pending removal
+	 */
+	public boolean isRemovalPending() {
+		return wiringFacts().isRemovalPending();
+	}
+
+	private BundleWiringFacts wiringFacts() {
+		BundleWiringFacts facts = wiringFacts;
+		if (facts == null) {
+			facts = BundleWiringFacts.extract(bundle);
+			wiringFacts = facts;
+		}
+		return facts;
+	}
+
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework.internal;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleEvent;
+
+/**
+ * A cache of {@link BundleSnapshot}s keyed by bundle identifier.
+ * <p>
+ * The cache is only used while it is enabled, that is while its owner is
+ * listening for the bundle and framework events which invalidate it. A bundle
+ * event invalidates the snapshot of its bundle. As resolving or unresolving a
+ * bundle changes the wiring of the bundles it is wired to, RESOLVED and
+ * UNRESOLVED events as well as a refresh invalidate every snapshot.
+ * <p>
+ * Wires added by a dynamic import are not announced by any event and may be
+ * missing from a cached snapshot until the next invalidation.
+ * <p>
+ * This class is thread safe
+ */
+public final class BundleSnapshotCache {
+
+	private final ConcurrentMap<Long, BundleSnapshot> snapshots = new ConcurrentHashMap<Long, BundleSnapshot>();
+
+	private final AtomicLong invalidations = new AtomicLong();
+
+	private volatile boolean enabled = false;
+
+	private final HeaderTableCache headerTables;
+
+	/**
+	 * Construct an empty, disabled, cache
+	 *
+	 * @param headerTables - the cache of header tables used by the snapshots
+	 */
+	public BundleSnapshotCache(HeaderTableCache headerTables) {
+		this.headerTables = headerTables;
+	}
+
+	/**
+	 * Answer the snapshot of the supplied bundle, reusing the cached one if it
+	 * is still valid.
+	 *
+	 * @param bundle
+	 * @return the snapshot of the bundle
+	 */
+	public BundleSnapshot snapshotFor(Bundle bundle) {
+		if (!enabled) {
+			return new BundleSnapshot(bundle, headerTables);
+		}
+		Long bundleId = bundle.getBundleId();
+		BundleSnapshot snapshot = snapshots.get(bundleId);
+		if (snapshot != null) {
+			return snapshot;
+		}
+		long seen = invalidations.get();
+		snapshot = new BundleSnapshot(bundle, headerTables);
+		BundleSnapshot existing = snapshots.putIfAbsent(bundleId, snapshot);
+		if (existing != null) {
+			return existing;
+		}
+		if (invalidations.get() != seen) {
+			// an event arrived while the snapshot was being cached, it may already be stale
+			snapshots.remove(bundleId, snapshot);
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Invalidate the snapshots affected by the supplied event
+	 *
+	 * @param event
+	 */
+	public void bundleChanged(BundleEvent event) {
+		switch (event.getType()) {
+			case BundleEvent.RESOLVED:
+			case BundleEvent.UNRESOLVED:
+				invalidateAll();
+				break;
+			default:
+				invalidate(event.getBundle().getBundleId());
+		}
+	}
+
+	/**
+	 * Invalidate the snapshot of a single bundle
+	 *
+	 * @param bundleId
+	 */
+	public void invalidate(long bundleId) {
+		invalidations.incrementAndGet();
+		snapshots.remove(bundleId);
+	}
+
+	/**
+	 * Invalidate every snapshot
+	 */
+	public void invalidateAll() {
+		invalidations.incrementAndGet();
+		snapshots.clear();
+	}
+
+	/**
+	 * Start caching snapshots. The caller must deliver every bundle event and
+	 * refresh from now on.
+	 */
+	public void enable() {
+		invalidateAll();
+		enabled = true;
+	}
+
+	/**
+	 * Stop caching snapshots and drop the cached ones
+	 */
+	public void disable() {
+		enabled = false;
+		invalidateAll();
+	}
+
+}
@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.gemini.management.internal.BundleUtil;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Constants;
+import org.osgi.framework.wiring.BundleRevision;
+import org.osgi.framework.wiring.BundleWire;
+import org.osgi.framework.wiring.BundleWiring;
+
+/**
+ * Every fact about a <link>Bundle</link> which is derived from its wiring,
+ * extracted in a single pass: the bundle is adapted to its
+ * <link>BundleWiring</link> once, and its required and provided wires are each
+ * walked once, whatever the namespace.
+ * <p>
+ * Instances are immutable
+ */
+public final class BundleWiringFacts {
+
+	private static final String[] NO_PACKAGES = new String[0];
+
+	private static final Long[] NO_BUNDLES = new Long[0];
+
+	private final String[] exportedPackages;
+
+	private final String[] importedPackages;
+
+	private final Long[] fragments;
+
+	private final Long[] hosts;
+
+	private final Long[] requiringBundles;
+
+	private final Long[] requiredBundles;
+
+	private final boolean fragment;
+
+	private final boolean required;
+
+	private final boolean removalPending;
+
+	/**
+	 * Extract the wiring facts of the supplied <link>Bundle</link>
+	 *
+	 * @param bundle - the Bundle to inspect
+	 * @return the facts
+	 */
+	public static BundleWiringFacts extract(Bundle bundle) {
+		BundleWiring wiring = bundle.adapt(BundleWiring.class);
+		if (wiring == null) {
+			return new BundleWiringFacts(bundle.getHeaders().get(Constants.FRAGMENT_HOST) != null);
+		}
+		return new BundleWiringFacts(wiring);
+	}
+
+	private BundleWiringFacts(boolean fragment) {
+		this.exportedPackages = NO_PACKAGES;
+		this.importedPackages = NO_PACKAGES;
+		this.fragments = NO_BUNDLES;
+		this.hosts = NO_BUNDLES;
+		this.requiringBundles = NO_BUNDLES;
+		this.requiredBundles = NO_BUNDLES;
+		this.fragment = fragment;
+		this.required = false;
+		this.removalPending = false;
+	}
+
+	private BundleWiringFacts(BundleWiring wiring) {
+		Set<String> imported = new LinkedHashSet<String>();
+		List<Long> fragmentIds = new ArrayList<Long>();
+		List<BundleWire> requiredWires = wiring.getRequiredWires(null);
+		Long[] providerIds = new Long[requiredWires.size()];
+		int i = 0;
+		for (BundleWire wire : requiredWires) {
+			Long providerId = wire.getProviderWiring().getBundle().getBundleId();
+			providerIds[i++] = providerId;
+			String namespace = wire.getCapability().getNamespace();
+			if (BundleRevision.PACKAGE_NAMESPACE.equals(namespace)) {
+				imported.add(BundleUtil.packageName(wire));
+			} else if (BundleRevision.HOST_NAMESPACE.equals(namespace)) {
+				fragmentIds.add(providerId);
+			}
+		}
+
+		Set<String> exported = new LinkedHashSet<String>();
+		List<Long> hostIds = new ArrayList<Long>();
+		List<BundleWire> providedWires = wiring.getProvidedWires(null);
+		Long[] requirerIds = new Long[providedWires.size()];
+		i = 0;
+		for (BundleWire wire : providedWires) {
+			Long requirerId = wire.getRequirerWiring().getBundle().getBundleId();
+			requirerIds[i++] = requirerId;
+			String namespace = wire.getCapability().getNamespace();
+			if (BundleRevision.PACKAGE_NAMESPACE.equals(namespace)) {
+				exported.add(BundleUtil.packageName(wire));
+			} else if (BundleRevision.HOST_NAMESPACE.equals(namespace)) {
+				hostIds.add(requirerId);
+			}
+		}
+
+		this.exportedPackages = exported.toArray(new String[exported.size()]);
+		this.importedPackages = imported.toArray(new String[imported.size()]);
+		this.fragments = fragmentIds.toArray(new Long[fragmentIds.size()]);
+		this.hosts = hostIds.toArray(new Long[hostIds.size()]);
+		this.requiringBundles = requirerIds;
+		this.requiredBundles = providerIds;
+		this.fragment = 0 != (wiring.getRevision().getTypes() & BundleRevision.TYPE_FRAGMENT);
+		this.required = requirerIds.length > 0;
+		this.removalPending = !wiring.isCurrent() && wiring.isInUse();
+	}
+
+	/**
+	 * @return The list of exported packages by this bundle, in the form of
+	 *         <packageName>;<version>
+	 */
+	public String[] getExportedPackages() {
+		return exportedPackages;
+	}
+
+	/**
+	 * @return The list of imported packages by this bundle, in the form of
+	 *         <packageName>;<version>
+	 */
+	public String[] getImportedPackages() {
+		return importedPackages;
+	}
+
+	/**
+	 * @return the list of identifiers of the bundle fragments which use this
+	 *         bundle as a host
+	 */
+	public Long[] getFragments() {
+		return fragments;
+	}
+
+	/**
+	 * @return list of identifiers of the bundles which host this fragment
+	 */
+	public Long[] getHosts() {
+		return hosts;
+	}
+
+	/**
+	 * @return the list of identifiers of bundles which require this bundle
+	 */
+	public Long[] getRequiringBundles() {
+		return requiringBundles;
+	}
+
+	/**
+	 * @return the list of identifiers of bundles required by this bundle
+	 */
+	public Long[] getRequiredBundles() {
+		return requiredBundles;
+	}
+
+	/**
+	 * @return true if this bundle represents a fragment
+	 */
+	public boolean isFragment() {
+		return fragment;
+	}
+
+	/**
+	 * @return true if this bundle is required
+	 */
+	public boolean isRequired() {
+		return required;
+	}
+
+	/**
+	 * @return true if this bundle is pending removal
+	 */
+	public boolean isRemovalPending() {
+		return removalPending;
+	}
+
+}
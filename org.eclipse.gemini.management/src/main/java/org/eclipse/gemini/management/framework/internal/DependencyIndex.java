@@ -0,0 +1,455 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework.internal;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.BundleListener;
+import org.osgi.framework.FrameworkEvent;
+import org.osgi.framework.FrameworkListener;
+import org.osgi.framework.wiring.BundleRevision;
+import org.osgi.framework.wiring.BundleRevisions;
+import org.osgi.framework.wiring.BundleWire;
+import org.osgi.framework.wiring.BundleWiring;
+import org.osgi.framework.wiring.FrameworkWiring;
+
+/**
+ * An in memory index of the wires between bundles, answering the required
+ * bundles, requiring bundles and dependency closure queries without walking
+ * the wiring of the framework.
+ * <p>
+ * The index keeps the required wires of every in use wiring of each bundle,
+ * including the wirings pending removal. A RESOLVED or UNRESOLVED event
+ * re-reads the wires of its bundle only, an UPDATED or UNINSTALLED event
+ * re-reads its bundle and the bundles wired to it, and a refresh re-reads every
+ * bundle. The wires are kept in adjacency rows, one per bundle for the wires
+ * it requires and one per bundle for the wires it provides, in parallel
+ * <code>long[]</code> and <code>byte[]</code> arrays. Re-reading a bundle
+ * patches its required row and the provided rows of its old and new providers
+ * only, so a query following an event does not rebuild the index.
+ * <p>
+ * Wires added by a dynamic import are not announced by any event and may be
+ * missing from the index until the next refresh. Until the index is started its
+ * queries answer <code>null</code>, the caller then has to ask the framework.
+ * <p>
+ * The {@link WiresListener}s are told which bundles a RESOLVED or UNRESOLVED
+ * event rewired, once the index has read the new wires of the bundle.
+ * <p>
+ * This class is thread safe
+ */
+public final class DependencyIndex {
+
+	private static final byte REQUIRER_CURRENT = 1;
+
+	private static final byte PROVIDER_CURRENT = 2;
+
+	private static final byte HOST = 4;
+
+	private final Object myLock = new Object();
+
+	private final Map<Long, Wires> required = new HashMap<Long, Wires>();
+
+	private final Map<Long, Wires> provided = new HashMap<Long, Wires>();
+
+	private volatile boolean tracking = false;
+
+	private final List<WiresListener> wiresListeners = new CopyOnWriteArrayList<WiresListener>();
+
+	private BundleContext bundleContext;
+
+	private BundleListener bundleListener;
+
+	private FrameworkListener refreshListener;
+
+	/**
+	 * A listener told which bundles the resolution or unresolution of a bundle
+	 * rewired
+	 */
+	public interface WiresListener {
+
+		/**
+		 * Called once the index has read the wires of a bundle which was
+		 * resolved or unresolved, on the thread delivering the event
+		 *
+		 * @param bundleIds - the identifiers of the bundle and of the bundles
+		 *            providing its wires, before and after the event
+		 */
+		void wiresChanged(long[] bundleIds);
+
+	}
+
+	/**
+	 * @return true if the index is started
+	 */
+	public boolean isTracking() {
+		return tracking;
+	}
+
+	/**
+	 * Add a listener told which bundles are rewired
+	 *
+	 * @param listener
+	 */
+	public void addWiresListener(WiresListener listener) {
+		wiresListeners.add(listener);
+	}
+
+	/**
+	 * Remove a listener added by {@link #addWiresListener(WiresListener)}
+	 *
+	 * @param listener
+	 */
+	public void removeWiresListener(WiresListener listener) {
+		wiresListeners.remove(listener);
+	}
+
+	/**
+	 * Answer the identifiers of the bundles the current wiring of a bundle is
+	 * wired to, once per wire
+	 *
+	 * @param bundleId
+	 * @return the identifiers of the required bundles, or <code>null</code> if
+	 *         the index is not started
+	 */
+	public long[] requiredBundles(long bundleId) {
+		if (!tracking) {
+			return null;
+		}
+		synchronized (myLock) {
+			return select(required.get(bundleId), REQUIRER_CURRENT);
+		}
+	}
+
+	/**
+	 * Answer the identifiers of the bundles wired to the current wiring of a
+	 * bundle, once per wire
+	 *
+	 * @param bundleId
+	 * @return the identifiers of the requiring bundles, or <code>null</code>
+	 *         if the index is not started
+	 */
+	public long[] requiringBundles(long bundleId) {
+		if (!tracking) {
+			return null;
+		}
+		synchronized (myLock) {
+			return select(provided.get(bundleId), PROVIDER_CURRENT);
+		}
+	}
+
+	/**
+	 * Answer the dependency closure of the supplied bundles, as defined by
+	 * {@link FrameworkWiring#getDependencyClosure(Collection)}
+	 *
+	 * @param bundleIds
+	 * @return the identifiers of the bundles in the closure, or
+	 *         <code>null</code> if the index is not started
+	 */
+	public long[] dependencyClosure(long[] bundleIds) {
+		if (!tracking) {
+			return null;
+		}
+		Set<Long> closure = new LinkedHashSet<Long>();
+		Deque<Long> queue = new ArrayDeque<Long>();
+		for (long bundleId : bundleIds) {
+			if (closure.add(bundleId)) {
+				queue.add(bundleId);
+			}
+		}
+		synchronized (myLock) {
+			while (!queue.isEmpty()) {
+				Long bundleId = queue.poll();
+				// every bundle wired to a bundle in the closure is in the closure
+				Wires requirers = provided.get(bundleId);
+				if (requirers != null) {
+					for (int w = 0; w < requirers.size; w++) {
+						if (closure.add(requirers.bundleIds[w])) {
+							queue.add(requirers.bundleIds[w]);
+						}
+					}
+				}
+				// as are the hosts of a fragment in the closure
+				Wires providers = required.get(bundleId);
+				if (providers != null) {
+					for (int w = 0; w < providers.size; w++) {
+						if ((providers.flags[w] & HOST) != 0 && closure.add(providers.bundleIds[w])) {
+							queue.add(providers.bundleIds[w]);
+						}
+					}
+				}
+			}
+		}
+		long[] ids = new long[closure.size()];
+		int i = 0;
+		for (Long bundleId : closure) {
+			ids[i++] = bundleId;
+		}
+		return ids;
+	}
+
+	/**
+	 * Start indexing the wires of the framework of the supplied context
+	 *
+	 * @param bundleContext
+	 */
+	public void start(BundleContext bundleContext) {
+		synchronized (myLock) {
+			this.bundleContext = bundleContext;
+			bundleListener = new BundleListener() {
+				public void bundleChanged(BundleEvent event) {
+					DependencyIndex.this.bundleChanged(event);
+				}
+			};
+			refreshListener = new FrameworkListener() {
+				public void frameworkEvent(FrameworkEvent event) {
+					if (FrameworkEvent.PACKAGES_REFRESHED == event.getType()) {
+						readAll();
+					}
+				}
+			};
+			bundleContext.addBundleListener(bundleListener);
+			bundleContext.addFrameworkListener(refreshListener);
+			readAll();
+			tracking = true;
+		}
+	}
+
+	/**
+	 * Stop indexing and drop the index
+	 */
+	public void stop() {
+		synchronized (myLock) {
+			tracking = false;
+			if (bundleContext != null) {
+				bundleContext.removeBundleListener(bundleListener);
+				bundleContext.removeFrameworkListener(refreshListener);
+				bundleContext = null;
+			}
+			required.clear();
+			provided.clear();
+		}
+	}
+
+	private void bundleChanged(BundleEvent event) {
+		Bundle bundle = event.getBundle();
+		switch (event.getType()) {
+			case BundleEvent.RESOLVED:
+			case BundleEvent.UNRESOLVED:
+				long[] rewired;
+				synchronized (myLock) {
+					Wires before = required.get(bundle.getBundleId());
+					read(bundle);
+					// the rows of the providers wired to the bundle before or now change with it
+					rewired = Wires.providers(bundle.getBundleId(), before, required.get(bundle.getBundleId()));
+				}
+				for (WiresListener listener : wiresListeners) {
+					listener.wiresChanged(rewired);
+				}
+				break;
+			case BundleEvent.UPDATED:
+			case BundleEvent.UNINSTALLED:
+				// the wiring of the bundle is no longer current, which changes the wires of its requirers too
+				synchronized (myLock) {
+					Wires requirers = provided.get(bundle.getBundleId());
+					long[] requirerIds = requirers == null ? new long[0] : select(requirers, (byte) 0);
+					read(bundle);
+					for (long requirer : requirerIds) {
+						Wires requirerWires = required.get(requirer);
+						if (requirerWires != null) {
+							read(requirerWires.bundle);
+						}
+					}
+				}
+				break;
+			default:
+		}
+	}
+
+	private void readAll() {
+		synchronized (myLock) {
+			if (bundleContext == null) {
+				return;
+			}
+			required.clear();
+			provided.clear();
+			for (Bundle bundle : bundleContext.getBundles()) {
+				read(bundle);
+			}
+			FrameworkWiring frameworkWiring = bundleContext.getBundle(0).adapt(FrameworkWiring.class);
+			if (frameworkWiring != null) {
+				for (Bundle bundle : frameworkWiring.getRemovalPendingBundles()) {
+					read(bundle);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Replace the required row of the bundle, and its entries in the provided
+	 * rows of the bundles it was and is wired to
+	 */
+	private void read(Bundle bundle) {
+		long bundleId = bundle.getBundleId();
+		Wires before = required.remove(bundleId);
+		if (before != null) {
+			for (int w = 0; w < before.size; w++) {
+				Wires requirers = provided.get(before.bundleIds[w]);
+				if (requirers != null && requirers.remove(bundleId) == 0) {
+					provided.remove(before.bundleIds[w]);
+				}
+			}
+		}
+		Wires after = Wires.of(bundle);
+		if (after.size == 0) {
+			return;
+		}
+		required.put(bundleId, after);
+		for (int w = 0; w < after.size; w++) {
+			Wires requirers = provided.get(after.bundleIds[w]);
+			if (requirers == null) {
+				requirers = new Wires(null);
+				provided.put(after.bundleIds[w], requirers);
+			}
+			requirers.add(bundleId, after.flags[w]);
+		}
+	}
+
+	private static long[] select(Wires row, byte flag) {
+		if (row == null) {
+			return new long[0];
+		}
+		long[] selected = new long[row.size];
+		int n = 0;
+		for (int w = 0; w < row.size; w++) {
+			if ((row.flags[w] & flag) == flag) {
+				selected[n++] = row.bundleIds[w];
+			}
+		}
+		return n == selected.length ? selected : Arrays.copyOf(selected, n);
+	}
+
+	/**
+	 * An adjacency row: the wires the in use wirings of a single bundle
+	 * require, or the wires other bundles require from it, with the
+	 * identifiers of the bundles at their other end
+	 */
+	private static final class Wires {
+
+		/**
+		 * The bundle whose required wires the row holds, <code>null</code> for a provided row
+		 */
+		final Bundle bundle;
+
+		long[] bundleIds = new long[8];
+
+		byte[] flags = new byte[8];
+
+		int size;
+
+		private Wires(Bundle bundle) {
+			this.bundle = bundle;
+		}
+
+		static Wires of(Bundle bundle) {
+			Wires requiredWires = new Wires(bundle);
+			BundleRevisions revisions;
+			try {
+				revisions = bundle.adapt(BundleRevisions.class);
+			} catch (IllegalStateException e) {
+				// uninstalled meanwhile
+				return requiredWires;
+			}
+			if (revisions == null) {
+				return requiredWires;
+			}
+			for (BundleRevision revision : revisions.getRevisions()) {
+				BundleWiring wiring = revision.getWiring();
+				if (wiring == null || !wiring.isInUse()) {
+					continue;
+				}
+				byte requirer = wiring.isCurrent() ? REQUIRER_CURRENT : 0;
+				for (BundleWire wire : wiring.getRequiredWires(null)) {
+					BundleWiring provider = wire.getProviderWiring();
+					byte flag = requirer;
+					if (provider.isCurrent()) {
+						flag |= PROVIDER_CURRENT;
+					}
+					if (BundleRevision.HOST_NAMESPACE.equals(wire.getCapability().getNamespace())) {
+						flag |= HOST;
+					}
+					requiredWires.add(provider.getBundle().getBundleId(), flag);
+				}
+			}
+			return requiredWires;
+		}
+
+		static long[] providers(long bundleId, Wires before, Wires after) {
+			int beforeSize = before == null ? 0 : before.size;
+			int afterSize = after == null ? 0 : after.size;
+			long[] bundleIds = new long[1 + beforeSize + afterSize];
+			bundleIds[0] = bundleId;
+			if (before != null) {
+				System.arraycopy(before.bundleIds, 0, bundleIds, 1, beforeSize);
+			}
+			if (after != null) {
+				System.arraycopy(after.bundleIds, 0, bundleIds, 1 + beforeSize, afterSize);
+			}
+			return bundleIds;
+		}
+
+		void add(long bundleId, byte flag) {
+			if (size == bundleIds.length) {
+				bundleIds = Arrays.copyOf(bundleIds, size * 2);
+				flags = Arrays.copyOf(flags, size * 2);
+			}
+			bundleIds[size] = bundleId;
+			flags[size] = flag;
+			size++;
+		}
+
+		/**
+		 * Remove the wires to the supplied bundle, keeping the order of the others
+		 *
+		 * @return the number of wires left
+		 */
+		int remove(long bundleId) {
+			int kept = 0;
+			for (int w = 0; w < size; w++) {
+				if (bundleIds[w] != bundleId) {
+					bundleIds[kept] = bundleIds[w];
+					flags[kept] = flags[w];
+					kept++;
+				}
+			}
+			size = kept;
+			return size;
+		}
+
+	}
+
+}
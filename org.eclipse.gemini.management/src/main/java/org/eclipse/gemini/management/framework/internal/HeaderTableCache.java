@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework.internal;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.management.openmbean.TabularData;
+import javax.management.openmbean.TabularDataSupport;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+
+/**
+ * A bounded cache of the encoded header tables of bundles, keyed by bundle
+ * identifier, last modification time and locale. The least recently used
+ * tables are dropped first.
+ * <p>
+ * The headers of a bundle only change when it is updated, which also changes
+ * its last modification time, so a cached table never needs to be invalidated
+ * to stay correct. The tables of a bundle are dropped when it is updated or
+ * uninstalled only to release them early, and every table is dropped on a
+ * refresh as newly attached fragments may contribute localizations.
+ * <p>
+ * The cached tables are never handed out: every caller receives its own copy,
+ * which only copies the references to the immutable rows, so a caller
+ * modifying its table does not change the table of the others.
+ * <p>
+ * This class is thread safe
+ */
+public final class HeaderTableCache {
+
+	/**
+	 * The framework property giving the maximum number of cached header tables
+	 */
+	public static final String SIZE_PROPERTY = "org.eclipse.gemini.management.headers.cacheSize";
+
+	/**
+	 * The maximum number of cached header tables when the framework property is not set
+	 */
+	public static final int DEFAULT_SIZE = 1024;
+
+	private final Map<HeaderKey, TabularData> tables;
+
+	/**
+	 * Answer the cache sized by the framework properties
+	 *
+	 * @param bundleContext
+	 * @return the cache
+	 */
+	public static HeaderTableCache fromProperties(BundleContext bundleContext) {
+		String sizeProperty = bundleContext.getProperty(SIZE_PROPERTY);
+		if (sizeProperty != null) {
+			try {
+				return new HeaderTableCache(Integer.parseInt(sizeProperty.trim()));
+			} catch (NumberFormatException e) {
+				// fall back to the default size
+			}
+		}
+		return new HeaderTableCache(DEFAULT_SIZE);
+	}
+
+	/**
+	 * Construct a cache holding at most <code>size</code> header tables. A
+	 * size which is not positive disables the cache.
+	 *
+	 * @param size - the maximum number of cached header tables
+	 */
+	public HeaderTableCache(final int size) {
+		this.tables = new LinkedHashMap<HeaderKey, TabularData>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<HeaderKey, TabularData> eldest) {
+				return size() > size;
+			}
+		};
+	}
+
+	/**
+	 * Answer the header table of the supplied bundle
+	 *
+	 * @param bundle
+	 * @param locale - the locale of the headers, or <code>null</code> for the default locale
+	 * @return a copy of the table of the headers
+	 */
+	public TabularData headersOf(Bundle bundle, String locale) {
+		HeaderKey key = new HeaderKey(bundle.getBundleId(), bundle.getLastModified(), locale);
+		synchronized (tables) {
+			TabularData table = tables.get(key);
+			if (table != null) {
+				return copy(table);
+			}
+		}
+		TabularData table = OSGiBundle.headerTable(locale == null ? bundle.getHeaders() : bundle.getHeaders(locale));
+		synchronized (tables) {
+			tables.put(key, table);
+		}
+		return copy(table);
+	}
+
+	/**
+	 * @return the number of cached header tables
+	 */
+	public int size() {
+		synchronized (tables) {
+			return tables.size();
+		}
+	}
+
+	/**
+	 * Drop the tables made stale by the supplied event
+	 *
+	 * @param event
+	 */
+	public void bundleChanged(BundleEvent event) {
+		switch (event.getType()) {
+			case BundleEvent.UPDATED:
+			case BundleEvent.UNINSTALLED:
+				invalidate(event.getBundle().getBundleId());
+				break;
+			default:
+		}
+	}
+
+	/**
+	 * Drop the tables of a single bundle
+	 *
+	 * @param bundleId
+	 */
+	public void invalidate(long bundleId) {
+		synchronized (tables) {
+			for (Iterator<HeaderKey> keys = tables.keySet().iterator(); keys.hasNext();) {
+				if (keys.next().bundleId == bundleId) {
+					keys.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Drop every table
+	 */
+	public void invalidateAll() {
+		synchronized (tables) {
+			tables.clear();
+		}
+	}
+
+	private static TabularData copy(TabularData table) {
+		return (TabularData) ((TabularDataSupport) table).clone();
+	}
+
+	private static final class HeaderKey {
+
+		private final long bundleId;
+
+		private final long lastModified;
+
+		private final String locale;
+
+		HeaderKey(long bundleId, long lastModified, String locale) {
+			this.bundleId = bundleId;
+			this.lastModified = lastModified;
+			this.locale = locale;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = (int) (bundleId ^ (bundleId >>> 32));
+			hash = 31 * hash + (int) (lastModified ^ (lastModified >>> 32));
+			return 31 * hash + (locale == null ? 0 : locale.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof HeaderKey)) {
+				return false;
+			}
+			HeaderKey key = (HeaderKey) other;
+			return bundleId == key.bundleId && lastModified == key.lastModified && (locale == null ? key.locale == null : locale.equals(key.locale));
+		}
+
+	}
+
+}
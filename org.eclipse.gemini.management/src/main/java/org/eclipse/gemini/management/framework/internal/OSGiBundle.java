@@ -17,7 +17,6 @@ package org.eclipse.gemini.management.framework.internal;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.HashMap;
@@ -31,12 +30,12 @@ import javax.management.openmbean.TabularData;
 import javax.management.openmbean.TabularDataSupport;
 
 import org.eclipse.gemini.management.internal.BundleUtil;
+import org.eclipse.gemini.management.internal.TableBuilder;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.Constants;
 import org.osgi.framework.ServiceReference;
-import org.osgi.framework.wiring.BundleRevision;
+import org.osgi.framework.startlevel.BundleStartLevel;
 import org.osgi.framework.wiring.BundleWire;
-import org.osgi.framework.wiring.BundleWiring;
 import org.osgi.jmx.framework.BundleStateMBean;
 
 
@@ -50,89 +49,126 @@ import org.osgi.jmx.framework.BundleStateMBean;
  * <p>
  */
 public final class OSGiBundle {
+
+	private static final BundleItem[] ITEMS = BundleItem.values();
+
+	/**
+	 * The names of the bundle type items, in the order of {@link #ITEMS}
+	 */
+	private static final String[] ITEM_NAMES = BundleItem.names();
+
+	/**
+	 * The projection which computes every bundle type item
+	 */
+	public static final int ALL_ITEMS = (1 << ITEM_NAMES.length) - 1;
 	
 	private Bundle bundle;
 
+	private BundleSnapshot snapshot;
+
+	/**
+	 * The start level of the bundle, adapted once for all the items which need it
+	 */
+	private BundleStartLevel bundleStartLevel;
+
 	/**
 	 * Construct an OSGiBundle representation
 	 * 
 	 * @param b - the Bundle to represent
 	 */
 	public OSGiBundle(Bundle b) {
+		this(b, new BundleSnapshot(b));
+	}
+
+	/**
+	 * Construct an OSGiBundle representation which takes the event stable
+	 * facts about the bundle from a, possibly cached, snapshot
+	 * 
+	 * @param b - the Bundle to represent
+	 * @param snapshot - the snapshot of the Bundle
+	 */
+	public OSGiBundle(Bundle b, BundleSnapshot snapshot) {
 		this.bundle = b;
+		this.snapshot = snapshot;
 	}
 
+	/**
+	 * Answer the TabularData representing the list of bundles, projected onto
+	 * the requested bundle type items
+	 * 
+	 * @param bundles - the list of bundles to represent
+	 * @param bundleTypeItems - the items to include, the identifier is always included
+	 * @return the Tabular data which represents the list of bundles
+	 * @throws IOException
+	 */
 	public static TabularData tableFrom(List<OSGiBundle> bundles, String... bundleTypeItems) throws IOException {
-		List<String> bundleTypes = Arrays.asList(bundleTypeItems);
-		TabularDataSupport table = new TabularDataSupport(BundleStateMBean.BUNDLES_TYPE);
-		for (OSGiBundle bundle : bundles) {
-			table.put(bundle.asCompositeData(bundleTypes));
-		}
-		return table;
+		return tableFrom(bundles, projection(bundleTypeItems), TableBuilder.SEQUENTIAL);
 	}
-	
-	private CompositeData asCompositeData(List<String> bundleTypes) throws IOException {
-		Map<String, Object> items = new HashMap<String, Object>();
-		items.put(BundleStateMBean.IDENTIFIER, getIdentifier());
-		items.put(BundleStateMBean.LOCATION, 				bundleTypes.contains(BundleStateMBean.LOCATION) ? 				getLocation() : null);
-		items.put(BundleStateMBean.SYMBOLIC_NAME, 			bundleTypes.contains(BundleStateMBean.SYMBOLIC_NAME) ? 			getSymbolicName() : null);
-		items.put(BundleStateMBean.VERSION, 				bundleTypes.contains(BundleStateMBean.VERSION) ? 				getVersion() : null);
-		items.put(BundleStateMBean.START_LEVEL, 			bundleTypes.contains(BundleStateMBean.START_LEVEL) ? 			getStartLevel() : null);
-		items.put(BundleStateMBean.STATE, 					bundleTypes.contains(BundleStateMBean.STATE) ? 					getState() : null);
-		items.put(BundleStateMBean.LAST_MODIFIED, 			bundleTypes.contains(BundleStateMBean.LAST_MODIFIED) ? 			getLastModified() : null);
-		items.put(BundleStateMBean.PERSISTENTLY_STARTED, 	bundleTypes.contains(BundleStateMBean.PERSISTENTLY_STARTED) ? 	isPersistentlyStarted() : null);
-		items.put(BundleStateMBean.ACTIVATION_POLICY_USED, 	bundleTypes.contains(BundleStateMBean.ACTIVATION_POLICY_USED) ? isActivationPolicyUsed() : null);
-		items.put(BundleStateMBean.REMOVAL_PENDING, 		bundleTypes.contains(BundleStateMBean.REMOVAL_PENDING) ? 		isRemovalPending() : null);
-		items.put(BundleStateMBean.REQUIRED, 				bundleTypes.contains(BundleStateMBean.REQUIRED) ? 				isRequired() : null);
-		items.put(BundleStateMBean.FRAGMENT, 				bundleTypes.contains(BundleStateMBean.FRAGMENT) ? 				isFragment() : null);
-		items.put(BundleStateMBean.REGISTERED_SERVICES, 	bundleTypes.contains(BundleStateMBean.REGISTERED_SERVICES) ? 	getRegisteredServices() : null);
-		items.put(BundleStateMBean.SERVICES_IN_USE, 		bundleTypes.contains(BundleStateMBean.SERVICES_IN_USE) ? 		getServicesInUse() : null);
-		items.put(BundleStateMBean.HEADERS, 				bundleTypes.contains(BundleStateMBean.HEADERS) ? 				getHeaders() : null);
-		items.put(BundleStateMBean.EXPORTED_PACKAGES, 		bundleTypes.contains(BundleStateMBean.EXPORTED_PACKAGES) ? 		getExportedPackages() : null);
-		items.put(BundleStateMBean.IMPORTED_PACKAGES, 		bundleTypes.contains(BundleStateMBean.IMPORTED_PACKAGES) ? 		getImportedPackages() : null);
-		items.put(BundleStateMBean.FRAGMENTS, 				bundleTypes.contains(BundleStateMBean.FRAGMENTS) ? 				getFragments() : null);
-		items.put(BundleStateMBean.HOSTS, 					bundleTypes.contains(BundleStateMBean.HOSTS) ? 					getHosts() : null);
-		items.put(BundleStateMBean.REQUIRING_BUNDLES, 		bundleTypes.contains(BundleStateMBean.REQUIRING_BUNDLES) ? 		getRequiringBundles() : null);
-		items.put(BundleStateMBean.REQUIRED_BUNDLES, 		bundleTypes.contains(BundleStateMBean.REQUIRED_BUNDLES) ? 		getRequiredBundles() : null);
-		try {
-			return new CompositeDataSupport(BundleStateMBean.BUNDLE_TYPE, items);
-		} catch (OpenDataException e) {
-			throw new IllegalStateException("Cannot form bundle open data", e);
+
+	/**
+	 * Answer the TabularData representing the list of bundles, projected onto
+	 * the supplied projection
+	 * 
+	 * @param bundles - the list of bundles to represent
+	 * @param projection - the items to include, see {@link #projection(String...)}
+	 * @param builder - the builder encoding the rows
+	 * @return the Tabular data which represents the list of bundles
+	 * @throws IOException
+	 */
+	public static TabularData tableFrom(List<OSGiBundle> bundles, final int projection, TableBuilder builder) throws IOException {
+		return builder.build(BundleStateMBean.BUNDLES_TYPE, bundles, new TableBuilder.RowEncoder<OSGiBundle>() {
+			public CompositeData encode(OSGiBundle bundle) throws IOException {
+				return bundle.asCompositeData(projection);
+			}
+		});
+	}
+
+	/**
+	 * Compile the requested bundle type items into a projection, a bit mask
+	 * of the items to compute. Unknown items are ignored and the identifier
+	 * is always included.
+	 * 
+	 * @param bundleTypeItems - the requested items
+	 * @return the projection
+	 */
+	public static int projection(String... bundleTypeItems) {
+		int projection = BundleItem.IDENTIFIER.bit();
+		for (String name : bundleTypeItems) {
+			BundleItem item = BundleItem.named(name);
+			if (item != null) {
+				projection |= item.bit();
+			}
 		}
+		return projection;
 	}
 
 	/**
 	 * Answer the receiver encoded as CompositeData
-	 * @param mask 
 	 * 
 	 * @return the CompositeData encoding of the receiver.
 	 * @throws IOException 
 	 */
 	public CompositeData asCompositeData() throws IOException {
-		Map<String, Object> items = new HashMap<String, Object>();
-		items.put(BundleStateMBean.IDENTIFIER, getIdentifier());
-		items.put(BundleStateMBean.LOCATION, getLocation());
-		items.put(BundleStateMBean.SYMBOLIC_NAME, getSymbolicName());
-		items.put(BundleStateMBean.VERSION, getVersion());
-		items.put(BundleStateMBean.START_LEVEL, getStartLevel());
-		items.put(BundleStateMBean.STATE, getState());
-		items.put(BundleStateMBean.LAST_MODIFIED, getLastModified());
-		items.put(BundleStateMBean.PERSISTENTLY_STARTED, isPersistentlyStarted());
-		items.put(BundleStateMBean.ACTIVATION_POLICY_USED, isActivationPolicyUsed());
-		items.put(BundleStateMBean.REMOVAL_PENDING, isRemovalPending());
-		items.put(BundleStateMBean.REQUIRED, isRequired());
-		items.put(BundleStateMBean.FRAGMENT, isFragment());
-		items.put(BundleStateMBean.REGISTERED_SERVICES, getRegisteredServices());
-		items.put(BundleStateMBean.SERVICES_IN_USE, getServicesInUse());
-		items.put(BundleStateMBean.HEADERS, headerTable(getHeaders()));
-		items.put(BundleStateMBean.EXPORTED_PACKAGES, getExportedPackages());
-		items.put(BundleStateMBean.IMPORTED_PACKAGES, getImportedPackages());
-		items.put(BundleStateMBean.FRAGMENTS, getFragments());
-		items.put(BundleStateMBean.HOSTS, getHosts());
-		items.put(BundleStateMBean.REQUIRING_BUNDLES, getRequiringBundles());
-		items.put(BundleStateMBean.REQUIRED_BUNDLES, getRequiredBundles());
+		return asCompositeData(ALL_ITEMS);
+	}
+
+	/**
+	 * Answer the receiver encoded as CompositeData, computing only the items of
+	 * the projection. The other items are null.
+	 * 
+	 * @param projection - the items to compute, see {@link #projection(String...)}
+	 * @return the CompositeData encoding of the receiver.
+	 * @throws IOException 
+	 */
+	public CompositeData asCompositeData(int projection) throws IOException {
+		Object[] values = new Object[ITEMS.length];
+		for (int i = 0; i < ITEMS.length; i++) {
+			if ((projection & ITEMS[i].bit()) != 0) {
+				values[i] = ITEMS[i].valueOf(this);
+			}
+		}
 		try {
-			return new CompositeDataSupport(BundleStateMBean.BUNDLE_TYPE, items);
+			return new CompositeDataSupport(BundleStateMBean.BUNDLE_TYPE, ITEM_NAMES, values);
 		} catch (OpenDataException e) {
 			throw new IllegalStateException("Cannot form bundle open data", e);
 		}
@@ -170,14 +206,14 @@ public final class OSGiBundle {
 	 * 
 	 */
 	private String[] getExportedPackages() {
-		return BundleUtil.getBundleExportedPackages(bundle);
+		return snapshot.getExportedPackages();
 	}
 
 	/**
-	 * @return the map of headers for this bundle
+	 * @return the table of headers for this bundle
 	 */
-	private Dictionary<String, String> getHeaders() {
-		return bundle.getHeaders();
+	private TabularData getHeaders() {
+		return snapshot.getHeaders();
 	}
 
 	/**
@@ -185,18 +221,14 @@ public final class OSGiBundle {
 	 *         bundle as a host
 	 */
 	private Long[] getFragments() {
-		BundleWiring wiring = bundle.adapt(BundleWiring.class);
-		List<BundleWire> requiredWires = wiring.getRequiredWires(BundleRevision.HOST_NAMESPACE);
-        return OSGiBundle.bundleWiresToProviderIds(requiredWires);
+		return snapshot.getFragments();
 	}
 
 	/**
 	 * @return list of identifiers of the bundles which host this fragment
 	 */
 	private Long[] getHosts() {
-		BundleWiring wiring = bundle.adapt(BundleWiring.class);
-		List<BundleWire> providedWires = wiring.getProvidedWires(BundleRevision.HOST_NAMESPACE);
-        return OSGiBundle.bundleWiresToRequirerIds(providedWires);
+		return snapshot.getHosts();
 	}
 
 	/**
@@ -211,7 +243,7 @@ public final class OSGiBundle {
 	 *         <packageName>;<version>
 	 */
 	private String[] getImportedPackages() {
-		return BundleUtil.getBundleImportedPackages(bundle);
+		return snapshot.getImportedPackages();
 	}
 
 	/**
@@ -225,7 +257,7 @@ public final class OSGiBundle {
 	 * @return the name of this bundle
 	 */
 	private String getLocation() {
-		return bundle.getLocation();
+		return snapshot.getLocation();
 	}
 
 	/**
@@ -240,7 +272,7 @@ public final class OSGiBundle {
 	 * @throws IOException 
 	 */
 	private Long[] getRequiredBundles() throws IOException {
-        return BundleUtil.getRequiredBundles(bundle);
+        return snapshot.getRequiredBundles();
 	}
 
 	/**
@@ -248,7 +280,7 @@ public final class OSGiBundle {
 	 * @throws IOException 
 	 */
 	private Long[] getRequiringBundles() throws IOException {
-        return BundleUtil.getRequiringBundles(bundle);
+        return snapshot.getRequiringBundles();
 	}
 
 	/**
@@ -262,7 +294,14 @@ public final class OSGiBundle {
 	 * @return the start level of this bundle
 	 */
 	private int getStartLevel() {
-		return BundleUtil.getBundleStartLevel(bundle);
+		return bundleStartLevel().getStartLevel();
+	}
+
+	private BundleStartLevel bundleStartLevel() {
+		if (bundleStartLevel == null) {
+			bundleStartLevel = bundle.adapt(BundleStartLevel.class);
+		}
+		return bundleStartLevel;
 	}
 
 	/**
@@ -276,49 +315,49 @@ public final class OSGiBundle {
 	 * @return the symbolic name of this bundle
 	 */
 	private String getSymbolicName() {
-		return bundle.getSymbolicName();
+		return snapshot.getSymbolicName();
 	}
 
 	/**
 	 * @return the version of this bundle
 	 */
 	private String getVersion() {
-		return bundle.getVersion().toString();
+		return snapshot.getVersion();
 	}
 
 	/**
 	 * @return true if this bundle represents a fragment
 	 */
 	private boolean isFragment() {
-		return BundleUtil.isBundleFragment(bundle);
+		return snapshot.isFragment();
 	}
 
 	/**
 	 * @return true if this bundle is persistently started
 	 */
 	private boolean isPersistentlyStarted() {
-		return BundleUtil.isBundlePersistentlyStarted(bundle);
+		return bundleStartLevel().isPersistentlyStarted();
 	}
 
 	/**
 	 * @return true if this bundle is persistently started
 	 */
 	private boolean isActivationPolicyUsed() {
-		return BundleUtil.isBundleActivationPolicyUsed(bundle);
+		return bundleStartLevel().isActivationPolicyUsed();
 	}
 
 	/**
 	 * @return true if this bundle is pending removal
 	 */
 	private boolean isRemovalPending() {
-		return BundleUtil.isRemovalPending(bundle);
+		return snapshot.isRemovalPending();
 	}
 
 	/**
 	 * @return true if this bundle is required
 	 */
 	private boolean isRequired() {
-		return BundleUtil.isRequired(bundle);
+		return snapshot.isRequired();
 	}
 
 	public static Long[] bundleWiresToRequirerIds(List<BundleWire> wires){
@@ -355,4 +394,103 @@ public final class OSGiBundle {
 		return idsList.toArray(new Long[idsList.size()]);
 	}
 	
+	/**
+	 * The items of the bundle type and how each is computed
+	 */
+	private static enum BundleItem {
+		IDENTIFIER(BundleStateMBean.IDENTIFIER) {
+			Object valueOf(OSGiBundle b) { return b.getIdentifier(); }
+		},
+		LOCATION(BundleStateMBean.LOCATION) {
+			Object valueOf(OSGiBundle b) { return b.getLocation(); }
+		},
+		SYMBOLIC_NAME(BundleStateMBean.SYMBOLIC_NAME) {
+			Object valueOf(OSGiBundle b) { return b.getSymbolicName(); }
+		},
+		VERSION(BundleStateMBean.VERSION) {
+			Object valueOf(OSGiBundle b) { return b.getVersion(); }
+		},
+		START_LEVEL(BundleStateMBean.START_LEVEL) {
+			Object valueOf(OSGiBundle b) { return b.getStartLevel(); }
+		},
+		STATE(BundleStateMBean.STATE) {
+			Object valueOf(OSGiBundle b) { return b.getState(); }
+		},
+		LAST_MODIFIED(BundleStateMBean.LAST_MODIFIED) {
+			Object valueOf(OSGiBundle b) { return b.getLastModified(); }
+		},
+		PERSISTENTLY_STARTED(BundleStateMBean.PERSISTENTLY_STARTED) {
+			Object valueOf(OSGiBundle b) { return b.isPersistentlyStarted(); }
+		},
+		ACTIVATION_POLICY_USED(BundleStateMBean.ACTIVATION_POLICY_USED) {
+			Object valueOf(OSGiBundle b) { return b.isActivationPolicyUsed(); }
+		},
+		REMOVAL_PENDING(BundleStateMBean.REMOVAL_PENDING) {
+			Object valueOf(OSGiBundle b) { return b.isRemovalPending(); }
+		},
+		REQUIRED(BundleStateMBean.REQUIRED) {
+			Object valueOf(OSGiBundle b) { return b.isRequired(); }
+		},
+		FRAGMENT(BundleStateMBean.FRAGMENT) {
+			Object valueOf(OSGiBundle b) { return b.isFragment(); }
+		},
+		REGISTERED_SERVICES(BundleStateMBean.REGISTERED_SERVICES) {
+			Object valueOf(OSGiBundle b) { return b.getRegisteredServices(); }
+		},
+		SERVICES_IN_USE(BundleStateMBean.SERVICES_IN_USE) {
+			Object valueOf(OSGiBundle b) { return b.getServicesInUse(); }
+		},
+		HEADERS(BundleStateMBean.HEADERS) {
+			Object valueOf(OSGiBundle b) { return b.getHeaders(); }
+		},
+		EXPORTED_PACKAGES(BundleStateMBean.EXPORTED_PACKAGES) {
+			Object valueOf(OSGiBundle b) { return b.getExportedPackages(); }
+		},
+		IMPORTED_PACKAGES(BundleStateMBean.IMPORTED_PACKAGES) {
+			Object valueOf(OSGiBundle b) { return b.getImportedPackages(); }
+		},
+		FRAGMENTS(BundleStateMBean.FRAGMENTS) {
+			Object valueOf(OSGiBundle b) { return b.getFragments(); }
+		},
+		HOSTS(BundleStateMBean.HOSTS) {
+			Object valueOf(OSGiBundle b) { return b.getHosts(); }
+		},
+		REQUIRING_BUNDLES(BundleStateMBean.REQUIRING_BUNDLES) {
+			Object valueOf(OSGiBundle b) throws IOException { return b.getRequiringBundles(); }
+		},
+		REQUIRED_BUNDLES(BundleStateMBean.REQUIRED_BUNDLES) {
+			Object valueOf(OSGiBundle b) throws IOException { return b.getRequiredBundles(); }
+		};
+
+		private final String itemName;
+
+		private BundleItem(String itemName) {
+			this.itemName = itemName;
+		}
+
+		abstract Object valueOf(OSGiBundle b) throws IOException;
+
+		int bit() {
+			return 1 << ordinal();
+		}
+
+		static BundleItem named(String itemName) {
+			for (BundleItem item : values()) {
+				if (item.itemName.equals(itemName)) {
+					return item;
+				}
+			}
+			return null;
+		}
+
+		static String[] names() {
+			BundleItem[] items = values();
+			String[] names = new String[items.length];
+			for (int i = 0; i < items.length; i++) {
+				names[i] = items[i].itemName;
+			}
+			return names;
+		}
+	}
+
 }
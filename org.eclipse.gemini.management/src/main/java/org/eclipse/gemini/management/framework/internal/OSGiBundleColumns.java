@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework.internal;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.OpenDataException;
+
+import org.eclipse.gemini.management.framework.CustomBundleStateMBean;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.startlevel.BundleStartLevel;
+
+/**
+ * <p>
+ * This class represents the CODEC for the composite data representing the
+ * identity and life cycle of a list of bundles as parallel primitive arrays.
+ * <p>
+ * It serves as both the documentation of the type structure and as the
+ * codification of the mechanism to convert to/from the CompositeData.
+ * <p>
+ * The structure of the composite data is:
+ * <table border="1">
+ * <tr>
+ * <td>Identifiers</td>
+ * <td>long[]</td>
+ * </tr>
+ * <tr>
+ * <td>States</td>
+ * <td>byte[]</td>
+ * </tr>
+ * <tr>
+ * <td>StartLevels</td>
+ * <td>int[]</td>
+ * </tr>
+ * <tr>
+ * <td>LastModifiedTimes</td>
+ * <td>long[]</td>
+ * </tr>
+ * </table>
+ */
+public final class OSGiBundleColumns {
+
+	private static final String[] ITEM_NAMES = new String[] { CustomBundleStateMBean.IDENTIFIERS, CustomBundleStateMBean.STATES, CustomBundleStateMBean.START_LEVELS, CustomBundleStateMBean.LAST_MODIFIED_TIMES };
+
+	private long[] identifiers;
+
+	private byte[] states;
+
+	private int[] startLevels;
+
+	private long[] lastModifiedTimes;
+
+	/**
+	 * Construct the columns of the supplied bundles. A bundle which is
+	 * uninstalled while its columns are read is left out.
+	 * 
+	 * @param bundles - the bundles, in the order of the columns
+	 */
+	public OSGiBundleColumns(List<Bundle> bundles) {
+		identifiers = new long[bundles.size()];
+		states = new byte[bundles.size()];
+		startLevels = new int[bundles.size()];
+		lastModifiedTimes = new long[bundles.size()];
+		int i = 0;
+		for (Bundle bundle : bundles) {
+			BundleStartLevel startLevel = bundle.adapt(BundleStartLevel.class);
+			if (startLevel == null) {
+				continue;
+			}
+			try {
+				startLevels[i] = startLevel.getStartLevel();
+			} catch (IllegalStateException e) {
+				// uninstalled
+				continue;
+			}
+			identifiers[i] = bundle.getBundleId();
+			states[i] = (byte) bundle.getState();
+			lastModifiedTimes[i] = bundle.getLastModified();
+			i++;
+		}
+		if (i < bundles.size()) {
+			identifiers = Arrays.copyOf(identifiers, i);
+			states = Arrays.copyOf(states, i);
+			startLevels = Arrays.copyOf(startLevels, i);
+			lastModifiedTimes = Arrays.copyOf(lastModifiedTimes, i);
+		}
+	}
+
+	/**
+	 * Answer the receiver encoded as CompositeData
+	 * 
+	 * @return the CompositeData encoding of the receiver.
+	 */
+	public CompositeData asCompositeData() {
+		try {
+			return new CompositeDataSupport(CustomBundleStateMBean.BUNDLE_COLUMNS_TYPE, ITEM_NAMES, new Object[] { identifiers, states, startLevels, lastModifiedTimes });
+		} catch (OpenDataException e) {
+			throw new IllegalStateException("Cannot form bundle columns open data", e);
+		}
+	}
+
+}
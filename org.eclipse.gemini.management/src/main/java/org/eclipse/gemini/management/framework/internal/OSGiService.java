@@ -28,9 +28,9 @@ import javax.management.openmbean.CompositeData;
 import javax.management.openmbean.CompositeDataSupport;
 import javax.management.openmbean.OpenDataException;
 import javax.management.openmbean.TabularData;
-import javax.management.openmbean.TabularDataSupport;
 
 import org.eclipse.gemini.management.internal.OSGiProperties;
+import org.eclipse.gemini.management.internal.TableBuilder;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.ServiceReference;
 import org.osgi.jmx.framework.BundleStateMBean;
@@ -63,18 +63,17 @@ import org.osgi.jmx.framework.ServiceStateMBean;
  * <td>Array of long</td>
  * </tr>
  * </table>
+ * <p>
+ * The items are read from the reference when the receiver is encoded, and a
+ * projected encoding reads only the requested items, so that a listing which
+ * asks for neither does not encode the properties nor resolve the using
+ * bundles.
  */
 public final class OSGiService {
 
-	private long bundle;
-	
-	private long identifier;
-	
-	private String[] interfaces;
+	private final ServiceReference<?> reference;
 	
-	private Long[] usingBundles;
-	
-	private TabularData properties;
+	private final long identifier;
 
 	/**
 	 * Construct an OSGiService from the underlying
@@ -85,11 +84,24 @@ public final class OSGiService {
 	 * @throws  
 	 */
 	public OSGiService(ServiceReference<?> reference) {
-		this.bundle = reference.getBundle().getBundleId();
+		this.reference = reference;
 		this.identifier = (Long) reference.getProperty(SERVICE_ID);
-		this.interfaces = (String[]) reference.getProperty(OBJECTCLASS);
-		this.properties = OSGiProperties.tableFrom(reference);
-		this.usingBundles = longArrayFrom(OSGiService.getBundlesUsing(reference));
+	}
+	
+	private long bundle() {
+		return reference.getBundle().getBundleId();
+	}
+	
+	private String[] interfaces() {
+		return (String[]) reference.getProperty(OBJECTCLASS);
+	}
+	
+	private TabularData properties() {
+		return OSGiProperties.tableFrom(reference);
+	}
+	
+	private Long[] usingBundles() {
+		return longArrayFrom(OSGiService.getBundlesUsing(reference));
 	}
 	
 	private Long[] longArrayFrom(long[] array) {
@@ -121,38 +133,38 @@ public final class OSGiService {
 	}
 	
 	/**
-	 * Construct the TabularData representing a list of services
-	 * 
-	 * @param services
-	 *            - the list of services
+	 * Construct the TabularData representing the services of a list of references
 	 * 
-	 * @return the TabularData representing the list of OSGiServices
+	 * @param references - the references of the services
+	 * @param builder - the builder encoding the rows
+	 * @return the TabularData representing the services
+	 * @throws IOException 
 	 */
-	public static TabularData tableFrom(List<OSGiService> services) {
-		TabularDataSupport table = new TabularDataSupport(ServiceStateMBean.SERVICES_TYPE);
-		for (OSGiService service : services) {
-			table.put(service.asCompositeData());
-		}
-		return table;
+	public static TabularData tableFrom(List<ServiceReference<?>> references, TableBuilder builder) throws IOException {
+		return builder.build(ServiceStateMBean.SERVICES_TYPE, references, new TableBuilder.RowEncoder<ServiceReference<?>>() {
+			public CompositeData encode(ServiceReference<?> reference) {
+				return new OSGiService(reference).asCompositeData();
+			}
+		});
 	}
 	
 	/**
-	 * Answer the TabularData representing the list of OSGiService state
+	 * Construct the TabularData representing the services of a list of
+	 * references, projected onto the requested service type items
 	 * 
-	 * @param bundles
-	 *            - the list of bundles to represent
-	 * @param mask 
-	 * 
-	 * @return the Tabular data which represents the list of bundles
+	 * @param references - the references of the services
+	 * @param builder - the builder encoding the rows
+	 * @param serviceTypeItems - the items to include, the identifier is always included
+	 * @return the TabularData representing the services
 	 * @throws IOException 
 	 */
-	public static TabularData tableFrom(List<OSGiService> services, String... serviceTypeItems) throws IOException {
-		List<String> serviceTypes = Arrays.asList(serviceTypeItems);
-		TabularDataSupport table = new TabularDataSupport(ServiceStateMBean.SERVICES_TYPE);
-		for (OSGiService service : services) {
-			table.put(service.asCompositeData(serviceTypes));
-		}
-		return table;
+	public static TabularData tableFrom(List<ServiceReference<?>> references, TableBuilder builder, String... serviceTypeItems) throws IOException {
+		final List<String> serviceTypes = Arrays.asList(serviceTypeItems);
+		return builder.build(ServiceStateMBean.SERVICES_TYPE, references, new TableBuilder.RowEncoder<ServiceReference<?>>() {
+			public CompositeData encode(ServiceReference<?> reference) {
+				return new OSGiService(reference).asCompositeData(serviceTypes);
+			}
+		});
 	}
 
 	/**
@@ -162,11 +174,11 @@ public final class OSGiService {
 	 */
 	public CompositeData asCompositeData() {
 		Map<String, Object> items = new HashMap<String, Object>();
-		items.put(ServiceStateMBean.BUNDLE_IDENTIFIER, bundle);
+		items.put(ServiceStateMBean.BUNDLE_IDENTIFIER, bundle());
 		items.put(ServiceStateMBean.IDENTIFIER, identifier);
-		items.put(ServiceStateMBean.OBJECT_CLASS, interfaces);
-		items.put(ServiceStateMBean.PROPERTIES, properties);
-		items.put(ServiceStateMBean.USING_BUNDLES, usingBundles);
+		items.put(ServiceStateMBean.OBJECT_CLASS, interfaces());
+		items.put(ServiceStateMBean.PROPERTIES, properties());
+		items.put(ServiceStateMBean.USING_BUNDLES, usingBundles());
 
 		try {
 			return new CompositeDataSupport(ServiceStateMBean.SERVICE_TYPE, items);
@@ -185,10 +197,10 @@ public final class OSGiService {
 		Map<String, Object> items = new HashMap<String, Object>();
 		items.put(ServiceStateMBean.IDENTIFIER, identifier);
 		
-		items.put(ServiceStateMBean.BUNDLE_IDENTIFIER, 	serviceTypes.contains(ServiceStateMBean.BUNDLE_IDENTIFIER) ? bundle : null);
-		items.put(ServiceStateMBean.OBJECT_CLASS, 		serviceTypes.contains(ServiceStateMBean.OBJECT_CLASS) ? 		interfaces : null);
-		items.put(ServiceStateMBean.USING_BUNDLES, 		serviceTypes.contains(ServiceStateMBean.USING_BUNDLES) ? 	usingBundles : null);
-		items.put(ServiceStateMBean.PROPERTIES, 		serviceTypes.contains(ServiceStateMBean.PROPERTIES) ? 		properties : null);
+		items.put(ServiceStateMBean.BUNDLE_IDENTIFIER, 	serviceTypes.contains(ServiceStateMBean.BUNDLE_IDENTIFIER) ? bundle() : null);
+		items.put(ServiceStateMBean.OBJECT_CLASS, 		serviceTypes.contains(ServiceStateMBean.OBJECT_CLASS) ? 		interfaces() : null);
+		items.put(ServiceStateMBean.USING_BUNDLES, 		serviceTypes.contains(ServiceStateMBean.USING_BUNDLES) ? 	usingBundles() : null);
+		items.put(ServiceStateMBean.PROPERTIES, 		serviceTypes.contains(ServiceStateMBean.PROPERTIES) ? 		properties() : null);
 		try {
 			return new CompositeDataSupport(ServiceStateMBean.SERVICE_TYPE, items);
 		} catch (OpenDataException e) {
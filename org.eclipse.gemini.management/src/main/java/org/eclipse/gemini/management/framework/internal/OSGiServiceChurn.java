@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+
+import org.eclipse.gemini.management.framework.CustomServiceStateMBean;
+
+/**
+ * <p>
+ * This class represents the CODEC for the composite data representing the
+ * number of service events of an interface or of the services of a bundle.
+ * <p>
+ * The structure of the composite data is:
+ * <table border="1">
+ * <tr>
+ * <td>InterfaceName</td>
+ * <td>String</td>
+ * </tr>
+ * <tr>
+ * <td>or BundleIdentifier</td>
+ * <td>long</td>
+ * </tr>
+ * <tr>
+ * <td>Registered</td>
+ * <td>long</td>
+ * </tr>
+ * <tr>
+ * <td>Modified</td>
+ * <td>long</td>
+ * </tr>
+ * <tr>
+ * <td>Unregistering</td>
+ * <td>long</td>
+ * </tr>
+ * </table>
+ */
+public final class OSGiServiceChurn {
+
+	private final CompositeType type;
+
+	private final String keyItem;
+
+	private final ServiceChurn.Churn<?> churn;
+
+	private OSGiServiceChurn(CompositeType type, String keyItem, ServiceChurn.Churn<?> churn) {
+		this.type = type;
+		this.keyItem = keyItem;
+		this.churn = churn;
+	}
+
+	/**
+	 * @param churn - the counts of an interface
+	 * @return the CODEC of the counts
+	 */
+	public static OSGiServiceChurn forInterface(ServiceChurn.Churn<String> churn) {
+		return new OSGiServiceChurn(CustomServiceStateMBean.INTERFACE_CHURN_TYPE, CustomServiceStateMBean.INTERFACE_NAME, churn);
+	}
+
+	/**
+	 * @param churn - the counts of a bundle
+	 * @return the CODEC of the counts
+	 */
+	public static OSGiServiceChurn forBundle(ServiceChurn.Churn<Long> churn) {
+		return new OSGiServiceChurn(CustomServiceStateMBean.BUNDLE_CHURN_TYPE, CustomServiceStateMBean.BUNDLE_IDENTIFIER, churn);
+	}
+
+	/**
+	 * Answer the receiver encoded as CompositeData
+	 * 
+	 * @return the CompositeData encoding of the receiver.
+	 */
+	public CompositeData asCompositeData() {
+		Map<String, Object> items = new HashMap<String, Object>();
+		items.put(keyItem, churn.getKey());
+		items.put(CustomServiceStateMBean.REGISTERED, churn.getRegistered());
+		items.put(CustomServiceStateMBean.MODIFIED, churn.getModified());
+		items.put(CustomServiceStateMBean.UNREGISTERING, churn.getUnregistering());
+		try {
+			return new CompositeDataSupport(type, items);
+		} catch (OpenDataException e) {
+			throw new IllegalStateException("Cannot form service churn open data", e);
+		}
+	}
+
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework.internal;
+
+import static org.osgi.framework.Constants.SERVICE_ID;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.TabularData;
+
+import org.eclipse.gemini.management.framework.CustomServiceStateMBean;
+import org.eclipse.gemini.management.internal.OSGiProperties;
+import org.eclipse.gemini.management.internal.TableBuilder;
+import org.osgi.framework.ServiceReference;
+
+/**
+ * <p>
+ * This class represents the CODEC for the composite data representing the
+ * selected properties of an OSGi <link>ServiceReference</link>
+ * <p>
+ * Only the selected properties are read from the reference and encoded, so the
+ * cost of the encoding follows the number of selected keys rather than the
+ * size of the property dictionaries.
+ * <p>
+ * The structure of the composite data is:
+ * <table border="1">
+ * <tr>
+ * <td>Identifier</td>
+ * <td>long</td>
+ * </tr>
+ * <tr>
+ * <td>Properties</td>
+ * <td>TabularData of the selected properties the service has</td>
+ * </tr>
+ * </table>
+ */
+public final class OSGiServiceProperties {
+
+	private final ServiceReference<?> reference;
+
+	private final List<String> keys;
+
+	/**
+	 * Construct an OSGiServiceProperties from the underlying
+	 * <link>ServiceReference</link>
+	 *
+	 * @param reference - the reference of the service
+	 * @param keys - the keys of the properties to select
+	 */
+	public OSGiServiceProperties(ServiceReference<?> reference, List<String> keys) {
+		this.reference = reference;
+		this.keys = keys;
+	}
+
+	/**
+	 * Construct the TabularData representing the selected properties of the
+	 * services of a list of references. A key selected more than once is
+	 * encoded once.
+	 *
+	 * @param references - the references of the services
+	 * @param builder - the builder encoding the rows
+	 * @param propertyKeys - the keys of the properties to select, <code>null</code> for none
+	 * @return the TabularData representing the selected properties of the services
+	 * @throws IOException
+	 */
+	public static TabularData tableFrom(List<ServiceReference<?>> references, TableBuilder builder, String... propertyKeys) throws IOException {
+		final List<String> keys = propertyKeys == null ? Collections.<String> emptyList() : new ArrayList<String>(new LinkedHashSet<String>(Arrays.asList(propertyKeys)));
+		return builder.build(CustomServiceStateMBean.SERVICES_PROPERTIES_TYPE, references, new TableBuilder.RowEncoder<ServiceReference<?>>() {
+			public CompositeData encode(ServiceReference<?> reference) {
+				return new OSGiServiceProperties(reference, keys).asCompositeData();
+			}
+		});
+	}
+
+	/**
+	 * Answer the receiver encoded as CompositeData
+	 *
+	 * @return the CompositeData encoding of the receiver.
+	 */
+	public CompositeData asCompositeData() {
+		Map<String, Object> items = new HashMap<String, Object>();
+		items.put(CustomServiceStateMBean.IDENTIFIER, reference.getProperty(SERVICE_ID));
+		items.put(CustomServiceStateMBean.PROPERTIES, OSGiProperties.tableFrom(reference, keys));
+		try {
+			return new CompositeDataSupport(CustomServiceStateMBean.SERVICE_PROPERTIES_TYPE, items);
+		} catch (OpenDataException e) {
+			throw new IllegalStateException("Cannot form service properties open data", e);
+		}
+	}
+
+}
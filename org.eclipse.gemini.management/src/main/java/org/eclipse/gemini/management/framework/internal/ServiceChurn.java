@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.gemini.management.internal.EventRate;
+import org.eclipse.gemini.management.internal.StripedCounters;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceReference;
+
+/**
+ * Counts the REGISTERED, MODIFIED and UNREGISTERING service events per
+ * interface and per registering bundle, to find the services which are
+ * registered and unregistered over and over.
+ * <p>
+ * The counts are kept in {@link StripedCounters}, so the threads delivering the
+ * events do not contend on them. The rate of the events is measured by an
+ * {@link EventRate}. The counts read while events are delivered may miss the
+ * latest events.
+ * <p>
+ * This class is thread safe
+ */
+public final class ServiceChurn {
+
+	private static final int REGISTERED = 0;
+
+	private static final int MODIFIED = 1;
+
+	private static final int UNREGISTERING = 2;
+
+	private final ConcurrentMap<String, StripedCounters> byInterface = new ConcurrentHashMap<String, StripedCounters>();
+
+	private final ConcurrentMap<Long, StripedCounters> byBundle = new ConcurrentHashMap<Long, StripedCounters>();
+
+	private final EventRate rate = new EventRate();
+
+	/**
+	 * The counts of the events of one interface or bundle
+	 *
+	 * @param <K> the type of the key, the interface name or the bundle identifier
+	 */
+	public static final class Churn<K> {
+
+		private final K key;
+
+		private final long registered;
+
+		private final long modified;
+
+		private final long unregistering;
+
+		Churn(K key, StripedCounters counters) {
+			this.key = key;
+			this.registered = counters.sum(REGISTERED);
+			this.modified = counters.sum(MODIFIED);
+			this.unregistering = counters.sum(UNREGISTERING);
+		}
+
+		/**
+		 * @return the interface name or the bundle identifier
+		 */
+		public K getKey() {
+			return key;
+		}
+
+		/**
+		 * @return the number of REGISTERED events
+		 */
+		public long getRegistered() {
+			return registered;
+		}
+
+		/**
+		 * @return the number of MODIFIED events
+		 */
+		public long getModified() {
+			return modified;
+		}
+
+		/**
+		 * @return the number of UNREGISTERING events
+		 */
+		public long getUnregistering() {
+			return unregistering;
+		}
+
+		/**
+		 * @return the number of events
+		 */
+		public long getTotal() {
+			return registered + modified + unregistering;
+		}
+
+	}
+
+	/**
+	 * Count the supplied event
+	 *
+	 * @param event
+	 */
+	public void serviceChanged(ServiceEvent event) {
+		int counter;
+		switch (event.getType()) {
+			case ServiceEvent.REGISTERED:
+				counter = REGISTERED;
+				break;
+			case ServiceEvent.MODIFIED:
+				counter = MODIFIED;
+				break;
+			case ServiceEvent.UNREGISTERING:
+				counter = UNREGISTERING;
+				break;
+			default:
+				return;
+		}
+		ServiceReference<?> reference = event.getServiceReference();
+		for (String objectClass : (String[]) reference.getProperty(Constants.OBJECTCLASS)) {
+			countersOf(byInterface, objectClass).increment(counter);
+		}
+		Bundle bundle = reference.getBundle();
+		if (bundle != null) {
+			countersOf(byBundle, bundle.getBundleId()).increment(counter);
+		}
+		rate.mark();
+	}
+
+	/**
+	 * Answer the interfaces with the most events, most first
+	 *
+	 * @param limit - the maximum number of interfaces
+	 * @return the counts of the interfaces
+	 */
+	public List<Churn<String>> topInterfaces(int limit) {
+		return top(byInterface, limit);
+	}
+
+	/**
+	 * Answer the bundles with the most events, most first
+	 *
+	 * @param limit - the maximum number of bundles
+	 * @return the counts of the bundles
+	 */
+	public List<Churn<Long>> topBundles(int limit) {
+		return top(byBundle, limit);
+	}
+
+	/**
+	 * Answer the number of events per second over the last complete seconds
+	 *
+	 * @return the rate of the events
+	 */
+	public double rate() {
+		return rate.rate();
+	}
+
+	/**
+	 * Forget the counted events
+	 */
+	public void reset() {
+		byInterface.clear();
+		byBundle.clear();
+		rate.reset();
+	}
+
+	private static <K> StripedCounters countersOf(ConcurrentMap<K, StripedCounters> counters, K key) {
+		StripedCounters keyCounters = counters.get(key);
+		if (keyCounters == null) {
+			StripedCounters created = new StripedCounters(3);
+			keyCounters = counters.putIfAbsent(key, created);
+			if (keyCounters == null) {
+				keyCounters = created;
+			}
+		}
+		return keyCounters;
+	}
+
+	private static <K> List<Churn<K>> top(Map<K, StripedCounters> counters, int limit) {
+		List<Churn<K>> churns = new ArrayList<Churn<K>>(counters.size());
+		for (Map.Entry<K, StripedCounters> entry : counters.entrySet()) {
+			churns.add(new Churn<K>(entry.getKey(), entry.getValue()));
+		}
+		Collections.sort(churns, new Comparator<Churn<K>>() {
+			public int compare(Churn<K> c1, Churn<K> c2) {
+				return c1.getTotal() > c2.getTotal() ? -1 : (c1.getTotal() == c2.getTotal() ? 0 : 1);
+			}
+		});
+		return churns.size() > limit ? new ArrayList<Churn<K>>(churns.subList(0, limit)) : churns;
+	}
+
+}
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.Filter;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServicePermission;
+import org.osgi.framework.ServiceReference;
+
+/**
+ * An index of the registered services by service identifier.
+ * <p>
+ * The index is seeded with every registered service when it is started, and
+ * kept up to date by the service events its owner delivers from then on. The
+ * owner must be listening to the service events before starting the index, so
+ * that no registration is missed. A reference found in the index whose service
+ * has been unregistered meanwhile is dropped rather than answered. Until the
+ * index is started it holds no service, and {@link #lookup(BundleContext, long)}
+ * asks the framework instead. Neither path registers a listener with the
+ * framework.
+ * <p>
+ * The framework only answers a bundle the references of the services it has
+ * the permission to get, so when a security manager is installed the index
+ * checks the same ServicePermission for the bundle asking before answering a
+ * reference. The service find hooks, which the framework also calls when
+ * answering references, are not called for the indexed references.
+ * <p>
+ * This class is thread safe
+ */
+public final class ServiceIndex {
+
+	private final ConcurrentMap<Long, ServiceReference<?>> services = new ConcurrentHashMap<Long, ServiceReference<?>>();
+
+	private volatile boolean tracking = false;
+
+	/**
+	 * Seed the index with the registered services and start tracking
+	 *
+	 * @param bundleContext
+	 */
+	public void start(BundleContext bundleContext) {
+		ServiceReference<?>[] references;
+		try {
+			references = bundleContext.getAllServiceReferences(null, null);
+		} catch (InvalidSyntaxException e) {
+			throw new IllegalStateException(e);
+		}
+		if (references != null) {
+			for (ServiceReference<?> reference : references) {
+				services.putIfAbsent((Long) reference.getProperty(Constants.SERVICE_ID), reference);
+			}
+		}
+		tracking = true;
+	}
+
+	/**
+	 * Stop tracking and drop the index
+	 */
+	public void stop() {
+		tracking = false;
+		services.clear();
+	}
+
+	/**
+	 * @return true if the index holds every registered service
+	 */
+	public boolean isTracking() {
+		return tracking;
+	}
+
+	/**
+	 * Record the change announced by the supplied event
+	 *
+	 * @param event
+	 */
+	public void serviceChanged(ServiceEvent event) {
+		ServiceReference<?> reference = event.getServiceReference();
+		Long serviceId = (Long) reference.getProperty(Constants.SERVICE_ID);
+		if (event.getType() == ServiceEvent.UNREGISTERING) {
+			services.remove(serviceId);
+		} else {
+			services.put(serviceId, reference);
+		}
+	}
+
+	/**
+	 * Answer the reference of a registered service, from the index while it is
+	 * tracking the services and from the framework otherwise
+	 *
+	 * @param bundleContext
+	 * @param serviceId - the identifier of the service
+	 * @return the reference of the service, or <code>null</code> if it is not registered
+	 */
+	public ServiceReference<?> lookup(BundleContext bundleContext, long serviceId) {
+		if (tracking) {
+			ServiceReference<?> reference = get(serviceId);
+			return reference == null || isPermitted(bundleContext, reference) ? reference : null;
+		}
+		ServiceReference<?>[] references;
+		try {
+			references = bundleContext.getAllServiceReferences(null, "(" + Constants.SERVICE_ID + "=" + serviceId + ")");
+		} catch (InvalidSyntaxException e) {
+			throw new IllegalStateException(e);
+		}
+		return references == null ? null : references[0];
+	}
+
+	/**
+	 * Answer the references of the indexed services registered under the
+	 * class name and matching the filter, which the bundle may get
+	 *
+	 * @param bundleContext - the context of the bundle asking
+	 * @param clazz - the class name, <code>null</code> for any
+	 * @param filter - the filter, <code>null</code> for any
+	 * @return the references of the services
+	 */
+	public List<ServiceReference<?>> find(BundleContext bundleContext, String clazz, Filter filter) {
+		List<ServiceReference<?>> found = new ArrayList<ServiceReference<?>>();
+		for (ServiceReference<?> reference : services.values()) {
+			if (reference.getBundle() == null) {
+				// unregistered after the seed read it
+				continue;
+			}
+			if (clazz != null && !registeredUnder(reference, clazz)) {
+				continue;
+			}
+			if ((filter == null || filter.match(reference)) && isPermitted(bundleContext, reference)) {
+				found.add(reference);
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Answer the reference of a registered service from the index, without
+	 * checking the permission to get it
+	 *
+	 * @param serviceId - the identifier of the service
+	 * @return the reference of the service, or <code>null</code> if it is not indexed
+	 */
+	public ServiceReference<?> get(long serviceId) {
+		ServiceReference<?> reference = services.get(serviceId);
+		if (reference != null && reference.getBundle() == null) {
+			// unregistered after the seed read it
+			services.remove(serviceId, reference);
+			return null;
+		}
+		return reference;
+	}
+
+	private static boolean isPermitted(BundleContext bundleContext, ServiceReference<?> reference) {
+		if (System.getSecurityManager() == null) {
+			return true;
+		}
+		return bundleContext.getBundle().hasPermission(new ServicePermission(reference, ServicePermission.GET));
+	}
+
+	private static boolean registeredUnder(ServiceReference<?> reference, String clazz) {
+		for (String objectClass : (String[]) reference.getProperty(Constants.OBJECTCLASS)) {
+			if (clazz.equals(objectClass)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
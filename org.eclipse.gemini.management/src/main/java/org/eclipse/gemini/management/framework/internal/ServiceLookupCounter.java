@@ -0,0 +1,330 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.gemini.management.internal.EventRate;
+import org.eclipse.gemini.management.internal.StripedCounters;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.framework.hooks.service.FindHook;
+
+/**
+ * Counts the service lookups made through <code>getServiceReference</code>
+ * and <code>getServiceReferences</code> per calling bundle, per class name and
+ * per filter string, from a service {@link FindHook}.
+ * <p>
+ * The counter is enabled by setting the framework property
+ * {@value #ENABLED_PROPERTY} to true, as the hook is called on every lookup of
+ * every bundle. The hook only counts the lookup and never changes its result.
+ * The counts are kept in {@link StripedCounters}, so the bundles looking up
+ * services concurrently do not contend on them. Each key is given one counter
+ * of blocks of counters shared by the keys of its kind, rather than striped
+ * counters of its own, so a key costs one cell per stripe. The rate of the
+ * lookups is measured by an {@link EventRate} over all the keys, it is not
+ * measured per key. At most {@value #MAX_KEYS} class names and filters are
+ * counted, so that filters built from changing values do not grow the counts
+ * without bound, the lookups of the others being only counted as untracked.
+ * <p>
+ * This class is thread safe
+ */
+public final class ServiceLookupCounter {
+
+	/**
+	 * The framework property enabling the counting of the service lookups
+	 */
+	public static final String ENABLED_PROPERTY = "org.eclipse.gemini.management.lookups.profile";
+
+	/**
+	 * The maximum number of class names, and of filters, counted
+	 */
+	public static final int MAX_KEYS = 1024;
+
+	private final boolean enabled;
+
+	/**
+	 * The number of counters of a block shared by the keys
+	 */
+	private static final int BLOCK = 64;
+
+	private volatile KeyCounts<Long> byBundle = new KeyCounts<Long>(false);
+
+	private volatile KeyCounts<String> byClassName = new KeyCounts<String>(true);
+
+	private volatile KeyCounts<String> byFilter = new KeyCounts<String>(true);
+
+	private final AtomicLong untracked = new AtomicLong();
+
+	private final EventRate rate = new EventRate();
+
+	private final Object myLock = new Object();
+
+	private ServiceRegistration<FindHook> registration;
+
+	/**
+	 * The number of lookups of one bundle, class name or filter
+	 *
+	 * @param <K> the type of the key, the bundle identifier, the class name or the filter
+	 */
+	public static final class Lookups<K> {
+
+		private final K key;
+
+		private final long count;
+
+		Lookups(K key, long count) {
+			this.key = key;
+			this.count = count;
+		}
+
+		/**
+		 * @return the bundle identifier, the class name or the filter
+		 */
+		public K getKey() {
+			return key;
+		}
+
+		/**
+		 * @return the number of lookups
+		 */
+		public long getCount() {
+			return count;
+		}
+
+	}
+
+	/**
+	 * Answer a counter configured by the framework properties
+	 *
+	 * @param bundleContext
+	 * @return the counter
+	 */
+	public static ServiceLookupCounter fromProperties(BundleContext bundleContext) {
+		return new ServiceLookupCounter(Boolean.valueOf(bundleContext.getProperty(ENABLED_PROPERTY)));
+	}
+
+	/**
+	 * Construct a counter
+	 *
+	 * @param enabled - true if the lookups have to be counted
+	 */
+	public ServiceLookupCounter(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * @return true if the lookups have to be counted
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Register the find hook counting the lookups, if the counter is enabled
+	 *
+	 * @param bundleContext
+	 */
+	public void start(BundleContext bundleContext) {
+		if (!enabled) {
+			return;
+		}
+		synchronized (myLock) {
+			registration = bundleContext.registerService(FindHook.class, new FindHook() {
+				public void find(BundleContext context, String name, String filter, boolean allServices, Collection<ServiceReference<?>> references) {
+					lookedUp(context, name, filter);
+				}
+			}, null);
+		}
+	}
+
+	/**
+	 * Unregister the find hook
+	 */
+	public void stop() {
+		synchronized (myLock) {
+			if (registration != null) {
+				try {
+					registration.unregister();
+				} catch (IllegalStateException e) {
+					// already unregistered with the stopping bundle
+				}
+				registration = null;
+			}
+		}
+	}
+
+	/**
+	 * Count a lookup
+	 *
+	 * @param context - the context of the bundle looking up the services
+	 * @param name - the class name looked up, or <code>null</code> for any
+	 * @param filter - the filter looked up, or <code>null</code> for none
+	 */
+	void lookedUp(BundleContext context, String name, String filter) {
+		try {
+			byBundle.increment(context.getBundle().getBundleId());
+		} catch (IllegalStateException e) {
+			// the context of a stopped bundle no longer answers its bundle
+		}
+		if (name != null) {
+			count(byClassName, name);
+		}
+		if (filter != null) {
+			count(byFilter, filter);
+		}
+		rate.mark();
+	}
+
+	/**
+	 * Answer the bundles which made the most lookups, most first
+	 *
+	 * @param limit - the maximum number of bundles
+	 * @return the counts of the bundles
+	 */
+	public List<Lookups<Long>> topBundles(int limit) {
+		return byBundle.top(limit);
+	}
+
+	/**
+	 * Answer the class names looked up the most, most first
+	 *
+	 * @param limit - the maximum number of class names
+	 * @return the counts of the class names
+	 */
+	public List<Lookups<String>> topClassNames(int limit) {
+		return byClassName.top(limit);
+	}
+
+	/**
+	 * Answer the filters looked up the most, most first
+	 *
+	 * @param limit - the maximum number of filters
+	 * @return the counts of the filters
+	 */
+	public List<Lookups<String>> topFilters(int limit) {
+		return byFilter.top(limit);
+	}
+
+	/**
+	 * @return the number of class names and filters looked up while the maximum number of them were counted
+	 */
+	public long untracked() {
+		return untracked.get();
+	}
+
+	/**
+	 * Answer the number of lookups per second over the last complete seconds
+	 *
+	 * @return the rate of the lookups
+	 */
+	public double rate() {
+		return rate.rate();
+	}
+
+	/**
+	 * Forget the counted lookups
+	 */
+	public void reset() {
+		byBundle = new KeyCounts<Long>(false);
+		byClassName = new KeyCounts<String>(true);
+		byFilter = new KeyCounts<String>(true);
+		untracked.set(0);
+		rate.reset();
+	}
+
+	private void count(KeyCounts<String> counts, String key) {
+		if (!counts.increment(key)) {
+			untracked.incrementAndGet();
+		}
+	}
+
+	/**
+	 * The lookup counts of the keys of one kind. A key is given the next
+	 * counter of the blocks the first time it is counted, a block being
+	 * added when the last one is full.
+	 *
+	 * @param <K> the type of the keys
+	 */
+	private static final class KeyCounts<K> {
+
+		private final boolean bounded;
+
+		private final ConcurrentMap<K, Integer> counters = new ConcurrentHashMap<K, Integer>();
+
+		private volatile StripedCounters[] blocks = new StripedCounters[0];
+
+		KeyCounts(boolean bounded) {
+			this.bounded = bounded;
+		}
+
+		/**
+		 * Count a lookup of the key
+		 *
+		 * @param key
+		 * @return false if the key is not counted because the maximum number of keys are
+		 */
+		boolean increment(K key) {
+			Integer counter = counters.get(key);
+			if (counter == null) {
+				synchronized (this) {
+					counter = counters.get(key);
+					if (counter == null) {
+						if (bounded && counters.size() >= MAX_KEYS) {
+							return false;
+						}
+						counter = counters.size();
+						if (counter / BLOCK == blocks.length) {
+							StripedCounters[] grown = Arrays.copyOf(blocks, blocks.length + 1);
+							grown[blocks.length] = new StripedCounters(BLOCK);
+							blocks = grown;
+						}
+						counters.put(key, counter);
+					}
+				}
+			}
+			blocks[counter / BLOCK].increment(counter % BLOCK);
+			return true;
+		}
+
+		List<Lookups<K>> top(int limit) {
+			List<Lookups<K>> lookups = new ArrayList<Lookups<K>>(counters.size());
+			for (Map.Entry<K, Integer> entry : counters.entrySet()) {
+				// the block of a key is added before the key, so it is read after it
+				int counter = entry.getValue();
+				lookups.add(new Lookups<K>(entry.getKey(), blocks[counter / BLOCK].sum(counter % BLOCK)));
+			}
+			Collections.sort(lookups, new Comparator<Lookups<K>>() {
+				public int compare(Lookups<K> l1, Lookups<K> l2) {
+					return l1.count > l2.count ? -1 : (l1.count == l2.count ? 0 : 1);
+				}
+			});
+			return lookups.size() > limit ? new ArrayList<Lookups<K>>(lookups.subList(0, limit)) : lookups;
+		}
+
+	}
+
+}
@@ -0,0 +1,383 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.framework.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.FrameworkEvent;
+import org.osgi.framework.FrameworkListener;
+import org.osgi.framework.SynchronousBundleListener;
+import org.osgi.framework.startlevel.BundleStartLevel;
+
+/**
+ * Records how long each bundle takes to start and to stop, from the
+ * STARTING, STARTED, STOPPING and STOPPED events.
+ * <p>
+ * Only synchronous bundle listeners receive the STARTING and STOPPING events,
+ * and they receive every event on the thread starting or stopping the bundle,
+ * so the events are timestamped with <code>System.nanoTime()</code> when the
+ * transition actually happens. The times are in nanoseconds since the timeline
+ * was started or last reset. The bundles started before the timeline are not
+ * recorded.
+ * <p>
+ * The startup ends when the framework reaches its start level, as announced by
+ * a STARTED or STARTLEVEL_CHANGED framework event, or at once if the framework
+ * is already active when the timeline starts. The starts recorded until then
+ * are the activations of the startup, and are no longer changed; the later
+ * starts are recorded apart, as restarts. A reset starts a new startup, which
+ * ends with the next start level change. Only the last restart and stop of
+ * each bundle is kept.
+ * <p>
+ * A bundle started with its lazy activation policy waits for a class to be
+ * loaded from it before it is activated, so its start is not recorded: it
+ * measures the wait rather than the activation.
+ * <p>
+ * This class is thread safe
+ */
+public final class StartupTimeline {
+
+	private static final Comparator<Transition> SLOWEST_FIRST = new Comparator<Transition>() {
+		public int compare(Transition t1, Transition t2) {
+			return t1.duration > t2.duration ? -1 : (t1.duration == t2.duration ? 0 : 1);
+		}
+	};
+
+	private final ConcurrentMap<Long, Long> pendingStarts = new ConcurrentHashMap<Long, Long>();
+
+	private final ConcurrentMap<Long, Long> pendingStops = new ConcurrentHashMap<Long, Long>();
+
+	/**
+	 * The bundles waiting for their lazy activation, as keys
+	 */
+	private final ConcurrentMap<Long, Boolean> lazyStarts = new ConcurrentHashMap<Long, Boolean>();
+
+	private final ConcurrentMap<Long, Transition> activations = new ConcurrentHashMap<Long, Transition>();
+
+	private final ConcurrentMap<Long, Transition> restarts = new ConcurrentHashMap<Long, Transition>();
+
+	private final ConcurrentMap<Long, Transition> deactivations = new ConcurrentHashMap<Long, Transition>();
+
+	private final Object myLock = new Object();
+
+	private volatile long origin = System.nanoTime();
+
+	/**
+	 * True once the startup ended, the starts then being restarts
+	 */
+	private volatile boolean startupEnded = false;
+
+	private BundleContext bundleContext;
+
+	private SynchronousBundleListener bundleListener;
+
+	private FrameworkListener frameworkListener;
+
+	/**
+	 * The start or the stop of a bundle
+	 */
+	public static final class Transition {
+
+		private final long bundleId;
+
+		private final String symbolicName;
+
+		private final int startLevel;
+
+		private final long start;
+
+		private final long duration;
+
+		Transition(long bundleId, String symbolicName, int startLevel, long start, long duration) {
+			this.bundleId = bundleId;
+			this.symbolicName = symbolicName;
+			this.startLevel = startLevel;
+			this.start = start;
+			this.duration = duration;
+		}
+
+		/**
+		 * @return the identifier of the bundle
+		 */
+		public long getBundleId() {
+			return bundleId;
+		}
+
+		/**
+		 * @return the symbolic name of the bundle
+		 */
+		public String getSymbolicName() {
+			return symbolicName;
+		}
+
+		/**
+		 * @return the start level of the bundle
+		 */
+		public int getStartLevel() {
+			return startLevel;
+		}
+
+		/**
+		 * @return the time the transition began, in nanoseconds since the timeline started
+		 */
+		public long getStart() {
+			return start;
+		}
+
+		/**
+		 * @return the duration of the transition, in nanoseconds
+		 */
+		public long getDuration() {
+			return duration;
+		}
+
+	}
+
+	/**
+	 * The activations of the bundles of one start level
+	 */
+	public static final class Level {
+
+		private final int startLevel;
+
+		private long start = Long.MAX_VALUE;
+
+		private long end = Long.MIN_VALUE;
+
+		private int count;
+
+		private Transition slowest;
+
+		Level(int startLevel) {
+			this.startLevel = startLevel;
+		}
+
+		void add(Transition activation) {
+			start = Math.min(start, activation.start);
+			end = Math.max(end, activation.start + activation.duration);
+			count++;
+			if (slowest == null || activation.duration > slowest.duration) {
+				slowest = activation;
+			}
+		}
+
+		/**
+		 * @return the start level
+		 */
+		public int getStartLevel() {
+			return startLevel;
+		}
+
+		/**
+		 * @return the time the first bundle of the level began to start, in nanoseconds since the timeline started
+		 */
+		public long getStart() {
+			return start;
+		}
+
+		/**
+		 * @return the time from the first bundle of the level beginning to start to the last one started, in nanoseconds
+		 */
+		public long getDuration() {
+			return end - start;
+		}
+
+		/**
+		 * @return the number of bundles of the level which started
+		 */
+		public int getCount() {
+			return count;
+		}
+
+		/**
+		 * @return the slowest activation of the level
+		 */
+		public Transition getSlowest() {
+			return slowest;
+		}
+
+	}
+
+	/**
+	 * Start recording the transitions of the bundles
+	 *
+	 * @param bundleContext
+	 */
+	public void start(BundleContext bundleContext) {
+		synchronized (myLock) {
+			this.bundleContext = bundleContext;
+			bundleListener = new SynchronousBundleListener() {
+				public void bundleChanged(BundleEvent event) {
+					StartupTimeline.this.bundleChanged(event);
+				}
+			};
+			frameworkListener = new FrameworkListener() {
+				public void frameworkEvent(FrameworkEvent event) {
+					if (event.getType() == FrameworkEvent.STARTED || event.getType() == FrameworkEvent.STARTLEVEL_CHANGED) {
+						startupEnded = true;
+					}
+				}
+			};
+			bundleContext.addBundleListener(bundleListener);
+			bundleContext.addFrameworkListener(frameworkListener);
+			if (bundleContext.getBundle(0).getState() == Bundle.ACTIVE) {
+				startupEnded = true;
+			}
+		}
+	}
+
+	/**
+	 * Stop recording the transitions of the bundles
+	 */
+	public void stop() {
+		synchronized (myLock) {
+			if (bundleContext != null) {
+				bundleContext.removeBundleListener(bundleListener);
+				bundleContext.removeFrameworkListener(frameworkListener);
+				bundleContext = null;
+			}
+		}
+	}
+
+	/**
+	 * Forget the recorded transitions and restart the clock, the starts being
+	 * activations of a new startup until the next start level change
+	 */
+	public void reset() {
+		origin = System.nanoTime();
+		startupEnded = false;
+		pendingStarts.clear();
+		pendingStops.clear();
+		activations.clear();
+		restarts.clear();
+		deactivations.clear();
+	}
+
+	/**
+	 * Answer the slowest starts of bundles, slowest first
+	 *
+	 * @param limit - the maximum number of starts
+	 * @return the starts
+	 */
+	public List<Transition> slowestActivations(int limit) {
+		return slowest(activations.values(), limit);
+	}
+
+	/**
+	 * Answer the slowest starts of bundles after the startup ended, slowest first
+	 *
+	 * @param limit - the maximum number of starts
+	 * @return the starts
+	 */
+	public List<Transition> slowestRestarts(int limit) {
+		return slowest(restarts.values(), limit);
+	}
+
+	/**
+	 * Answer the slowest stops of bundles, slowest first
+	 *
+	 * @param limit - the maximum number of stops
+	 * @return the stops
+	 */
+	public List<Transition> slowestDeactivations(int limit) {
+		return slowest(deactivations.values(), limit);
+	}
+
+	/**
+	 * Answer the activations of the startup grouped by start level, in the order the
+	 * framework goes through the levels. A level is not reached before the
+	 * bundles of the previous level are started, so the startup takes at least
+	 * the sum of the durations of the levels, and the slowest activation of
+	 * each level bounds the duration of its level.
+	 *
+	 * @return the levels in which bundles started
+	 */
+	public List<Level> levels() {
+		Map<Integer, Level> levels = new TreeMap<Integer, Level>();
+		for (Transition activation : activations.values()) {
+			Level level = levels.get(activation.startLevel);
+			if (level == null) {
+				level = new Level(activation.startLevel);
+				levels.put(activation.startLevel, level);
+			}
+			level.add(activation);
+		}
+		return new ArrayList<Level>(levels.values());
+	}
+
+	private void bundleChanged(BundleEvent event) {
+		long now = System.nanoTime();
+		Bundle bundle = event.getBundle();
+		switch (event.getType()) {
+			case BundleEvent.STARTING:
+				pendingStarts.put(bundle.getBundleId(), now);
+				break;
+			case BundleEvent.LAZY_ACTIVATION:
+				lazyStarts.put(bundle.getBundleId(), Boolean.TRUE);
+				break;
+			case BundleEvent.STARTED:
+				Long began = pendingStarts.remove(bundle.getBundleId());
+				if (lazyStarts.remove(bundle.getBundleId()) == null) {
+					record(bundle, began, now, startupEnded ? restarts : activations);
+				}
+				break;
+			case BundleEvent.STOPPING:
+				pendingStops.put(bundle.getBundleId(), now);
+				break;
+			case BundleEvent.STOPPED:
+				lazyStarts.remove(bundle.getBundleId());
+				record(bundle, pendingStops.remove(bundle.getBundleId()), now, deactivations);
+				break;
+			case BundleEvent.UNINSTALLED:
+				pendingStarts.remove(bundle.getBundleId());
+				lazyStarts.remove(bundle.getBundleId());
+				pendingStops.remove(bundle.getBundleId());
+				break;
+			default:
+		}
+	}
+
+	private void record(Bundle bundle, Long began, long now, Map<Long, Transition> transitions) {
+		if (began == null) {
+			return;
+		}
+		long start = began - origin;
+		if (start < 0) {
+			// began before the last reset
+			return;
+		}
+		BundleStartLevel bundleStartLevel = bundle.adapt(BundleStartLevel.class);
+		int startLevel = bundleStartLevel == null ? 0 : bundleStartLevel.getStartLevel();
+		transitions.put(bundle.getBundleId(), new Transition(bundle.getBundleId(), bundle.getSymbolicName(), startLevel, start, now - began));
+	}
+
+	private static List<Transition> slowest(Collection<Transition> transitions, int limit) {
+		List<Transition> sorted = new ArrayList<Transition>(transitions);
+		Collections.sort(sorted, SLOWEST_FIRST);
+		return sorted.size() > limit ? new ArrayList<Transition>(sorted.subList(0, limit)) : sorted;
+	}
+
+}
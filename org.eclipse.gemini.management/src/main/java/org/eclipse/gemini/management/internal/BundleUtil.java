@@ -16,13 +16,18 @@
 package org.eclipse.gemini.management.internal;
 
 import java.io.IOException;
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 
 import org.eclipse.gemini.management.framework.internal.OSGiBundle;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.Constants;
 import org.osgi.framework.startlevel.BundleStartLevel;
+import org.osgi.framework.wiring.BundleCapability;
 import org.osgi.framework.wiring.BundleRevision;
 import org.osgi.framework.wiring.BundleWire;
 import org.osgi.framework.wiring.BundleWiring;
@@ -33,6 +38,12 @@ import org.osgi.framework.wiring.BundleWiring;
  */
 public final class BundleUtil {
 	private static final String FRAGMENT_HOST_HEADER = "Fragment-Host";
+
+	/**
+	 * The string representations of the package capabilities, which are
+	 * released with the revisions declaring them
+	 */
+	private static final Map<BundleCapability, String> PACKAGE_NAMES = Collections.synchronizedMap(new WeakHashMap<BundleCapability, String>());
 	
 	/**
 	 * Answer the string representation of the exported packages of the bundle
@@ -46,15 +57,7 @@ public final class BundleUtil {
 		if (wiring == null) {
 			return new String[0];
 		}
-		List<BundleWire> providedWires = wiring.getProvidedWires(BundleRevision.PACKAGE_NAMESPACE);
-		List<String> packages = new ArrayList<String>();
-        for(BundleWire wire: providedWires){
-        	String packageName = String.format("%s;%s", wire.getCapability().getAttributes().get(BundleRevision.PACKAGE_NAMESPACE), wire.getCapability().getAttributes().get(Constants.VERSION_ATTRIBUTE));
-        	if(!packages.contains(packageName)){
-        		packages.add(packageName);
-        	}
-        }
-        return packages.toArray(new String[packages.size()]);
+		return packageNames(wiring.getProvidedWires(BundleRevision.PACKAGE_NAMESPACE));
 	}
 
 	/**
@@ -70,15 +73,41 @@ public final class BundleUtil {
 		if (wiring == null) {
 			return new String[0];
 		}
-		List<BundleWire> requiredWires = wiring.getRequiredWires(BundleRevision.PACKAGE_NAMESPACE);
-        List<String> packages = new ArrayList<String>();
-        for(BundleWire requiredWire: requiredWires){
-            String packageName = String.format("%s;%s", requiredWire.getCapability().getAttributes().get(BundleRevision.PACKAGE_NAMESPACE), requiredWire.getCapability().getAttributes().get(Constants.VERSION_ATTRIBUTE));
-            if(!packages.contains(packageName)){
-                packages.add(packageName);
-            }
-        }
-        return packages.toArray(new String[packages.size()]);
+		return packageNames(wiring.getRequiredWires(BundleRevision.PACKAGE_NAMESPACE));
+	}
+
+	/**
+	 * Answer the distinct packages wired by the supplied package wires, in the
+	 * order of the wires
+	 * 
+	 * @param wires
+	 * @return the packages, in the form of <packageName>;<version>
+	 */
+	public static String[] packageNames(List<BundleWire> wires) {
+		Set<String> packages = new LinkedHashSet<String>();
+		for (BundleWire wire : wires) {
+			packages.add(packageName(wire));
+		}
+		return packages.toArray(new String[packages.size()]);
+	}
+
+	/**
+	 * Answer the string representation of the package wired by a package wire.
+	 * The string is built once per package capability, and shared by every
+	 * wire to that capability.
+	 * 
+	 * @param wire
+	 * @return the package, in the form of <packageName>;<version>
+	 */
+	public static String packageName(BundleWire wire) {
+		BundleCapability capability = wire.getCapability();
+		String packageName = PACKAGE_NAMES.get(capability);
+		if (packageName == null) {
+			Map<String, Object> attributes = capability.getAttributes();
+			packageName = new StringBuilder().append(attributes.get(BundleRevision.PACKAGE_NAMESPACE)).append(';').append(attributes.get(Constants.VERSION_ATTRIBUTE)).toString();
+			PACKAGE_NAMES.put(capability, packageName);
+		}
+		return packageName;
 	}
 
 	/**
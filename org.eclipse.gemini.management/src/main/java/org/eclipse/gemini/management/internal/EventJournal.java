@@ -0,0 +1,366 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.osgi.framework.BundleContext;
+
+/**
+ * A journal of the bundle and service events, kept in a memory-mapped file so
+ * that it survives the process which wrote it.
+ * <p>
+ * The journal is enabled by setting the framework property
+ * {@value #FILE_PROPERTY} to the path of the file, a relative path being
+ * resolved in the data area of the management bundle. The file holds a header
+ * and a ring of {@value #DEFAULT_CAPACITY} fixed-size records, or the number
+ * set by {@value #CAPACITY_PROPERTY}. The record with sequence number
+ * <code>n</code> is written in the slot <code>n</code> modulo the capacity, so
+ * the file never grows and the oldest records are overwritten first. A journal
+ * reopened with the same capacity continues after its last record.
+ * <p>
+ * An append reserves its sequence number with an atomic increment and writes
+ * the record with absolute puts, so it takes no lock and allocates nothing. The
+ * sequence marker of a record is cleared while the record is written, readers
+ * skip the records whose marker does not match the slot.
+ * <p>
+ * The file is one fixed ring, it is never rotated into other files. Two
+ * appends whose sequence numbers are the capacity apart write the same slot,
+ * so an append delayed in the middle of its record while as many other
+ * appends as the capacity are made may interleave its writes with the append
+ * which reuses the slot, leaving the slot with a record mixing the two under the
+ * marker of whichever finished last. This is not guarded against, since it
+ * takes an append to stall for a whole lap of the ring, so the capacity
+ * should be large compared to the number of events delivered concurrently.
+ * <p>
+ * This class is thread safe
+ */
+public final class EventJournal {
+
+	/**
+	 * The framework property giving the path of the journal file
+	 */
+	public static final String FILE_PROPERTY = "org.eclipse.gemini.management.journal.file";
+
+	/**
+	 * The framework property giving the number of records in the journal file
+	 */
+	public static final String CAPACITY_PROPERTY = "org.eclipse.gemini.management.journal.capacity";
+
+	/**
+	 * The number of records when the capacity is not configured
+	 */
+	public static final int DEFAULT_CAPACITY = 65536;
+
+	/**
+	 * The kind of the records of bundle events
+	 */
+	public static final int BUNDLE_EVENT = 1;
+
+	/**
+	 * The kind of the records of service events
+	 */
+	public static final int SERVICE_EVENT = 2;
+
+	private static final int MAGIC = 0x474d4a31;
+
+	private static final int HEADER_SIZE = 16;
+
+	private static final int RECORD_SIZE = 40;
+
+	private static final int MARKER = 0;
+
+	private static final int TIME = 8;
+
+	private static final int BUNDLE_ID = 16;
+
+	private static final int SERVICE_ID = 24;
+
+	private static final int KIND = 32;
+
+	private static final int TYPE = 36;
+
+	private final File file;
+
+	private final int capacity;
+
+	private final AtomicLong nextSequence = new AtomicLong();
+
+	private volatile MappedByteBuffer buffer;
+
+	/**
+	 * A record read back from the journal
+	 */
+	public static final class Record {
+
+		private final long sequence;
+
+		private final long time;
+
+		private final int kind;
+
+		private final int type;
+
+		private final long bundleId;
+
+		private final long serviceId;
+
+		Record(long sequence, long time, int kind, int type, long bundleId, long serviceId) {
+			this.sequence = sequence;
+			this.time = time;
+			this.kind = kind;
+			this.type = type;
+			this.bundleId = bundleId;
+			this.serviceId = serviceId;
+		}
+
+		/**
+		 * @return the sequence number of the record
+		 */
+		public long getSequence() {
+			return sequence;
+		}
+
+		/**
+		 * @return the time of the event, in milliseconds since the epoch
+		 */
+		public long getTime() {
+			return time;
+		}
+
+		/**
+		 * @return {@link EventJournal#BUNDLE_EVENT} or {@link EventJournal#SERVICE_EVENT}
+		 */
+		public int getKind() {
+			return kind;
+		}
+
+		/**
+		 * @return the type of the event, one of the BundleEvent or ServiceEvent type constants
+		 */
+		public int getType() {
+			return type;
+		}
+
+		/**
+		 * @return the identifier of the bundle, for a service event the bundle which registered the service
+		 */
+		public long getBundleId() {
+			return bundleId;
+		}
+
+		/**
+		 * @return the identifier of the service, -1 for a bundle event
+		 */
+		public long getServiceId() {
+			return serviceId;
+		}
+
+	}
+
+	/**
+	 * Answer a journal configured by the framework properties
+	 *
+	 * @param bundleContext
+	 * @return the journal
+	 */
+	public static EventJournal fromProperties(BundleContext bundleContext) {
+		String fileProperty = bundleContext.getProperty(FILE_PROPERTY);
+		if (fileProperty == null) {
+			return new EventJournal(null, 0);
+		}
+		File journalFile = new File(fileProperty.trim());
+		if (!journalFile.isAbsolute()) {
+			journalFile = bundleContext.getDataFile(fileProperty.trim());
+		}
+		String capacityProperty = bundleContext.getProperty(CAPACITY_PROPERTY);
+		try {
+			return new EventJournal(journalFile, capacityProperty == null ? DEFAULT_CAPACITY : Integer.parseInt(capacityProperty.trim()));
+		} catch (NumberFormatException e) {
+			return new EventJournal(journalFile, DEFAULT_CAPACITY);
+		}
+	}
+
+	/**
+	 * Construct a journal. The journal is disabled unless the file is not null
+	 * and the capacity is positive.
+	 *
+	 * @param file - the journal file
+	 * @param capacity - the number of records in the file
+	 */
+	public EventJournal(File file, int capacity) {
+		this.file = capacity > 0 ? file : null;
+		this.capacity = Math.min(Math.max(capacity, 0), (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE);
+	}
+
+	/**
+	 * @return true if the events have to be journaled
+	 */
+	public boolean isEnabled() {
+		return file != null;
+	}
+
+	/**
+	 * @return the number of records in the journal file
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return the sequence number of the last record appended, -1 if none was
+	 */
+	public long getLastSequence() {
+		return nextSequence.get() - 1;
+	}
+
+	/**
+	 * Map the journal file, creating it if needed, and continue after its
+	 * last record if its layout matches
+	 *
+	 * @throws IOException
+	 */
+	public synchronized void open() throws IOException {
+		if (!isEnabled() || buffer != null) {
+			return;
+		}
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+			throw new IOException("Cannot create the directory of the event journal " + file);
+		}
+		long size = HEADER_SIZE + (long) capacity * RECORD_SIZE;
+		RandomAccessFile journalFile = new RandomAccessFile(file, "rw");
+		try {
+			boolean reusable = journalFile.length() == size;
+			journalFile.setLength(size);
+			MappedByteBuffer mapped = journalFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+			if (!reusable || mapped.getInt(0) != MAGIC || mapped.getInt(4) != RECORD_SIZE || mapped.getLong(8) != capacity) {
+				for (int position = 0; position < size; position += 8) {
+					mapped.putLong(position, 0);
+				}
+				mapped.putInt(0, MAGIC);
+				mapped.putInt(4, RECORD_SIZE);
+				mapped.putLong(8, capacity);
+			}
+			long last = -1;
+			for (int slot = 0; slot < capacity; slot++) {
+				last = Math.max(last, mapped.getLong(HEADER_SIZE + slot * RECORD_SIZE + MARKER) - 1);
+			}
+			nextSequence.set(last + 1);
+			buffer = mapped;
+		} finally {
+			// the mapping stays valid once the file is closed
+			journalFile.close();
+		}
+	}
+
+	/**
+	 * Flush the journal file and stop appending to it
+	 */
+	public synchronized void close() {
+		if (buffer != null) {
+			buffer.force();
+			buffer = null;
+		}
+	}
+
+	/**
+	 * Append the record of an event. Nothing is appended while the journal is
+	 * not open. The record may be mixed with a later one if the append is
+	 * delayed while as many other appends as the capacity are made.
+	 *
+	 * @param kind - {@link #BUNDLE_EVENT} or {@link #SERVICE_EVENT}
+	 * @param type - the type of the event
+	 * @param bundleId - the identifier of the bundle
+	 * @param serviceId - the identifier of the service, -1 for a bundle event
+	 */
+	public void append(int kind, int type, long bundleId, long serviceId) {
+		MappedByteBuffer mapped = buffer;
+		if (mapped == null) {
+			return;
+		}
+		long sequence = nextSequence.getAndIncrement();
+		int position = HEADER_SIZE + (int) (sequence % capacity) * RECORD_SIZE;
+		mapped.putLong(position + MARKER, 0);
+		mapped.putLong(position + TIME, System.currentTimeMillis());
+		mapped.putLong(position + BUNDLE_ID, bundleId);
+		mapped.putLong(position + SERVICE_ID, serviceId);
+		mapped.putInt(position + KIND, kind);
+		mapped.putInt(position + TYPE, type);
+		mapped.putLong(position + MARKER, sequence + 1);
+	}
+
+	/**
+	 * Answer the records whose sequence number is in the supplied range, in
+	 * order
+	 *
+	 * @param fromSequence - the first sequence number, inclusive
+	 * @param toSequence - the last sequence number, inclusive
+	 * @return the records still held by the journal
+	 */
+	public List<Record> readSequences(long fromSequence, long toSequence) {
+		MappedByteBuffer mapped = buffer;
+		if (mapped == null) {
+			return Collections.emptyList();
+		}
+		long last = getLastSequence();
+		long first = Math.max(Math.max(fromSequence, last - capacity + 1), 0);
+		List<Record> records = new ArrayList<Record>();
+		for (long sequence = first; sequence <= Math.min(toSequence, last); sequence++) {
+			Record record = read(mapped, sequence);
+			if (record != null) {
+				records.add(record);
+			}
+		}
+		return records;
+	}
+
+	/**
+	 * Answer the records whose time is in the supplied range, in order
+	 *
+	 * @param fromTime - the first time, inclusive, in milliseconds since the epoch
+	 * @param toTime - the last time, inclusive, in milliseconds since the epoch
+	 * @return the records still held by the journal
+	 */
+	public List<Record> readTimes(long fromTime, long toTime) {
+		List<Record> records = new ArrayList<Record>();
+		for (Record record : readSequences(0, Long.MAX_VALUE)) {
+			if (record.getTime() >= fromTime && record.getTime() <= toTime) {
+				records.add(record);
+			}
+		}
+		return records;
+	}
+
+	private Record read(MappedByteBuffer mapped, long sequence) {
+		int position = HEADER_SIZE + (int) (sequence % capacity) * RECORD_SIZE;
+		if (mapped.getLong(position + MARKER) != sequence + 1) {
+			return null;
+		}
+		Record record = new Record(sequence, mapped.getLong(position + TIME), mapped.getInt(position + KIND), mapped.getInt(position + TYPE), mapped.getLong(position + BUNDLE_ID), mapped.getLong(position + SERVICE_ID));
+		// the record was overwritten while it was read
+		return mapped.getLong(position + MARKER) == sequence + 1 ? record : null;
+	}
+
+}
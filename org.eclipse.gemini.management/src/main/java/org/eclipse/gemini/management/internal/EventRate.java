@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.internal;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The rate of some events over the last seconds.
+ * <p>
+ * The events are counted in one slot per second over the last {@value #WINDOW}
+ * seconds, in {@link StripedCounters} so the threads marking them do not
+ * contend, and the rate is reported over the complete seconds among them. A
+ * slot is reused once its second has passed out of the window.
+ * <p>
+ * This class is thread safe
+ */
+public final class EventRate {
+
+	/**
+	 * The number of seconds over which the rate is measured, including the current one
+	 */
+	public static final int WINDOW = 11;
+
+	private final StripedCounters perSecond = new StripedCounters(WINDOW);
+
+	private final AtomicLongArray seconds = new AtomicLongArray(WINDOW);
+
+	/**
+	 * Count one event in the current second
+	 */
+	public void mark() {
+		long second = System.currentTimeMillis() / 1000;
+		int slot = (int) (second % WINDOW);
+		long slotSecond = seconds.get(slot);
+		if (slotSecond != second && seconds.compareAndSet(slot, slotSecond, second)) {
+			perSecond.reset(slot);
+		}
+		perSecond.increment(slot);
+	}
+
+	/**
+	 * Answer the number of events per second over the last complete seconds
+	 *
+	 * @return the rate of the events
+	 */
+	public double rate() {
+		long now = System.currentTimeMillis() / 1000;
+		long events = 0;
+		for (int slot = 0; slot < WINDOW; slot++) {
+			long slotSecond = seconds.get(slot);
+			if (slotSecond < now && slotSecond >= now - (WINDOW - 1)) {
+				events += perSecond.sum(slot);
+			}
+		}
+		return (double) events / (WINDOW - 1);
+	}
+
+	/**
+	 * Forget the counted events
+	 */
+	public void reset() {
+		for (int slot = 0; slot < WINDOW; slot++) {
+			seconds.set(slot, 0);
+			perSecond.reset(slot);
+		}
+	}
+
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Filter;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.InvalidSyntaxException;
+
+/**
+ * A bounded cache of the compiled LDAP filters, keyed by filter string. The
+ * least recently used filters are dropped first.
+ * <p>
+ * Management clients poll with the same few filters over and over, so the
+ * queries evaluate a cached filter instead of parsing the string again. A
+ * filter never changes once compiled, so a cached filter never needs to be
+ * invalidated. The hits and misses are counted to tell whether the cache is
+ * large enough. Invalid filters are not cached.
+ * <p>
+ * This class is thread safe
+ */
+public final class FilterCache {
+
+	/**
+	 * The framework property giving the maximum number of cached filters
+	 */
+	public static final String SIZE_PROPERTY = "org.eclipse.gemini.management.filters.cacheSize";
+
+	/**
+	 * The maximum number of cached filters when the framework property is not set
+	 */
+	public static final int DEFAULT_SIZE = 128;
+
+	private final Map<String, Filter> filters;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Answer the cache sized by the framework properties
+	 *
+	 * @param bundleContext
+	 * @return the cache
+	 */
+	public static FilterCache fromProperties(BundleContext bundleContext) {
+		String sizeProperty = bundleContext.getProperty(SIZE_PROPERTY);
+		if (sizeProperty != null) {
+			try {
+				return new FilterCache(Integer.parseInt(sizeProperty.trim()));
+			} catch (NumberFormatException e) {
+				// fall back to the default size
+			}
+		}
+		return new FilterCache(DEFAULT_SIZE);
+	}
+
+	/**
+	 * Construct a cache holding at most <code>size</code> filters. A size
+	 * which is not positive disables the cache.
+	 *
+	 * @param size - the maximum number of cached filters
+	 */
+	public FilterCache(final int size) {
+		this.filters = new LinkedHashMap<String, Filter>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Filter> eldest) {
+				return size() > size;
+			}
+		};
+	}
+
+	/**
+	 * Answer the compiled filter of the supplied string
+	 *
+	 * @param filter - the filter string
+	 * @return the filter
+	 * @throws InvalidSyntaxException
+	 *             if the filter string is invalid
+	 */
+	public Filter get(String filter) throws InvalidSyntaxException {
+		synchronized (filters) {
+			Filter compiled = filters.get(filter);
+			if (compiled != null) {
+				hits.incrementAndGet();
+				return compiled;
+			}
+		}
+		misses.incrementAndGet();
+		Filter compiled = FrameworkUtil.createFilter(filter);
+		synchronized (filters) {
+			filters.put(filter, compiled);
+		}
+		return compiled;
+	}
+
+	/**
+	 * @return the number of filters found in the cache
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return the number of filters compiled because they were not in the cache
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * @return the number of cached filters
+	 */
+	public int size() {
+		synchronized (filters) {
+			return filters.size();
+		}
+	}
+
+}
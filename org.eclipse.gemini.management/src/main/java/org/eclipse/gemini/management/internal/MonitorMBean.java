@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.internal;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardEmitterMBean;
+
+import org.eclipse.gemini.management.Monitor;
+
+/**
+ * The StandardMBean used to register a {@link Monitor}.
+ * <p>
+ * A plain StandardMBean neither forwards the MBeanRegistration callbacks to the
+ * object it wraps nor emits its notifications. This class does both, so the
+ * monitor installs its listeners when it is registered and removes them when it
+ * is deregistered. The same MBean may be registered in several MBeanServers,
+ * the monitor counting its registrations.
+ */
+public final class MonitorMBean extends StandardEmitterMBean {
+
+	private final Monitor monitor;
+
+	/**
+	 * Construct the MBean for the supplied monitor
+	 *
+	 * @param monitor - the monitor, which must implement the management interface
+	 * @param mbeanInterface - the management interface
+	 * @throws IllegalArgumentException if the monitor is not a compliant implementation of the interface
+	 */
+	public <T> MonitorMBean(Monitor monitor, Class<T> mbeanInterface) {
+		super(mbeanInterface.cast(monitor), mbeanInterface, monitor);
+		this.monitor = monitor;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ObjectName preRegister(MBeanServer server, ObjectName name) throws Exception {
+		return super.preRegister(server, monitor.preRegister(server, name));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void postRegister(Boolean registrationDone) {
+		super.postRegister(registrationDone);
+		monitor.postRegister(registrationDone);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void preDeregister() throws Exception {
+		monitor.preDeregister();
+		super.preDeregister();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void postDeregister() {
+		super.postDeregister();
+		monitor.postDeregister();
+	}
+
+}
@@ -0,0 +1,269 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.internal;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import javax.management.openmbean.CompositeData;
+
+import org.osgi.framework.BundleContext;
+
+/**
+ * Collects the events of a monitor into batches, so that a single notification
+ * carries many events.
+ * <p>
+ * Batching is enabled by setting the framework property
+ * {@value #SIZE_PROPERTY} to the largest number of events in a batch, or
+ * {@value #WINDOW_PROPERTY} to the longest time, in milliseconds, an event
+ * waits for its batch to be sent. A batch is sent as soon as either limit is
+ * reached. A property which is not set defaults to {@value #DEFAULT_SIZE}
+ * events or {@value #DEFAULT_WINDOW} milliseconds.
+ * <p>
+ * A complete batch is queued and sent by the timer thread which also ends the
+ * windows, the thread adding the event that completed it only queues it. A
+ * slow sink therefore never holds up the threads adding events, which are the
+ * event delivery threads of the framework. The batches are sent one at a time,
+ * in order.
+ * <p>
+ * This class is thread safe
+ */
+public final class NotificationBatcher {
+
+	/**
+	 * The framework property giving the largest number of events in a batch
+	 */
+	public static final String SIZE_PROPERTY = "org.eclipse.gemini.management.notifications.batch.size";
+
+	/**
+	 * The framework property giving the longest time an event waits for its batch, in milliseconds
+	 */
+	public static final String WINDOW_PROPERTY = "org.eclipse.gemini.management.notifications.batch.window";
+
+	/**
+	 * The largest number of events in a batch when only the window is configured
+	 */
+	public static final int DEFAULT_SIZE = 1000;
+
+	/**
+	 * The window of a batch when only the size is configured
+	 */
+	public static final long DEFAULT_WINDOW = 100;
+
+	/**
+	 * Sends the batches
+	 */
+	public interface Sink {
+
+		/**
+		 * @param type - the type of the events of the batch
+		 * @param sequence - the sequence number of the first event of the batch
+		 * @param events - the events of the batch, in the order they occurred
+		 */
+		void send(String type, long sequence, CompositeData[] events);
+
+	}
+
+	private final int size;
+
+	private final long window;
+
+	private final Object myLock = new Object();
+
+	private final List<CompositeData> events = new ArrayList<CompositeData>();
+
+	/**
+	 * The complete batches not sent yet, guarded by myLock
+	 */
+	private final LinkedList<Batch> complete = new LinkedList<Batch>();
+
+	private String type;
+
+	private long sequence;
+
+	private long batches;
+
+	private Sink sink;
+
+	private Timer timer;
+
+	/**
+	 * Answer a batcher configured by the framework properties
+	 *
+	 * @param bundleContext
+	 * @return the batcher
+	 */
+	public static NotificationBatcher fromProperties(BundleContext bundleContext) {
+		String sizeProperty = bundleContext.getProperty(SIZE_PROPERTY);
+		String windowProperty = bundleContext.getProperty(WINDOW_PROPERTY);
+		if (sizeProperty == null && windowProperty == null) {
+			return new NotificationBatcher(0, 0);
+		}
+		try {
+			int size = sizeProperty == null ? DEFAULT_SIZE : Integer.parseInt(sizeProperty.trim());
+			long window = windowProperty == null ? DEFAULT_WINDOW : Long.parseLong(windowProperty.trim());
+			return new NotificationBatcher(size, window);
+		} catch (NumberFormatException e) {
+			return new NotificationBatcher(0, 0);
+		}
+	}
+
+	/**
+	 * Construct a batcher. Batching is disabled unless both the size and the
+	 * window are positive.
+	 *
+	 * @param size - the largest number of events in a batch
+	 * @param window - the longest time an event waits for its batch, in milliseconds
+	 */
+	public NotificationBatcher(int size, long window) {
+		this.size = size;
+		this.window = window;
+	}
+
+	/**
+	 * @return true if the events have to be batched
+	 */
+	public boolean isEnabled() {
+		return size > 0 && window > 0;
+	}
+
+	/**
+	 * Add an event to the current batch, sending the batch if it is full or
+	 * holds events of another type
+	 *
+	 * @param eventType - the type of the event
+	 * @param eventSequence - the sequence number of the event
+	 * @param event - the event
+	 */
+	public void add(String eventType, long eventSequence, CompositeData event) {
+		synchronized (myLock) {
+			if (sink == null) {
+				return;
+			}
+			if (!events.isEmpty() && !eventType.equals(type)) {
+				flush();
+			}
+			if (events.isEmpty()) {
+				type = eventType;
+				sequence = eventSequence;
+				final long batch = ++batches;
+				timer.schedule(new TimerTask() {
+					public void run() {
+						synchronized (myLock) {
+							if (batch == batches) {
+								flush();
+							}
+						}
+					}
+				}, window);
+			}
+			events.add(event);
+			if (events.size() >= size) {
+				flush();
+			}
+		}
+	}
+
+	/**
+	 * Start batching, the batches being sent to the supplied sink
+	 *
+	 * @param name - the name of the thread sending the batches
+	 * @param batchSink - the sink of the batches
+	 */
+	public void start(String name, Sink batchSink) {
+		if (!isEnabled()) {
+			return;
+		}
+		synchronized (myLock) {
+			if (sink == null) {
+				sink = batchSink;
+				timer = new Timer(name, true);
+			}
+		}
+	}
+
+	/**
+	 * Stop batching and drop the current batch
+	 */
+	public void stop() {
+		synchronized (myLock) {
+			if (timer != null) {
+				timer.cancel();
+				timer = null;
+			}
+			sink = null;
+			events.clear();
+			complete.clear();
+		}
+	}
+
+	/**
+	 * Queue the current batch and have the timer thread send it, the caller
+	 * holds myLock
+	 */
+	private void flush() {
+		if (events.isEmpty()) {
+			return;
+		}
+		complete.add(new Batch(type, sequence, events.toArray(new CompositeData[events.size()])));
+		events.clear();
+		// a window still open for the queued batch must not queue the next one
+		batches++;
+		timer.schedule(new TimerTask() {
+			public void run() {
+				sendComplete();
+			}
+		}, 0);
+	}
+
+	/**
+	 * Send the queued batches, on the timer thread only
+	 */
+	private void sendComplete() {
+		while (true) {
+			Batch batch;
+			Sink batchSink;
+			synchronized (myLock) {
+				batch = complete.poll();
+				batchSink = sink;
+			}
+			if (batch == null || batchSink == null) {
+				return;
+			}
+			batchSink.send(batch.type, batch.sequence, batch.events);
+		}
+	}
+
+	private static final class Batch {
+
+		final String type;
+
+		final long sequence;
+
+		final CompositeData[] events;
+
+		Batch(String type, long sequence, CompositeData[] events) {
+			this.type = type;
+			this.sequence = sequence;
+			this.events = events;
+		}
+
+	}
+
+}
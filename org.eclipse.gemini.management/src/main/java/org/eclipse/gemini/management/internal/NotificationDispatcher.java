@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.internal;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.log.LogService;
+
+/**
+ * Runs the jobs which encode and send the notifications of a monitor.
+ * <p>
+ * By default the jobs run on the thread delivering the framework event. When
+ * the framework property {@value #QUEUE_PROPERTY} is set to a positive
+ * capacity, the jobs are queued and run one after the other on a dedicated
+ * daemon thread, so a slow notification listener never holds up the event
+ * delivery of the framework. When the queue is full a job is dropped, the
+ * oldest queued one unless the framework property {@value #OVERFLOW_PROPERTY}
+ * is set to {@value #DROP_NEWEST}, in which case the new one is dropped. A
+ * queued job which fails is logged to the LogService, if there is one, and
+ * does not stop the following ones.
+ * <p>
+ * This class is thread safe
+ */
+public final class NotificationDispatcher {
+
+	/**
+	 * The framework property giving the capacity of the notification queue
+	 */
+	public static final String QUEUE_PROPERTY = "org.eclipse.gemini.management.notifications.queue";
+
+	/**
+	 * The framework property giving the job dropped when the notification queue is full
+	 */
+	public static final String OVERFLOW_PROPERTY = "org.eclipse.gemini.management.notifications.overflow";
+
+	/**
+	 * The overflow policy dropping the oldest queued job
+	 */
+	public static final String DROP_OLDEST = "drop-oldest";
+
+	/**
+	 * The overflow policy dropping the new job
+	 */
+	public static final String DROP_NEWEST = "drop-newest";
+
+	private final BlockingQueue<Runnable> queue;
+
+	private final boolean dropNewest;
+
+	private final AtomicLong dropped = new AtomicLong();
+
+	private final BundleContext bundleContext;
+
+	private final Object myLock = new Object();
+
+	private Thread dispatcher;
+
+	/**
+	 * Answer a dispatcher configured by the framework properties
+	 *
+	 * @param bundleContext
+	 * @return the dispatcher
+	 */
+	public static NotificationDispatcher fromProperties(BundleContext bundleContext) {
+		String queueProperty = bundleContext.getProperty(QUEUE_PROPERTY);
+		int capacity = 0;
+		if (queueProperty != null) {
+			try {
+				capacity = Integer.parseInt(queueProperty.trim());
+			} catch (NumberFormatException e) {
+				// dispatch synchronously
+			}
+		}
+		return new NotificationDispatcher(capacity, DROP_NEWEST.equals(bundleContext.getProperty(OVERFLOW_PROPERTY)), bundleContext);
+	}
+
+	/**
+	 * Construct a dispatcher which does not log the failed jobs
+	 *
+	 * @param capacity - the capacity of the queue, the jobs run synchronously if it is not positive
+	 * @param dropNewest - true to drop the new job rather than the oldest when the queue is full
+	 */
+	public NotificationDispatcher(int capacity, boolean dropNewest) {
+		this(capacity, dropNewest, null);
+	}
+
+	/**
+	 * Construct a dispatcher
+	 *
+	 * @param capacity - the capacity of the queue, the jobs run synchronously if it is not positive
+	 * @param dropNewest - true to drop the new job rather than the oldest when the queue is full
+	 * @param bundleContext - the context of the bundle logging the failed jobs, or <code>null</code>
+	 */
+	public NotificationDispatcher(int capacity, boolean dropNewest, BundleContext bundleContext) {
+		this.queue = capacity > 0 ? new ArrayBlockingQueue<Runnable>(capacity) : null;
+		this.dropNewest = dropNewest;
+		this.bundleContext = bundleContext;
+	}
+
+	/**
+	 * Run the supplied job, or queue it for the dispatcher thread
+	 *
+	 * @param job - the job encoding and sending a notification
+	 */
+	public void dispatch(Runnable job) {
+		if (queue == null) {
+			job.run();
+			return;
+		}
+		while (!queue.offer(job)) {
+			if (dropNewest) {
+				dropped.incrementAndGet();
+				return;
+			}
+			if (queue.poll() != null) {
+				dropped.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * @return the number of jobs dropped because the queue was full
+	 */
+	public long getDroppedCount() {
+		return dropped.get();
+	}
+
+	/**
+	 * Start the dispatcher thread, if the jobs are queued and it is not running already
+	 *
+	 * @param name - the name of the thread
+	 */
+	public void start(String name) {
+		if (queue == null) {
+			return;
+		}
+		synchronized (myLock) {
+			if (dispatcher != null) {
+				return;
+			}
+			dispatcher = new Thread(new Runnable() {
+				public void run() {
+					dispatchQueued();
+				}
+			}, name);
+			dispatcher.setDaemon(true);
+			dispatcher.start();
+		}
+	}
+
+	/**
+	 * Stop the dispatcher thread and drop the queued jobs
+	 */
+	public void stop() {
+		if (queue == null) {
+			return;
+		}
+		synchronized (myLock) {
+			if (dispatcher != null) {
+				dispatcher.interrupt();
+				dispatcher = null;
+			}
+			queue.clear();
+		}
+	}
+
+	private void dispatchQueued() {
+		while (!Thread.currentThread().isInterrupted()) {
+			Runnable job;
+			try {
+				job = queue.take();
+			} catch (InterruptedException e) {
+				return;
+			}
+			try {
+				job.run();
+			} catch (RuntimeException e) {
+				// a notification which cannot be sent must not stop the following ones
+				log(LogService.LOG_ERROR, "Cannot send a notification from " + Thread.currentThread().getName(), e);
+			}
+		}
+	}
+
+	private void log(int level, String message, Throwable t) {
+		if (bundleContext == null) {
+			return;
+		}
+		try {
+			ServiceReference<LogService> reference = bundleContext.getServiceReference(LogService.class);
+			if (reference == null) {
+				return;
+			}
+			LogService logger = bundleContext.getService(reference);
+			if (logger != null) {
+				try {
+					logger.log(level, message, t);
+				} finally {
+					bundleContext.ungetService(reference);
+				}
+			}
+		} catch (IllegalStateException e) {
+			// the bundle is stopping
+		}
+	}
+
+}
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.internal;
+
+import java.util.Arrays;
+
+import javax.management.openmbean.CompositeData;
+
+import org.osgi.framework.BundleContext;
+
+/**
+ * Retains the most recent encoded events of a monitor, so that a client which
+ * missed some notifications can ask for the events it missed.
+ * <p>
+ * The buffer is enabled by setting the framework property
+ * {@value #SIZE_PROPERTY} to the number of events to retain. The events are
+ * held in a ring of preallocated slots, the event with sequence number
+ * <code>n</code> being stored in the slot <code>n</code> modulo the size, so
+ * recording an event allocates nothing. An event which could not be encoded
+ * is recorded as lost, so that a replay running into it fails rather than
+ * silently skipping it.
+ * <p>
+ * This class is thread safe
+ */
+public final class NotificationReplayBuffer {
+
+	/**
+	 * The framework property giving the number of events retained for replay
+	 */
+	public static final String SIZE_PROPERTY = "org.eclipse.gemini.management.notifications.replay.size";
+
+	private static final CompositeData[] NO_EVENTS = new CompositeData[0];
+
+	private final long[] sequences;
+
+	private final CompositeData[] events;
+
+	private final Object myLock = new Object();
+
+	/**
+	 * Answer a buffer configured by the framework properties
+	 *
+	 * @param bundleContext
+	 * @return the buffer
+	 */
+	public static NotificationReplayBuffer fromProperties(BundleContext bundleContext) {
+		String sizeProperty = bundleContext.getProperty(SIZE_PROPERTY);
+		if (sizeProperty == null) {
+			return new NotificationReplayBuffer(0);
+		}
+		try {
+			return new NotificationReplayBuffer(Integer.parseInt(sizeProperty.trim()));
+		} catch (NumberFormatException e) {
+			return new NotificationReplayBuffer(0);
+		}
+	}
+
+	/**
+	 * Construct a buffer. The buffer is disabled unless the size is positive.
+	 *
+	 * @param size - the number of events to retain
+	 */
+	public NotificationReplayBuffer(int size) {
+		this.sequences = new long[Math.max(size, 0)];
+		this.events = new CompositeData[sequences.length];
+		Arrays.fill(sequences, -1);
+	}
+
+	/**
+	 * @return true if the events have to be retained
+	 */
+	public boolean isEnabled() {
+		return sequences.length > 0;
+	}
+
+	/**
+	 * Retain an event, in place of the event which is <code>size</code>
+	 * events older
+	 *
+	 * @param sequence - the sequence number of the event
+	 * @param event - the event
+	 */
+	public void record(long sequence, CompositeData event) {
+		if (!isEnabled()) {
+			return;
+		}
+		int slot = (int) (sequence % sequences.length);
+		synchronized (myLock) {
+			sequences[slot] = sequence;
+			events[slot] = event;
+		}
+	}
+
+	/**
+	 * Record that the event with the supplied sequence number was lost
+	 *
+	 * @param sequence - the sequence number of the lost event
+	 */
+	public void recordLost(long sequence) {
+		record(sequence, null);
+	}
+
+	/**
+	 * Answer the events which followed the supplied sequence number, up to the
+	 * last sequence number handed out, in order. The answer stops short of an
+	 * event which is still being recorded by the thread which took its
+	 * sequence number.
+	 *
+	 * @param sequence - the sequence number of the last event the caller has seen, -1 if it has seen none
+	 * @param last - the last sequence number handed out
+	 * @return the events which followed
+	 * @throws IllegalArgumentException
+	 *             if some of the events which followed are no longer retained
+	 *             or were lost, or if the sequence number was not handed out yet
+	 * @throws IllegalStateException
+	 *             if the buffer is disabled
+	 */
+	public CompositeData[] since(long sequence, long last) {
+		if (!isEnabled()) {
+			throw new IllegalStateException("The events are not retained for replay, the framework property " + SIZE_PROPERTY + " is not set");
+		}
+		if (sequence > last) {
+			// most likely a sequence number of the monitor before a restart
+			throw new IllegalArgumentException("The sequence number " + sequence + " was not handed out yet, the last one is " + last);
+		}
+		if (sequence == last) {
+			return NO_EVENTS;
+		}
+		if (sequence < -1 || last - sequence > sequences.length) {
+			throw new IllegalArgumentException("The events after sequence number " + sequence + " are no longer retained");
+		}
+		CompositeData[] replayed = new CompositeData[(int) (last - sequence)];
+		int count = 0;
+		synchronized (myLock) {
+			for (long next = sequence + 1; next <= last; next++) {
+				int slot = (int) (next % sequences.length);
+				if (sequences[slot] != next) {
+					if (sequences[slot] > next) {
+						throw new IllegalArgumentException("The events after sequence number " + sequence + " are no longer retained");
+					}
+					break;
+				}
+				if (events[slot] == null) {
+					throw new IllegalArgumentException("The event with sequence number " + next + " was lost");
+				}
+				replayed[count++] = events[slot];
+			}
+		}
+		return count == replayed.length ? replayed : Arrays.copyOf(replayed, count);
+	}
+
+}
@@ -150,6 +150,25 @@ public final class OSGiProperties {
 		return tableFrom(props);
 	}
 
+	/**
+	 * Answer the tabular data representation of the selected service
+	 * references properties. The keys the service does not have are left out.
+	 * 
+	 * @param ref
+	 * @param keys - the keys of the properties to select
+	 * @return the tabular data representing the selected properties
+	 */
+	public static TabularData tableFrom(ServiceReference<?> ref, List<String> keys) {
+		TabularDataSupport table = new TabularDataSupport(JmxConstants.PROPERTIES_TYPE);
+		for (String key : keys) {
+			Object value = ref.getProperty(key);
+			if (value != null) {
+				table.put(encode(key, value));
+			}
+		}
+		return table;
+	}
+
 	/**
 	 * Encode the key and value as composite data
 	 * 
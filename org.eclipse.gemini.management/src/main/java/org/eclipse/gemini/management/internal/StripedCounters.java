@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.internal;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A small fixed set of counters which many threads increment without
+ * contending with each other.
+ * <p>
+ * Each counter is split into one cell per stripe, a thread always adding to the
+ * cells of the stripe chosen by its identifier, and the value of a counter is
+ * the sum of its cells. The cells of a stripe are kept apart from those of the
+ * other stripes so that they do not share a cache line. A sum read while the
+ * counters are incremented may miss the latest increments.
+ * <p>
+ * This class is thread safe
+ */
+public final class StripedCounters {
+
+	/**
+	 * The number of longs between two stripes, a cache line of 64 bytes
+	 */
+	private static final int LINE = 8;
+
+	private static final int STRIPES = stripes();
+
+	private final int counters;
+
+	private final int stride;
+
+	private final AtomicLongArray cells;
+
+	/**
+	 * Construct the counters, all zero
+	 *
+	 * @param counters - the number of counters
+	 */
+	public StripedCounters(int counters) {
+		this.counters = counters;
+		this.stride = (counters + LINE - 1) / LINE * LINE;
+		this.cells = new AtomicLongArray(STRIPES * stride);
+	}
+
+	/**
+	 * Add one to a counter
+	 *
+	 * @param counter - the index of the counter
+	 */
+	public void increment(int counter) {
+		add(counter, 1);
+	}
+
+	/**
+	 * Add to a counter
+	 *
+	 * @param counter - the index of the counter
+	 * @param delta - the value to add
+	 */
+	public void add(int counter, long delta) {
+		int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+		cells.getAndAdd(stripe * stride + counter, delta);
+	}
+
+	/**
+	 * @param counter - the index of the counter
+	 * @return the value of the counter
+	 */
+	public long sum(int counter) {
+		long sum = 0;
+		for (int stripe = 0; stripe < STRIPES; stripe++) {
+			sum += cells.get(stripe * stride + counter);
+		}
+		return sum;
+	}
+
+	/**
+	 * Set a counter to zero. Increments made while it is reset may be lost.
+	 *
+	 * @param counter - the index of the counter
+	 */
+	public void reset(int counter) {
+		for (int stripe = 0; stripe < STRIPES; stripe++) {
+			cells.set(stripe * stride + counter, 0);
+		}
+	}
+
+	/**
+	 * @return the number of counters
+	 */
+	public int size() {
+		return counters;
+	}
+
+	private static int stripes() {
+		int processors = Math.min(Runtime.getRuntime().availableProcessors(), 16);
+		int stripes = 1;
+		while (stripes < processors) {
+			stripes <<= 1;
+		}
+		return stripes;
+	}
+
+}
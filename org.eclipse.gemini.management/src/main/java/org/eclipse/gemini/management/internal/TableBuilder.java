@@ -0,0 +1,236 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ * The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ * and the Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php.
+ * You may elect to redistribute this code under either of these licenses.
+ *
+ * Contributors:
+ *     Eclipse Gemini Management contributors
+ ******************************************************************************/
+
+package org.eclipse.gemini.management.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import javax.management.openmbean.TabularDataSupport;
+import javax.management.openmbean.TabularType;
+
+import org.osgi.framework.BundleContext;
+
+/**
+ * Builds the TabularData of a listing from its rows.
+ * <p>
+ * By default the rows are encoded one after the other on the calling thread.
+ * When the framework property {@value #PARALLELISM_PROPERTY} is set to more
+ * than one, large listings are split into that many slices which are encoded
+ * concurrently, the calling thread encoding one of them, and then merged into
+ * the table in their original order. The worker threads are daemon threads
+ * which are released after a minute without listings, or when the builder is
+ * {@link #shutdown()}, and created again by the next large listing.
+ * <p>
+ * This class is thread safe
+ */
+public final class TableBuilder {
+
+	/**
+	 * The framework property giving the number of threads used to encode a listing
+	 */
+	public static final String PARALLELISM_PROPERTY = "org.eclipse.gemini.management.listing.parallelism";
+
+	/**
+	 * A builder which always encodes on the calling thread
+	 */
+	public static final TableBuilder SEQUENTIAL = new TableBuilder(1);
+
+	/**
+	 * The smallest number of rows encoded by a single thread
+	 */
+	private static final int MIN_SLICE = 32;
+
+	private final int parallelism;
+
+	private final Object myLock = new Object();
+
+	private ThreadPoolExecutor executor;
+
+	/**
+	 * Encodes a single row of a table
+	 */
+	public interface RowEncoder<T> {
+
+		/**
+		 * @param item - the item to encode
+		 * @return the row representing the item
+		 * @throws IOException
+		 */
+		CompositeData encode(T item) throws IOException;
+
+	}
+
+	/**
+	 * Answer the builder configured by the framework properties
+	 *
+	 * @param bundleContext
+	 * @return the builder
+	 */
+	public static TableBuilder fromProperties(BundleContext bundleContext) {
+		String parallelismProperty = bundleContext.getProperty(PARALLELISM_PROPERTY);
+		if (parallelismProperty == null) {
+			return SEQUENTIAL;
+		}
+		try {
+			int parallelism = Integer.parseInt(parallelismProperty.trim());
+			return parallelism > 1 ? new TableBuilder(parallelism) : SEQUENTIAL;
+		} catch (NumberFormatException e) {
+			return SEQUENTIAL;
+		}
+	}
+
+	/**
+	 * Construct a builder
+	 *
+	 * @param parallelism - the number of threads encoding a large listing
+	 */
+	public TableBuilder(int parallelism) {
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Release the worker threads once the listings being encoded are done
+	 */
+	public void shutdown() {
+		synchronized (myLock) {
+			if (executor != null) {
+				executor.shutdown();
+				executor = null;
+			}
+		}
+	}
+
+	/**
+	 * Encode the items and answer the table holding the rows
+	 *
+	 * @param type - the type of the table
+	 * @param items - the items to encode
+	 * @param encoder - the encoder of a single row
+	 * @return the table
+	 * @throws IOException
+	 */
+	public <T> TabularData build(TabularType type, List<T> items, RowEncoder<T> encoder) throws IOException {
+		TabularDataSupport table = new TabularDataSupport(type);
+		int slices = Math.min(parallelism, items.size() / MIN_SLICE);
+		if (slices <= 1) {
+			for (T item : items) {
+				table.put(encoder.encode(item));
+			}
+			return table;
+		}
+		int sliceSize = (items.size() + slices - 1) / slices;
+		List<Future<CompositeData[]>> encoded = new ArrayList<Future<CompositeData[]>>();
+		ThreadPoolExecutor workers = executor();
+		for (int from = sliceSize; from < items.size(); from += sliceSize) {
+			Slice<T> slice = new Slice<T>(items.subList(from, Math.min(from + sliceSize, items.size())), encoder);
+			try {
+				encoded.add(workers.submit(slice));
+			} catch (RejectedExecutionException e) {
+				// shut down meanwhile
+				FutureTask<CompositeData[]> inline = new FutureTask<CompositeData[]>(slice);
+				inline.run();
+				encoded.add(inline);
+			}
+		}
+		try {
+			putAll(table, new Slice<T>(items.subList(0, sliceSize), encoder).call());
+			for (Future<CompositeData[]> slice : encoded) {
+				putAll(table, slice.get());
+			}
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IOException(cause);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while encoding the listing", e);
+		} finally {
+			for (Future<CompositeData[]> slice : encoded) {
+				slice.cancel(false);
+			}
+		}
+		return table;
+	}
+
+	private ThreadPoolExecutor executor() {
+		synchronized (myLock) {
+			if (executor == null) {
+				executor = new ThreadPoolExecutor(parallelism - 1, parallelism - 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ListingThreadFactory());
+				executor.allowCoreThreadTimeOut(true);
+			}
+			return executor;
+		}
+	}
+
+	private static void putAll(TabularDataSupport table, CompositeData[] rows) {
+		for (CompositeData row : rows) {
+			table.put(row);
+		}
+	}
+
+	private static final class Slice<T> implements Callable<CompositeData[]> {
+
+		private final List<T> items;
+
+		private final RowEncoder<T> encoder;
+
+		Slice(List<T> items, RowEncoder<T> encoder) {
+			this.items = items;
+			this.encoder = encoder;
+		}
+
+		public CompositeData[] call() throws IOException {
+			CompositeData[] rows = new CompositeData[items.size()];
+			int i = 0;
+			for (T item : items) {
+				rows[i++] = encoder.encode(item);
+			}
+			return rows;
+		}
+
+	}
+
+	private static final class ListingThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadNumber = new AtomicInteger();
+
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "JMX Listing Encoder " + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+
+	}
+
+}